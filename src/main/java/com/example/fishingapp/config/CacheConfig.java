@@ -0,0 +1,37 @@
+package com.example.fishingapp.config;
+
+import com.example.fishingapp.service.impl.DtoCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caché de DTOs de lectura. El proveedor lo elige spring.cache.type:
+ * caffeine (por defecto, en memoria de cada nodo) o redis (compartida entre nodos,
+ * requiere compilar con el perfil Maven redis-cache).
+ * Las métricas de aciertos/fallos se publican en /actuator/metrics/cache.gets.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> caffeineDtoCacheCustomizer(
+            @Value("${app.cache.max-size:10000}") long maxSize,
+            @Value("${app.cache.ttl-seconds:600}") long ttlSeconds) {
+        return cacheManager -> {
+            cacheManager.setCaffeine(Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .recordStats());
+            // Cachés creadas al arrancar para que queden registradas en las métricas
+            cacheManager.setCacheNames(DtoCache.CACHE_NAMES);
+        };
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.fishingapp.config;
 
 import com.cloudinary.Cloudinary;
+import com.example.fishingapp.service.impl.LocalStorageServiceImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 import jakarta.annotation.PostConstruct;
 import java.util.HashMap;
@@ -12,6 +14,7 @@ import java.util.Map;
 
 @Slf4j
 @Configuration
+@Profile("!" + LocalStorageServiceImpl.PROFILE)
 public class CloudinaryConfig {
 
     @Value("${cloudinary.cloud-name}")
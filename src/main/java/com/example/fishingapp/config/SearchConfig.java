@@ -0,0 +1,55 @@
+package com.example.fishingapp.config;
+
+import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.FishCaptureSearchRepository;
+import com.example.fishingapp.repository.InMemoryFishCaptureSearchRepository;
+import com.example.fishingapp.repository.PostgresFishCaptureSearchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Elige la implementación de búsqueda de capturas según la base de datos:
+ * full-text + trigramas en PostgreSQL, búsqueda en memoria con H2 en el perfil test.
+ * Fuera de ese perfil otra base de datos hace fallar el arranque: la búsqueda en memoria
+ * recorre todas las capturas en cada consulta y no es apta para producción.
+ */
+@Configuration
+@Slf4j
+public class SearchConfig {
+
+    @Bean
+    public FishCaptureSearchRepository fishCaptureSearchRepository(DataSource dataSource,
+                                                                   NamedParameterJdbcTemplate jdbcTemplate,
+                                                                   FishCaptureRepository fishCaptureRepository,
+                                                                   Environment environment) {
+        String database = databaseProductName(dataSource);
+        if ("PostgreSQL".equalsIgnoreCase(database)) {
+            log.info("🔎 Búsqueda de capturas con full-text de PostgreSQL");
+            return new PostgresFishCaptureSearchRepository(jdbcTemplate);
+        }
+        if (!environment.acceptsProfiles(Profiles.of("test"))) {
+            throw new IllegalStateException("La búsqueda de capturas requiere PostgreSQL (base de datos: "
+                    + database + "); la búsqueda en memoria solo está permitida con el perfil test");
+        }
+        log.info("🔎 Búsqueda de capturas en memoria (base de datos: {})", database);
+        return new InMemoryFishCaptureSearchRepository(fishCaptureRepository);
+    }
+
+    private String databaseProductName(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            log.warn("⚠️ No se pudo detectar la base de datos: {}", e.getMessage());
+            return "unknown";
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.example.fishingapp.controller;
 
 import com.example.fishingapp.dto.image.ImageDeleteResponseDto;
 import com.example.fishingapp.dto.image.ImageResponseDto;
+import com.example.fishingapp.dto.image.ImageStatusResponseDto;
 import com.example.fishingapp.dto.image.ImageUploadResponseDto;
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.service.CaptureImageService;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +24,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
 
 /**
@@ -36,6 +39,8 @@ public class CaptureImageController {
 
     private final CaptureImageService captureImageService;
 
+    private final HttpCaching httpCaching;
+
     /**
      * Sube una imagen a una captura específica
      */
@@ -93,6 +98,78 @@ public class CaptureImageController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Acepta una imagen y la procesa en segundo plano
+     */
+    @PostMapping(value = "/{captureId}/images/async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(
+            summary = "Subir una imagen de forma asíncrona",
+            description = "Valida la imagen, la deja en estado PENDING y devuelve 202 con la URL de estado. " +
+                    "El procesamiento y la subida al almacenamiento se hacen en segundo plano.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Imagen aceptada para procesamiento",
+                    content = @Content(schema = @Schema(implementation = ImageStatusResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "400", description = "Imagen inválida o límite excedido"),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "No autorizado para modificar esta captura"),
+            @ApiResponse(responseCode = "404", description = "Captura no encontrada")
+    })
+    public ResponseEntity<ImageStatusResponseDto> uploadImageAsync(
+            @Parameter(description = "ID de la captura", required = true)
+            @PathVariable Long captureId,
+
+            @Parameter(description = "Archivo de imagen (JPEG, PNG o WebP, máx 10MB)", required = true)
+            @RequestParam("file") MultipartFile file,
+
+            @AuthenticationPrincipal AuthUser authUser
+    ) {
+        log.info("POST /api/captures/{}/images/async - Archivo {} ({} bytes) por usuario {}",
+                captureId, file.getOriginalFilename(), file.getSize(), authUser.getUsername());
+
+        Long userId = authUser.getUser().getId();
+        ImageStatusResponseDto response = captureImageService.submitImageUpload(captureId, userId, file);
+
+        return ResponseEntity.accepted()
+                .location(URI.create(response.statusUrl()))
+                .body(response);
+    }
+
+    /**
+     * Consulta el estado de procesamiento de una imagen
+     */
+    @GetMapping("/images/{imageId}/status")
+    @Operation(
+            summary = "Consultar el estado de una imagen",
+            description = "Devuelve PENDING, PROCESSING, READY (con la imagen) o FAILED (con el motivo).",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estado obtenido",
+                    content = @Content(schema = @Schema(implementation = ImageStatusResponseDto.class))
+            ),
+            @ApiResponse(responseCode = "401", description = "No autenticado"),
+            @ApiResponse(responseCode = "403", description = "No autorizado"),
+            @ApiResponse(responseCode = "404", description = "Imagen no encontrada")
+    })
+    public ResponseEntity<ImageStatusResponseDto> getImageStatus(
+            @Parameter(description = "ID de la imagen", required = true)
+            @PathVariable Long imageId,
+
+            @AuthenticationPrincipal AuthUser authUser
+    ) {
+        log.debug("GET /api/captures/images/{}/status", imageId);
+
+        Long userId = authUser.getUser().getId();
+        return ResponseEntity.ok(captureImageService.getImageStatus(imageId, userId));
+    }
+
     /**
      * Sube múltiples imágenes a una captura
      */
@@ -151,12 +228,14 @@ public class CaptureImageController {
     })
     public ResponseEntity<List<ImageResponseDto>> getImagesByCapture(
             @Parameter(description = "ID de la captura", required = true)
-            @PathVariable Long captureId
+            @PathVariable Long captureId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         log.debug("GET /api/captures/{}/images", captureId);
 
-        List<ImageResponseDto> images = captureImageService.getImagesByCapture(captureId);
-        return ResponseEntity.ok(images);
+        // Si el cliente ya tiene esta versión se responde 304 sin cargar las imágenes
+        return httpCaching.conditional(ifNoneMatch, captureImageService.getImagesVersion(captureId),
+                () -> captureImageService.getImagesByCapture(captureId));
     }
 
     /**
@@ -0,0 +1,59 @@
+package com.example.fishingapp.controller;
+
+import com.example.fishingapp.service.impl.LocalStorageServiceImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Sirve los archivos del almacenamiento local (perfil local-storage).
+ * Spring atiende las cabeceras Range (206 Partial Content) y If-Modified-Since
+ * a partir del Resource, sin cargar el archivo en memoria.
+ */
+@RestController
+@RequestMapping(FileController.BASE_PATH)
+@Profile(LocalStorageServiceImpl.PROFILE)
+@RequiredArgsConstructor
+@Tag(name = "Archivos", description = "Imágenes del almacenamiento local")
+public class FileController {
+
+    static final String BASE_PATH = "/files";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final LocalStorageServiceImpl localStorageService;
+
+    @Value("${app.storage.local.cache-max-age-seconds:86400}")
+    private long cacheMaxAgeSeconds;
+
+    @GetMapping("/**")
+    @Operation(summary = "Descargar un archivo (original o thumbnail)",
+            description = "Admite peticiones Range para descargas parciales")
+    public ResponseEntity<Resource> getFile(HttpServletRequest request) throws IOException {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String key = PATH_MATCHER.extractPathWithinPattern(pattern, path);
+
+        Resource file = localStorageService.loadAsResource(key);
+
+        return ResponseEntity.ok()
+                .contentType(localStorageService.contentType(file.getFile().toPath()))
+                .lastModified(file.lastModified())
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds)).cachePublic())
+                .body(file);
+    }
+}
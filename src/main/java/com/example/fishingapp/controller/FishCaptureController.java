@@ -1,24 +1,47 @@
 package com.example.fishingapp.controller;
 
+import com.example.fishingapp.dto.CursorPage;
 import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.dto.FishCaptureFeedDto;
+import com.example.fishingapp.dto.FishCaptureImportResult;
+import com.example.fishingapp.dto.PageResponse;
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.service.FishCaptureService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/fish-captures")
 public class FishCaptureController {
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final FishCaptureService fishCaptureService;
 
-    public FishCaptureController(FishCaptureService fishCaptureService) {
+    private final ObjectMapper objectMapper;
+
+    private final HttpCaching httpCaching;
+
+    public FishCaptureController(FishCaptureService fishCaptureService, ObjectMapper objectMapper, HttpCaching httpCaching) {
         this.fishCaptureService = fishCaptureService;
+        this.objectMapper = objectMapper;
+        this.httpCaching = httpCaching;
     }
 
     @PostMapping
@@ -34,6 +57,36 @@ public class FishCaptureController {
         );
     }
 
+    /**
+     * Importación masiva de capturas del usuario autenticado (array JSON):
+     * POST /api/fish-captures/bulk
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FishCaptureImportResult> importCaptures(
+            @RequestBody List<FishCaptureDto> captures,
+            @AuthenticationPrincipal AuthUser authUser) {
+        return ResponseEntity.ok(fishCaptureService.importFishCaptures(captures, authUser.getUser().getId()));
+    }
+
+    /**
+     * Importación masiva en NDJSON (una captura JSON por línea), leída en streaming
+     * según se insertan los lotes: POST /api/fish-captures/bulk
+     */
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<FishCaptureImportResult> importCapturesNdjson(
+            InputStream body,
+            @AuthenticationPrincipal AuthUser authUser) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Iterable<FishCaptureDto> captures = () -> reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(this::readNdjsonLine)
+                    .iterator();
+            return ResponseEntity.ok(fishCaptureService.importFishCaptures(captures, authUser.getUser().getId()));
+        }
+    }
+
     @GetMapping("/{idFishCapture}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<FishCaptureDto> findFishCaptureById(@PathVariable Long idFishCapture) {
@@ -41,16 +94,96 @@ public class FishCaptureController {
     }
 
     @GetMapping("/user/{username}")
-    public ResponseEntity<List<FishCaptureDto>> getFishCaptureByUsername(@PathVariable String username) {
-        return new ResponseEntity<>(
-                fishCaptureService.getAllFishCapturesByUsername(username),
-                HttpStatus.OK
-        );
+    public ResponseEntity<List<FishCaptureDto>> getFishCaptureByUsername(
+            @PathVariable String username,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return httpCaching.conditional(ifNoneMatch,
+                fishCaptureService.getCapturesVersionByUsername(username),
+                () -> fishCaptureService.getAllFishCapturesByUsername(username));
+    }
+
+    /**
+     * Capturas de un usuario paginadas:
+     * GET /api/fish-captures/user/{username}/page?page=0&size=20&sort=captureDate,desc
+     */
+    @GetMapping("/user/{username}/page")
+    public ResponseEntity<PageResponse<FishCaptureDto>> getFishCapturePageByUsername(
+            @PathVariable String username,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return httpCaching.conditional(ifNoneMatch,
+                fishCaptureService.getCapturesVersionByUsername(username),
+                () -> fishCaptureService.getFishCapturesByUsername(username, page, size, sort));
     }
 
     @GetMapping
-    public ResponseEntity<List<FishCaptureDto>> getAllCaptures() {
-        return new ResponseEntity<>(fishCaptureService.getAllFishCapture(), HttpStatus.OK);
+    public ResponseEntity<List<FishCaptureDto>> getAllCaptures(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return httpCaching.conditional(ifNoneMatch, fishCaptureService.getCapturesVersion(),
+                fishCaptureService::getAllFishCapture);
+    }
+
+    /**
+     * Búsqueda por especie y lugar, ordenada por relevancia:
+     * GET /api/fish-captures/search?q=trucha tajo&page=0&size=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PageResponse<FishCaptureDto>> searchCaptures(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return httpCaching.conditional(ifNoneMatch, fishCaptureService.getCapturesVersion(),
+                () -> fishCaptureService.searchFishCaptures(query, page, size));
+    }
+
+    /**
+     * Feed paginado por cursor: GET /api/fish-captures/feed?cursor=...&size=20
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<FishCaptureDto>> getCaptureFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return httpCaching.conditional(ifNoneMatch, fishCaptureService.getCapturesVersion(),
+                () -> fishCaptureService.getCaptureFeed(cursor, size));
+    }
+
+    /**
+     * Feed con las miniaturas de cada captura incrustadas (una petición por página):
+     * GET /api/fish-captures/feed/with-images?cursor=...&size=20
+     */
+    @GetMapping("/feed/with-images")
+    public ResponseEntity<CursorPage<FishCaptureFeedDto>> getCaptureFeedWithImages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return httpCaching.conditional(ifNoneMatch, fishCaptureService.getFeedWithImagesVersion(),
+                () -> fishCaptureService.getCaptureFeedWithImages(cursor, size));
+    }
+
+    /**
+     * Exportación completa en NDJSON (una captura JSON por línea), escrita
+     * a la respuesta según se leen las filas: GET /api/fish-captures/export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAllCaptures() {
+        StreamingResponseBody body = outputStream -> {
+            fishCaptureService.exportAllFishCaptures(dto -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(dto));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PutMapping("/{idFishCapture}")
@@ -83,4 +216,13 @@ public class FishCaptureController {
                 HttpStatus.OK
         );
     }
-}
\ No newline at end of file
+
+    // Una línea que no es JSON válido se informa como fila rechazada (null)
+    private FishCaptureDto readNdjsonLine(String line) {
+        try {
+            return objectMapper.readValue(line, FishCaptureDto.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.fishingapp.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * GET condicionales para los endpoints públicos de lectura:
+ * si el ETag del cliente coincide se responde 304 sin construir el cuerpo.
+ * Cache-Control público para que un CDN pueda servir las respuestas.
+ */
+@Component
+public class HttpCaching {
+
+    private final CacheControl cacheControl;
+
+    public HttpCaching(@Value("${app.http.cache.max-age-seconds:30}") long maxAgeSeconds) {
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+    }
+
+    /**
+     * @param ifNoneMatch cabecera If-None-Match de la petición (puede ser null)
+     * @param version     versión actual del recurso (null: sin caché)
+     * @param body        construye el cuerpo solo si hace falta
+     */
+    public <T> ResponseEntity<T> conditional(String ifNoneMatch, String version, Supplier<T> body) {
+        if (version == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        String etag = "\"" + version + "\"";
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(body.get());
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
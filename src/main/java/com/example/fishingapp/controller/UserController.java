@@ -2,6 +2,7 @@ package com.example.fishingapp.controller;
 
 import com.example.fishingapp.dto.UserDto;
 import com.example.fishingapp.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -15,13 +16,19 @@ public class UserController {
 
     private final UserService userService;
 
-    public UserController(UserService userService) {
+    private final HttpCaching httpCaching;
+
+    public UserController(UserService userService, HttpCaching httpCaching) {
         this.userService = userService;
+        this.httpCaching = httpCaching;
     }
 
     @GetMapping("/username/{username}")
-    public ResponseEntity<UserDto> findUserByUsername(@PathVariable String username){
-        return new ResponseEntity<>(userService.findByUsername(username),HttpStatus.OK);
+    public ResponseEntity<UserDto> findUserByUsername(
+            @PathVariable String username,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return httpCaching.conditional(ifNoneMatch, userService.getUserVersion(username),
+                () -> userService.findByUsername(username));
     }
 
     @GetMapping("/id/{idUser}")
@@ -31,8 +38,9 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UserDto>> findAllUsers(){
-        return new ResponseEntity<>(userService.getAllUsers(), HttpStatus.OK);
+    public ResponseEntity<List<UserDto>> findAllUsers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        return httpCaching.conditional(ifNoneMatch, userService.getUsersVersion(), userService::getAllUsers);
     }
 
     @PutMapping
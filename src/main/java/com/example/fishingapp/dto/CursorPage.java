@@ -0,0 +1,16 @@
+package com.example.fishingapp.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginada por cursor (keyset)
+ *
+ * @param items      elementos de la página
+ * @param nextCursor cursor opaco para pedir la siguiente página (null si no hay más)
+ * @param hasNext    indica si existen más resultados
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasNext) {
+}
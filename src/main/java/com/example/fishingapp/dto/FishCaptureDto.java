@@ -2,6 +2,7 @@ package com.example.fishingapp.dto;
 
 import lombok.Builder;
 
+import java.io.Serializable;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -14,4 +15,4 @@ public record FishCaptureDto (
      Float weight,
      LocalDate captureData,
      String location,
-     LocalDateTime createdAt){}
+     LocalDateTime createdAt) implements Serializable {}
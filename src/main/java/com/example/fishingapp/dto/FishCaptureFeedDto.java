@@ -0,0 +1,35 @@
+package com.example.fishingapp.dto;
+
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Captura del feed con sus miniaturas incrustadas:
+ * mismos campos que FishCaptureDto más la lista de imágenes
+ */
+public record FishCaptureFeedDto(
+        Long id,
+        Long userId,
+        String fishType,
+        Float weight,
+        LocalDate captureData,
+        String location,
+        LocalDateTime createdAt,
+        List<ImageThumbnailDto> images) {
+
+    public static FishCaptureFeedDto of(FishCaptureDto capture, List<ImageThumbnailDto> images) {
+        return new FishCaptureFeedDto(
+                capture.id(),
+                capture.userId(),
+                capture.fishType(),
+                capture.weight(),
+                capture.captureData(),
+                capture.location(),
+                capture.createdAt(),
+                images
+        );
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.fishingapp.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de capturas, con el detalle de cada fila
+ *
+ * @param total   filas recibidas
+ * @param created filas guardadas
+ * @param failed  filas rechazadas
+ * @param rows    resultado por fila, en el orden de entrada
+ */
+public record FishCaptureImportResult(
+        int total,
+        int created,
+        int failed,
+        List<Row> rows) {
+
+    /**
+     * @param index posición de la fila en la entrada (empezando en 0)
+     * @param id    ID de la captura creada (null si falló)
+     * @param error motivo del rechazo (null si se creó)
+     */
+    public record Row(int index, Long id, String error) {
+
+        public static Row created(int index, Long id) {
+            return new Row(index, id, null);
+        }
+
+        public static Row failed(int index, String error) {
+            return new Row(index, null, error);
+        }
+    }
+
+    public static FishCaptureImportResult of(List<Row> rows) {
+        int created = (int) rows.stream().filter(row -> row.error() == null).count();
+        return new FishCaptureImportResult(rows.size(), created, rows.size() - created, rows);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.fishingapp.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Página de resultados paginada por número de página (offset)
+ *
+ * @param items         elementos de la página
+ * @param page          número de página (empezando en 0)
+ * @param size          tamaño de página aplicado
+ * @param totalElements total de elementos
+ * @param totalPages    total de páginas
+ * @param hasNext       indica si existen más resultados
+ */
+public record PageResponse<T>(
+        List<T> items,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean hasNext) {
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.hasNext()
+        );
+    }
+}
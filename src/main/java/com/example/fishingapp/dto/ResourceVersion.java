@@ -0,0 +1,21 @@
+package com.example.fishingapp.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Versión de un conjunto de filas, calculada con una consulta agregada (sin cargar entidades).
+ * Cambia al insertar, modificar o borrar cualquiera de ellas; se usa como ETag.
+ *
+ * @param count        número de filas
+ * @param lastModified última modificación (updated_at / uploaded_at) del conjunto
+ * @param idSum        suma de los IDs (detecta sustituciones que no cambian el número de filas)
+ */
+public record ResourceVersion(Long count, LocalDateTime lastModified, Long idSum) {
+
+    public String etag() {
+        long modified = lastModified == null ? 0
+                : lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1_000;
+        return Long.toHexString(count) + "-" + Long.toHexString(modified) + "-" + Long.toHexString(idSum);
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.fishingapp.dto;
 
+import java.io.Serializable;
+
 //Salida con capturas
 public record UserDto (
     Long id,
     String username,
 //    String password,
     String fullName,
-    String email){}
+    String email) implements Serializable {}
 
@@ -0,0 +1,20 @@
+package com.example.fishingapp.dto.image;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Imagen decodificada una única vez para todo el pipeline de procesamiento
+ * (dimensiones, optimización y thumbnail trabajan sobre el mismo raster)
+ *
+ * @param image    raster decodificado
+ * @param mimeType tipo MIME real detectado
+ * @param width    ancho en píxeles
+ * @param height   alto en píxeles
+ */
+public record DecodedImage(
+        BufferedImage image,
+        String mimeType,
+        int width,
+        int height
+) {
+}
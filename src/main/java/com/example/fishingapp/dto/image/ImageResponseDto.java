@@ -3,6 +3,7 @@ package com.example.fishingapp.dto.image;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 /**
@@ -38,7 +39,7 @@ public record ImageResponseDto(
         @Schema(description = "Fecha y hora de subida", example = "2025-10-20T14:30:00")
         @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
         LocalDateTime uploadedAt
-) {
+) implements Serializable {
     /**
      * Constructor compacto para validaciones (opcional)
      */
@@ -0,0 +1,30 @@
+package com.example.fishingapp.dto.image;
+
+import com.example.fishingapp.model.ImageStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Dto con el estado de procesamiento de una imagen subida de forma asíncrona
+ */
+@Schema(description = "Estado del procesamiento de una imagen")
+public record ImageStatusResponseDto(
+
+        @Schema(description = "ID de la imagen", example = "10")
+        Long imageId,
+
+        @Schema(description = "ID de la captura asociada", example = "5")
+        Long captureId,
+
+        @Schema(description = "Estado del procesamiento", example = "PENDING")
+        ImageStatus status,
+
+        @Schema(description = "URL para consultar el estado", example = "/api/captures/images/10/status")
+        String statusUrl,
+
+        @Schema(description = "Motivo del fallo (solo si status = FAILED)")
+        String errorMessage,
+
+        @Schema(description = "Imagen procesada (solo si status = READY)")
+        ImageResponseDto image
+) {
+}
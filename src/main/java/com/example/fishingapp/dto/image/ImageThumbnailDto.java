@@ -0,0 +1,22 @@
+package com.example.fishingapp.dto.image;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Resumen de una imagen para incrustar en el feed (solo URLs)
+ */
+@Schema(description = "Miniatura de una imagen de captura")
+public record ImageThumbnailDto(
+        @Schema(description = "ID único de la imagen", example = "1")
+        Long id,
+
+        @Schema(description = "ID de la captura", example = "5")
+        Long captureId,
+
+        @Schema(description = "URL de la miniatura", example = "https://res.cloudinary.com/demo/thumbnails/thumb_image.jpg")
+        String thumbnailUrl,
+
+        @Schema(description = "URL de la imagen original", example = "https://res.cloudinary.com/demo/captures/image.jpg")
+        String originalUrl
+) {
+}
@@ -0,0 +1,18 @@
+package com.example.fishingapp.exception;
+
+/**
+ * El servidor está saturado y rechaza la petición en lugar de encolarla sin límite (503)
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
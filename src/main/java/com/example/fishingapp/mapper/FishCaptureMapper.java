@@ -27,7 +27,9 @@ public class FishCaptureMapper {
         return new FishCapture(
                 fishCaptureDto.id(),
                 fishCaptureDto.captureData(),
-                fishCaptureDto.createdAt(),
+                // createdAt lo fija el servidor al insertar, nunca el cliente
+                null,
+                null,
                 fishCaptureDto.fishType(),
                 fishCaptureDto.location(),
                 fishCaptureDto.weight(),
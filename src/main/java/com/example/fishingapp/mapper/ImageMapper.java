@@ -1,7 +1,9 @@
 package com.example.fishingapp.mapper;
 
 import com.example.fishingapp.dto.image.ImageResponseDto;
+import com.example.fishingapp.dto.image.ImageStatusResponseDto;
 import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.ImageStatus;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -41,4 +43,22 @@ public class ImageMapper {
                 .map(this::toDto)
                 .toList();
     }
+
+    /**
+     * Convierte una entidad CaptureImage al Dto de estado de procesamiento
+     */
+    public ImageStatusResponseDto toStatusDto(CaptureImage image) {
+        if (image == null) {
+            return null;
+        }
+
+        return new ImageStatusResponseDto(
+                image.getId(),
+                image.getFishCapture() != null ? image.getFishCapture().getId() : null,
+                image.getStatus(),
+                "/api/captures/images/" + image.getId() + "/status",
+                image.getErrorMessage(),
+                image.getStatus() == ImageStatus.READY ? toDto(image) : null
+        );
+    }
 }
@@ -6,7 +6,12 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "capture_images")
+@Table(name = "capture_images", indexes = {
+        // Búsqueda de imágenes por captura (incluido el IN por página del feed)
+        @Index(name = "idx_capture_images_fish_capture_id", columnList = "fish_capture_id"),
+        // Deduplicación de subidas por contenido
+        @Index(name = "idx_capture_images_content_hash", columnList = "content_hash")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -20,10 +25,11 @@ public class CaptureImage {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "original_url", nullable = false, length = 500)
+    // URLs y key son null mientras la imagen está pendiente de procesar (subida asíncrona)
+    @Column(name = "original_url", length = 500)
     private String originalUrl;
 
-    @Column(name = "thumbnail_url", nullable = false, length = 500)
+    @Column(name = "thumbnail_url", length = 500)
     private String thumbnailUrl;
 
     @Column(name = "file_name", nullable = false)
@@ -44,9 +50,21 @@ public class CaptureImage {
     @Column(name = "uploaded_at", nullable = false)
     private LocalDateTime uploadedAt;
 
-    @Column(name = "s3_key", nullable = false)
+    @Column(name = "s3_key")
     private String s3Key; // Ruta en el bucket
 
+    // SHA-256 (hex) de los bytes subidos; imágenes con el mismo hash comparten archivos
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    @Builder.Default
+    private ImageStatus status = ImageStatus.READY;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "fish_capture_id", nullable = false)
     private FishCapture fishCapture;
@@ -5,11 +5,18 @@ import lombok.*;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "fish_captures")
+@Table(name = "fish_captures", indexes = {
+        // Índice compuesto para la paginación por cursor del feed (created_at, id)
+        @Index(name = "idx_fish_captures_created_at_id", columnList = "created_at DESC, id DESC"),
+        // Índices compuestos para el listado paginado por usuario ordenado por fecha o peso
+        @Index(name = "idx_fish_captures_user_capture_date", columnList = "user_id, capture_date DESC, id DESC"),
+        @Index(name = "idx_fish_captures_user_weight", columnList = "user_id, weight DESC, id DESC")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,16 +26,24 @@ import java.util.List;
 @EqualsAndHashCode(exclude = "images")
 public class FishCapture {
 
+    // Secuencia con optimizador pooled: Hibernate reserva 50 IDs por consulta
+    // y puede agrupar los INSERT en lotes JDBC (IDENTITY lo impide)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "fish_captures_seq")
+    @SequenceGenerator(name = "fish_captures_seq", sequenceName = "fish_captures_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "capture_date", nullable = false)
     private LocalDate captureDate;
 
-    @Column(name = "created_at")
+    // Lo fija siempre el servidor al insertar (ver onCreate)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
+    // Última modificación: forma parte del ETag de los listados
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "fish_type", nullable = false)
     private String fishType;
 
@@ -47,6 +62,21 @@ public class FishCapture {
     @Builder.Default
     private List<CaptureImage> images = new ArrayList<>();
 
+    @PrePersist
+    protected void onCreate() {
+        // El feed pagina por (created_at, id): nunca debe quedar a null ni venir del cliente
+        // (una fecha futura fijaría la captura en cabeza del feed público).
+        // Se trunca a microsegundos (precisión de la columna) para que el cursor
+        // construido desde la entidad coincida con el valor almacenado.
+        createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     // Método helper para añadir imágenes manteniendo la bidireccionalidad
     public void addImage(CaptureImage image) {
         images.add(image);
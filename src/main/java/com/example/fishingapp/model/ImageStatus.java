@@ -0,0 +1,11 @@
+package com.example.fishingapp.model;
+
+/**
+ * Estado del procesamiento de una imagen subida
+ */
+public enum ImageStatus {
+    PENDING,
+    PROCESSING,
+    READY,
+    FAILED
+}
@@ -0,0 +1,54 @@
+package com.example.fishingapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Borrado pendiente de un archivo del almacenamiento remoto (outbox).
+ * Se inserta en la misma transacción que borra la imagen y lo procesa StorageCleanupJob.
+ */
+@Entity
+@Table(name = "storage_deletions", indexes = {
+        @Index(name = "idx_storage_deletions_next_attempt_at", columnList = "next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_key", nullable = false, length = 500)
+    private String fileKey;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+
+    public static StorageDeletion of(String fileKey) {
+        return StorageDeletion.builder().fileKey(fileKey).build();
+    }
+}
@@ -4,6 +4,9 @@ import com.example.fishingapp.security.AuthUser;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
 @Entity
 @Table(name = "users")
 @Getter
@@ -31,5 +34,15 @@ public class User {
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private AuthUser authUser;
 
+    // Última modificación: forma parte del ETag de los endpoints de usuarios
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
     //Preguntar a la IA sobre como realizar el mapper bien tanto de user como de FishCapture
 }
@@ -2,9 +2,12 @@ package com.example.fishingapp.repository;
 
 import com.example.fishingapp.security.AuthUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface AuthUserRepository extends JpaRepository<AuthUser, Long> {
@@ -16,10 +19,25 @@ public interface AuthUserRepository extends JpaRepository<AuthUser, Long> {
 
     boolean existsByUsername(String username);
 
-    // Añade este método
-    @Query("SELECT au FROM AuthUser au WHERE au.username = :identifier OR au.email = :identifier")
+    // Estado de la cuenta para la autenticación sin estado (sin cargar la entidad)
+    boolean existsByUsernameAndEnabledTrueAndAccountNonLockedTrue(String username);
+
+    // Trae también el User: el login y la respuesta de autenticación lo necesitan sin consultas extra
+    @Query("SELECT au FROM AuthUser au LEFT JOIN FETCH au.user WHERE au.username = :identifier OR au.email = :identifier")
     Optional<AuthUser> findByUsernameOrEmail(@Param("identifier") String identifier);
 
+    // Login: una sola sentencia, sin cargar ni fusionar la entidad
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthUser au SET au.lastLoginAt = :lastLoginAt WHERE au.id = :id")
+    int updateLastLoginAt(@Param("id") Long id, @Param("lastLoginAt") LocalDateTime lastLoginAt);
+
+    // Rehash tras el login: solo actualiza la contraseña, sin cargar ni fusionar la entidad
+    @Modifying
+    @Transactional
+    @Query("UPDATE AuthUser au SET au.password = :password WHERE au.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
     // Para verificar si existe un username en la tabla User relacionada
     boolean existsByUserUsername(String username);
 }
@@ -1,17 +1,127 @@
 package com.example.fishingapp.repository;
 
+import com.example.fishingapp.dto.ResourceVersion;
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
 import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.ImageStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CaptureImageRepository extends JpaRepository<CaptureImage, Long> {
 
     List<CaptureImage> findByFishCaptureId(Long captureId);
 
+    // Bloquea las filas (SELECT ... FOR UPDATE) antes de borrarlas: una subida que esté
+    // reutilizando sus archivos termina antes, o ya no las encuentra (ver findByContentHashesForUpdate)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ci FROM CaptureImage ci WHERE ci.id = :id")
+    Optional<CaptureImage> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ci FROM CaptureImage ci WHERE ci.fishCapture.id = :captureId ORDER BY ci.id")
+    List<CaptureImage> findByFishCaptureIdForUpdate(@Param("captureId") Long captureId);
+
+    List<CaptureImage> findByFishCaptureIdAndStatus(Long captureId, ImageStatus status);
+
+    // Miniaturas de varias capturas en una sola consulta (WHERE fish_capture_id IN (...))
+    @Query("""
+            SELECT new com.example.fishingapp.dto.image.ImageThumbnailDto(
+                ci.id, ci.fishCapture.id, ci.thumbnailUrl, ci.originalUrl)
+            FROM CaptureImage ci
+            WHERE ci.fishCapture.id IN :captureIds AND ci.status = :status
+            ORDER BY ci.fishCapture.id, ci.id
+            """)
+    List<ImageThumbnailDto> findThumbnailsByCaptureIds(@Param("captureIds") Collection<Long> captureIds,
+                                                       @Param("status") ImageStatus status);
+
+    // Versión (ETag) de las imágenes de una captura en un estado
+    @Query("""
+            SELECT new com.example.fishingapp.dto.ResourceVersion(COUNT(ci), MAX(ci.uploadedAt), COALESCE(SUM(ci.id), 0L))
+            FROM CaptureImage ci
+            WHERE ci.fishCapture.id = :captureId AND ci.status = :status
+            """)
+    ResourceVersion findVersionByCaptureId(@Param("captureId") Long captureId, @Param("status") ImageStatus status);
+
+    // Versión (ETag) de todas las imágenes en un estado
+    @Query("""
+            SELECT new com.example.fishingapp.dto.ResourceVersion(COUNT(ci), MAX(ci.uploadedAt), COALESCE(SUM(ci.id), 0L))
+            FROM CaptureImage ci
+            WHERE ci.status = :status
+            """)
+    ResourceVersion findVersion(@Param("status") ImageStatus status);
+
+    // Imágenes ya procesadas del usuario con el mismo contenido (deduplicación de subidas)
+    @Query("""
+            SELECT ci FROM CaptureImage ci
+            WHERE ci.contentHash IN :hashes AND ci.fishCapture.user.id = :userId
+              AND ci.status = :status AND ci.s3Key IS NOT NULL
+            ORDER BY ci.id
+            """)
+    List<CaptureImage> findByContentHashes(@Param("hashes") Collection<String> hashes,
+                                           @Param("userId") Long userId,
+                                           @Param("status") ImageStatus status);
+
+    // Igual, pero bloqueando las filas origen hasta que se guarde la imagen que las reutiliza:
+    // así un borrado concurrente no da por libres sus archivos (findS3KeysInUse).
+    // Subconsulta en lugar de join para que el FOR UPDATE no bloquee también capturas y usuarios
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT ci FROM CaptureImage ci
+            WHERE ci.contentHash IN :hashes
+              AND ci.fishCapture.id IN (SELECT fc.id FROM FishCapture fc WHERE fc.user.id = :userId)
+              AND ci.status = :status AND ci.s3Key IS NOT NULL
+            ORDER BY ci.id
+            """)
+    List<CaptureImage> findByContentHashesForUpdate(@Param("hashes") Collection<String> hashes,
+                                                    @Param("userId") Long userId,
+                                                    @Param("status") ImageStatus status);
+
+    // Keys que otras imágenes siguen usando (archivos compartidos por deduplicación)
+    @Query("""
+            SELECT DISTINCT ci.s3Key FROM CaptureImage ci
+            WHERE ci.s3Key IN :keys AND ci.id NOT IN :excludedIds
+            """)
+    List<String> findS3KeysInUse(@Param("keys") Collection<String> keys,
+                                 @Param("excludedIds") Collection<Long> excludedIds);
+
+    @Transactional
     void deleteByFishCaptureId(Long captureId);
 
     long countByFishCaptureId(Long fishCaptureId);
+
+    // Imágenes que cuentan para el límite por captura: ni las FAILED ni las PENDING atascadas
+    // (spool perdido) ocupan hueco; las PENDING recientes sí, para que las subidas asíncronas
+    // simultáneas no se salten el límite
+    @Query("""
+            SELECT COUNT(ci) FROM CaptureImage ci
+            WHERE ci.fishCapture.id = :captureId
+              AND (ci.status IN (com.example.fishingapp.model.ImageStatus.READY,
+                                 com.example.fishingapp.model.ImageStatus.PROCESSING)
+                   OR (ci.status = com.example.fishingapp.model.ImageStatus.PENDING AND ci.uploadedAt >= :pendingSince))
+            """)
+    long countTowardsLimit(@Param("captureId") Long captureId, @Param("pendingSince") LocalDateTime pendingSince);
+
+    // Imágenes que nunca terminarán de procesarse (StaleImageSweepJob)
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE CaptureImage ci
+            SET ci.status = com.example.fishingapp.model.ImageStatus.FAILED, ci.errorMessage = :reason
+            WHERE ci.status IN :statuses AND ci.uploadedAt < :cutoff
+            """)
+    int markStaleAsFailed(@Param("statuses") Collection<ImageStatus> statuses,
+                          @Param("cutoff") LocalDateTime cutoff,
+                          @Param("reason") String reason);
 }
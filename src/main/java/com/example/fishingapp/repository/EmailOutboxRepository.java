@@ -0,0 +1,31 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.model.EmailOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Emails cuyo siguiente intento ya toca, los más antiguos primero (los agotados no se reintentan)
+    @Query("""
+            SELECT e FROM EmailOutbox e
+            WHERE e.nextAttemptAt <= :now AND e.attempts < :maxAttempts
+            ORDER BY e.nextAttemptAt, e.id
+            """)
+    List<EmailOutbox> findDue(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, Limit limit);
+
+    // Emails abandonados tras max-attempts cuyo último reintento programado es anterior a :cutoff
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.attempts >= :maxAttempts AND e.nextAttemptAt < :cutoff")
+    int deleteAbandonedBefore(@Param("maxAttempts") int maxAttempts, @Param("cutoff") LocalDateTime cutoff);
+}
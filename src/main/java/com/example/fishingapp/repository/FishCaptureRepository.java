@@ -1,12 +1,81 @@
 package com.example.fishingapp.repository;
 
+import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.dto.ResourceVersion;
 import com.example.fishingapp.model.FishCapture;
 import com.example.fishingapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface FishCaptureRepository extends JpaRepository<FishCapture, Long> {
 
     List<FishCapture> findByUser(User user);
+
+    // Capturas de un usuario paginadas, proyectadas directamente al DTO (sin cargar entidades).
+    // La ordenación (capture_date / weight) se apoya en los índices (user_id, capture_date) y (user_id, weight)
+    @Query(value = """
+            SELECT new com.example.fishingapp.dto.FishCaptureDto(
+                fc.id, u.id, fc.fishType, fc.weight, fc.captureDate, fc.location, fc.createdAt)
+            FROM FishCapture fc JOIN fc.user u
+            WHERE u.username = :username
+            """,
+            countQuery = """
+            SELECT COUNT(fc) FROM FishCapture fc JOIN fc.user u
+            WHERE u.username = :username
+            """)
+    Page<FishCaptureDto> findDtoPageByUsername(@Param("username") String username, Pageable pageable);
+
+    // Versión (ETag) de todas las capturas
+    @Query("""
+            SELECT new com.example.fishingapp.dto.ResourceVersion(COUNT(fc), MAX(fc.updatedAt), COALESCE(SUM(fc.id), 0L))
+            FROM FishCapture fc
+            """)
+    ResourceVersion findVersion();
+
+    // Versión (ETag) de las capturas de un usuario
+    @Query("""
+            SELECT new com.example.fishingapp.dto.ResourceVersion(COUNT(fc), MAX(fc.updatedAt), COALESCE(SUM(fc.id), 0L))
+            FROM FishCapture fc JOIN fc.user u
+            WHERE u.username = :username
+            """)
+    ResourceVersion findVersionByUsername(@Param("username") String username);
+
+    // Primera página del feed (más recientes primero)
+    @Query("SELECT fc FROM FishCapture fc ORDER BY fc.createdAt DESC, fc.id DESC")
+    List<FishCapture> findFeedFirstPage(Limit limit);
+
+    // Páginas siguientes: keyset sobre (created_at, id), sin OFFSET
+    @Query("""
+            SELECT fc FROM FishCapture fc
+            WHERE fc.createdAt < :createdAt
+               OR (fc.createdAt = :createdAt AND fc.id < :id)
+            ORDER BY fc.createdAt DESC, fc.id DESC
+            """)
+    List<FishCapture> findFeedAfter(@Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Limit limit);
+
+    // Recorre toda la tabla con un cursor JDBC (fetch size) para exportaciones.
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT fc FROM FishCapture fc ORDER BY fc.id")
+    Stream<FishCapture> streamAllByOrderById();
 }
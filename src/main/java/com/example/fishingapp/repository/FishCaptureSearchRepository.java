@@ -0,0 +1,19 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.dto.FishCaptureDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Búsqueda de capturas por especie y lugar, ordenada por relevancia.
+ * La implementación depende de la base de datos (ver SearchConfig):
+ * PostgreSQL usa full-text y trigramas; el resto, una búsqueda en memoria.
+ */
+public interface FishCaptureSearchRepository {
+
+    /**
+     * @param query    texto introducido por el usuario (no vacío)
+     * @param pageable página solicitada; la ordenación es siempre por relevancia
+     */
+    Page<FishCaptureDto> search(String query, Pageable pageable);
+}
@@ -0,0 +1,110 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.mapper.FishCaptureMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Búsqueda en memoria para bases de datos sin full-text de PostgreSQL (H2 en tests y desarrollo).
+ * Imita el comportamiento de PostgresFishCaptureSearchRepository: todas las palabras deben
+ * aparecer en especie o lugar (por prefijo, como aproximación al stemming), o la especie debe
+ * parecerse a la búsqueda por trigramas (mismo umbral por defecto que pg_trgm).
+ * Recorre la tabla completa en cada búsqueda: no apta para producción.
+ */
+public class InMemoryFishCaptureSearchRepository implements FishCaptureSearchRepository {
+
+    static final double SIMILARITY_THRESHOLD = 0.3;
+
+    private final FishCaptureRepository fishCaptureRepository;
+
+    public InMemoryFishCaptureSearchRepository(FishCaptureRepository fishCaptureRepository) {
+        this.fishCaptureRepository = fishCaptureRepository;
+    }
+
+    @Override
+    public Page<FishCaptureDto> search(String query, Pageable pageable) {
+        List<String> terms = words(query);
+        Set<String> queryTrigrams = trigrams(query);
+
+        List<FishCaptureDto> matches = fishCaptureRepository.findAll().stream()
+                .map(FishCaptureMapper::mapFishCaptureDto)
+                .map(capture -> new Scored(capture, score(capture, terms, queryTrigrams)))
+                .filter(scored -> scored.rank() > 0)
+                .sorted(Comparator.comparingDouble(Scored::rank).reversed()
+                        .thenComparing(scored -> scored.capture().id(), Comparator.reverseOrder()))
+                .map(Scored::capture)
+                .toList();
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    /**
+     * @return 0 si no coincide; si coincide, mayor cuanto más relevante
+     */
+    private double score(FishCaptureDto capture, List<String> terms, Set<String> queryTrigrams) {
+        List<String> document = words(capture.fishType() + " " + (capture.location() != null ? capture.location() : ""));
+        long matchedTerms = terms.stream()
+                .filter(term -> document.stream().anyMatch(word -> word.startsWith(term) || term.startsWith(word)))
+                .count();
+        double similarity = similarity(queryTrigrams, trigrams(capture.fishType()));
+
+        boolean fullText = !terms.isEmpty() && matchedTerms == terms.size();
+        if (!fullText && similarity < SIMILARITY_THRESHOLD) {
+            return 0;
+        }
+        return (fullText ? 1 : 0) + similarity;
+    }
+
+    private static List<String> words(String text) {
+        return Arrays.stream(normalize(text).split("[^a-z0-9]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Trigramas al estilo de pg_trgm: cada palabra con dos espacios delante y uno detrás
+     */
+    static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : words(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    static double similarity(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Set<String> common = new HashSet<>(a);
+        common.retainAll(b);
+        return (double) common.size() / (a.size() + b.size() - common.size());
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private record Scored(FishCaptureDto capture, double rank) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.dto.FishCaptureDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Búsqueda con full-text de PostgreSQL sobre fish_type + location (índice GIN de expresión)
+ * y, si la extensión pg_trgm está instalada, similitud de trigramas sobre fish_type para
+ * tolerar errores de escritura en la especie ("truha" encuentra "Trucha").
+ * <p>
+ * Índices (la expresión debe coincidir exactamente con SEARCH_VECTOR):
+ * <pre>
+ * CREATE INDEX idx_fish_captures_search ON fish_captures
+ *     USING GIN (to_tsvector('spanish', coalesce(fish_type, '') || ' ' || coalesce(location, '')));
+ * CREATE EXTENSION IF NOT EXISTS pg_trgm;
+ * CREATE INDEX idx_fish_captures_fish_type_trgm ON fish_captures USING GIN (fish_type gin_trgm_ops);
+ * </pre>
+ */
+@Slf4j
+public class PostgresFishCaptureSearchRepository implements FishCaptureSearchRepository {
+
+    private static final String SEARCH_VECTOR =
+            "to_tsvector('spanish', coalesce(fc.fish_type, '') || ' ' || coalesce(fc.location, ''))";
+
+    private static final RowMapper<FishCaptureDto> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new FishCaptureDto(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getString("fish_type"),
+                rs.getFloat("weight"),
+                rs.getDate("capture_date").toLocalDate(),
+                rs.getString("location"),
+                createdAt != null ? createdAt.toLocalDateTime() : null);
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String searchSql;
+    private final String countSql;
+
+    public PostgresFishCaptureSearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        boolean trigram = Boolean.TRUE.equals(jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class));
+        if (!trigram) {
+            log.warn("⚠️ Extensión pg_trgm no instalada: la búsqueda de capturas no tolerará errores de escritura");
+        }
+
+        String where = trigram
+                ? "WHERE " + SEARCH_VECTOR + " @@ q.query OR fc.fish_type % :term"
+                : "WHERE " + SEARCH_VECTOR + " @@ q.query";
+        String rank = trigram
+                ? "ts_rank(" + SEARCH_VECTOR + ", q.query) + similarity(fc.fish_type, :term)"
+                : "ts_rank(" + SEARCH_VECTOR + ", q.query)";
+        String from = "FROM fish_captures fc, websearch_to_tsquery('spanish', :term) AS q(query) ";
+
+        this.searchSql = "SELECT fc.id, fc.user_id, fc.fish_type, fc.weight, fc.capture_date, fc.location, fc.created_at, "
+                + rank + " AS rank " + from + where
+                + " ORDER BY rank DESC, fc.id DESC LIMIT :limit OFFSET :offset";
+        this.countSql = "SELECT COUNT(*) " + from + where;
+    }
+
+    @Override
+    public Page<FishCaptureDto> search(String query, Pageable pageable) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("term", query)
+                .addValue("limit", pageable.getPageSize())
+                .addValue("offset", pageable.getOffset());
+
+        List<FishCaptureDto> items = jdbcTemplate.query(searchSql, params, ROW_MAPPER);
+
+        // El COUNT solo hace falta si la página no basta para deducir el total
+        long total;
+        if (pageable.getOffset() == 0 && items.size() < pageable.getPageSize()) {
+            total = items.size();
+        } else {
+            Long count = jdbcTemplate.queryForObject(countSql, params, Long.class);
+            total = count != null ? count : 0;
+        }
+        return new PageImpl<>(items, pageable, total);
+    }
+}
@@ -2,7 +2,11 @@ package com.example.fishingapp.repository;
 
 import com.example.fishingapp.security.RefreshToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -12,11 +16,30 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
 
     Optional<RefreshToken> findByToken(String token);
 
-    void deleteByAuthUserId(Long authUserId);
+    // Refresh: token, AuthUser y User en una sola consulta
+    @Query("""
+            SELECT rt FROM RefreshToken rt
+            JOIN FETCH rt.authUser au
+            JOIN FETCH au.user
+            WHERE rt.token = :token
+            """)
+    Optional<RefreshToken> findByTokenWithUser(@Param("token") String token);
 
-    // Buscar todos los tokens de un usuario (por si quieres implementar "cerrar todas las sesiones")
-    void deleteAllByAuthUserId(Long authUserId);
+    // Borra todos los tokens de un usuario en una sola sentencia (rotación en login y "cerrar todas las sesiones")
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken rt WHERE rt.authUser.id = :authUserId")
+    int deleteAllByAuthUserId(@Param("authUserId") Long authUserId);
 
-    // Limpiar tokens expirados o revocados
-    void deleteByExpiryDateBeforeOrRevokedTrue(LocalDateTime date);
+    /**
+     * Borra como mucho batchSize tokens expirados o revocados en una sola sentencia, sin cargar
+     * las entidades. Se llama en bucle hasta que devuelve menos de batchSize (TokenCleanupJob).
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = """
+            DELETE FROM refresh_tokens WHERE id IN (
+                SELECT id FROM refresh_tokens WHERE expiry_date < :now OR revoked = TRUE LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
\ No newline at end of file
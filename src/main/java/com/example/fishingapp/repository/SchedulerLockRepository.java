@@ -0,0 +1,34 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Toma el cerrojo solo si está libre o caducado: la BD garantiza que gana un único nodo
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedBy = :owner
+            WHERE l.name = :name AND l.lockedUntil <= :now
+            """)
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Libera el cerrojo solo si sigue siendo nuestro
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE SchedulerLock l SET l.lockedUntil = :now
+            WHERE l.name = :name AND l.lockedBy = :owner
+            """)
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
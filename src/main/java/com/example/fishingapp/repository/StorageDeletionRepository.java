@@ -0,0 +1,32 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.model.StorageDeletion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+
+    // Borrados pendientes cuyo siguiente intento ya toca (los agotados no se vuelven a intentar)
+    @Query("""
+            SELECT d FROM StorageDeletion d
+            WHERE d.nextAttemptAt <= :now AND d.attempts < :maxAttempts
+            ORDER BY d.nextAttemptAt, d.id
+            """)
+    List<StorageDeletion> findDue(@Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts, Limit limit);
+
+    // Borrados abandonados tras max-attempts cuyo último reintento programado es anterior a :cutoff
+    @Query("""
+            SELECT d FROM StorageDeletion d
+            WHERE d.attempts >= :maxAttempts AND d.nextAttemptAt < :cutoff
+            ORDER BY d.id
+            """)
+    List<StorageDeletion> findAbandonedBefore(@Param("maxAttempts") int maxAttempts,
+                                              @Param("cutoff") LocalDateTime cutoff, Limit limit);
+}
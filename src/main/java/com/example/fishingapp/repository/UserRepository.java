@@ -1,7 +1,10 @@
 package com.example.fishingapp.repository;
 
+import com.example.fishingapp.dto.ResourceVersion;
 import com.example.fishingapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -14,4 +17,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    // Versión (ETag) de todos los usuarios
+    @Query("""
+            SELECT new com.example.fishingapp.dto.ResourceVersion(COUNT(u), MAX(u.updatedAt), COALESCE(SUM(u.id), 0L))
+            FROM User u
+            """)
+    ResourceVersion findVersion();
+
+    // Versión (ETag) de un usuario
+    @Query("""
+            SELECT new com.example.fishingapp.dto.ResourceVersion(COUNT(u), MAX(u.updatedAt), COALESCE(SUM(u.id), 0L))
+            FROM User u
+            WHERE u.username = :username
+            """)
+    ResourceVersion findVersionByUsername(@Param("username") String username);
 }
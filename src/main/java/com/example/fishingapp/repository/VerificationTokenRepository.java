@@ -2,6 +2,10 @@ package com.example.fishingapp.repository;
 
 import com.example.fishingapp.security.VerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -12,6 +16,14 @@ public interface VerificationTokenRepository extends JpaRepository<VerificationT
 
     void deleteByAuthUserId(Long authUserId);
 
-    // Limpiar tokens expirados (útil para tareas programadas)
-    void deleteByExpiryDateBefore(LocalDateTime date);
+    /**
+     * Borra como mucho batchSize tokens expirados en una sola sentencia, sin cargar las entidades
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query(value = """
+            DELETE FROM verification_tokens WHERE id IN (
+                SELECT id FROM verification_tokens WHERE expiry_date < :now LIMIT :batchSize)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
 }
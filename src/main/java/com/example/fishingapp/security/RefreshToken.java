@@ -7,7 +7,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        // Purga de expirados (TokenCleanupJob); token ya tiene índice por su restricción unique
+        @Index(name = "idx_refresh_tokens_expiry_date", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +29,7 @@ public class RefreshToken {
     @JoinColumn(name = "auth_user_id", nullable = false)
     private AuthUser authUser;
 
-    @Column(nullable = false)
+    @Column(name = "expiry_date", nullable = false)
     private LocalDateTime expiryDate;
 
     @Column(nullable = false)
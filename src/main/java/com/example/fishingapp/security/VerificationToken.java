@@ -7,7 +7,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "verification_tokens")
+@Table(name = "verification_tokens", indexes = {
+        // Purga de expirados (TokenCleanupJob); token ya tiene índice por su restricción unique
+        @Index(name = "idx_verification_tokens_expiry_date", columnList = "expiry_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -30,7 +33,7 @@ public class VerificationToken {
     @Column(nullable = false)
     private TokenType tokenType;
 
-    @Column(nullable = false)
+    @Column(name = "expiry_date", nullable = false)
     private LocalDateTime expiryDate;
 
     @Column(nullable = false)
@@ -1,5 +1,6 @@
 package com.example.fishingapp.security.config;
 
+import com.example.fishingapp.security.Role;
 import com.example.fishingapp.security.filter.JwtAuthenticationFilter;
 import com.example.fishingapp.service.CustomUserDetailsService;
 import lombok.RequiredArgsConstructor;
@@ -15,7 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -30,6 +30,7 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final CustomUserDetailsService userDetailsService;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final PasswordEncoder passwordEncoder;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -61,12 +62,18 @@ public class SecurityConfig {
                                 "/api/captures/*/images/count"      // Contar imágenes
                         ).permitAll()
 
+                        // Archivos del almacenamiento local (perfil local-storage)
+                        .requestMatchers(HttpMethod.GET, "/files/**").permitAll()
+
                         // Permitir GET en users
                         .requestMatchers(HttpMethod.GET, "/api/users", "/api/users/**").permitAll()
 
                         // Endpoints de administrador
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
+                        // Métricas de Actuator: solo administradores (las autoridades son el nombre del rol, sin ROLE_)
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAuthority(Role.ADMIN.name())
+
                         // Endpoints de moderador
                         .requestMatchers("/api/moderator/**").hasAnyRole("MODERATOR", "ADMIN")
 
@@ -92,7 +99,9 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // Tras un login correcto, rehace los hashes con algoritmo o coste antiguos
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -100,9 +109,4 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
\ No newline at end of file
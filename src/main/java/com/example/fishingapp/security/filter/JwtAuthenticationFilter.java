@@ -1,12 +1,19 @@
 package com.example.fishingapp.security.filter;
 
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.security.AuthUser;
+import com.example.fishingapp.security.Role;
 import com.example.fishingapp.service.CustomUserDetailsService;
+import com.example.fishingapp.service.impl.AuthServiceImpl;
+import com.example.fishingapp.service.impl.AuthUserStateCache;
 import com.example.fishingapp.service.impl.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,6 +24,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.function.Function;
 
 @Component
 @RequiredArgsConstructor
@@ -24,6 +32,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final AuthUserStateCache authUserStateCache;
+
+    // true: el principal se construye con los claims del token, sin cargar el usuario de la BD
+    @Value("${app.security.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(
@@ -42,6 +55,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             final String jwt = authHeader.substring(7);
+
+            if (statelessAuth && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Claims claims = jwtService.extractClaim(jwt, Function.identity());
+                AuthUser principal = buildPrincipal(claims);
+                if (principal != null) {
+                    authenticate(principal, request);
+                }
+                // Token sin los claims necesarios: se autentica cargando el usuario (abajo)
+            }
+
             final String username = jwtService.extractUsername(jwt);
 
             // Solo autenticar si aún no hay usuario en SecurityContext
@@ -51,10 +74,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 // Validar token
                 if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authenticate(userDetails, request);
                 }
             }
 
@@ -67,6 +87,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
+
+    /**
+     * Construye un AuthUser ligero (no persistido) a partir de los claims userId y role.
+     * La firma y la expiración ya las ha verificado JwtService. Devuelve null si faltan claims.
+     */
+    private AuthUser buildPrincipal(Claims claims) {
+        String username = claims.getSubject();
+        Number userId = claims.get(AuthServiceImpl.USER_ID, Number.class);
+        String role = claims.get(AuthServiceImpl.ROLE, String.class);
+        if (username == null || userId == null || role == null) {
+            return null;
+        }
+        if (!authUserStateCache.isActive(username, claims.getIssuedAt())) {
+            throw new IllegalStateException("Cuenta deshabilitada o token revocado: " + username);
+        }
+
+        return AuthUser.builder()
+                .username(username)
+                .role(Role.valueOf(role))
+                .enabled(true)
+                .accountNonLocked(true)
+                .user(User.builder().id(userId.longValue()).build())
+                .build();
+    }
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
         String path = request.getRequestURI();
@@ -0,0 +1,100 @@
+package com.example.fishingapp.security.password;
+
+import com.example.fishingapp.exception.ServiceBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Ejecuta los hashes de contraseñas (login y registro) en un pool propio y acotado.
+ * Un pico de logins ocupa como mucho hashing-threads núcleos; el resto de peticiones espera
+ * en una cola limitada y, si está llena o la espera supera max-wait-ms, se rechaza con 503
+ * en lugar de dejar sin CPU al resto de endpoints.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final long maxWaitMs;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMs) {
+        this.delegate = delegate;
+        this.maxWaitMs = maxWaitMs;
+
+        // Pool fijo (core = max) con AbortPolicy: cola llena -> TaskRejectedException
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("pwd-hash-");
+        executor.setDaemon(true);
+        executor.initialize();
+
+        log.info("🔐 Hash de contraseñas en pool acotado: {} hilos, cola {}, espera máx. {} ms",
+                threads, queueCapacity, maxWaitMs);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return runBounded(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return runBounded(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Solo inspecciona el prefijo y el coste del hash: no necesita el pool
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private <T> T runBounded(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (TaskRejectedException e) {
+            log.warn("⚠️ Cola de hash de contraseñas llena, petición rechazada");
+            throw busy();
+        }
+
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("⚠️ Hash de contraseña sin completar tras {} ms, petición rechazada", maxWaitMs);
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy() {
+        long retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(maxWaitMs));
+        return new ServiceBusyException("Servidor ocupado, inténtalo de nuevo en unos segundos", retryAfterSeconds);
+    }
+}
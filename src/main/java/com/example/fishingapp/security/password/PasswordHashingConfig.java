@@ -0,0 +1,82 @@
+package com.example.fishingapp.security.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.util.ClassUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encoder de contraseñas con prefijo de algoritmo ({bcrypt}, {pbkdf2}, {argon2}).
+ * Los hashes nuevos usan app.security.password.algorithm con el coste configurado; los
+ * guardados con otro algoritmo o un coste menor se actualizan en el siguiente login correcto
+ * (DaoAuthenticationProvider + UserDetailsPasswordService).
+ */
+@Configuration
+@Slf4j
+public class PasswordHashingConfig {
+
+    static final String BCRYPT = "bcrypt";
+    static final String PBKDF2 = "pbkdf2";
+    static final String ARGON2 = "argon2";
+
+    // Argon2 necesita BouncyCastle (perfil Maven argon2)
+    private static final boolean ARGON2_AVAILABLE =
+            ClassUtils.isPresent("org.bouncycastle.crypto.params.Argon2Parameters", null);
+
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.security.password.algorithm:bcrypt}") String algorithm,
+            @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength,
+            @Value("${app.security.password.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+            @Value("${app.security.password.argon2-memory-kb:19456}") int argon2MemoryKb,
+            @Value("${app.security.password.argon2-iterations:2}") int argon2Iterations,
+            @Value("${app.security.password.hashing-threads:0}") int hashingThreads,
+            @Value("${app.security.password.queue-capacity:100}") int queueCapacity,
+            @Value("${app.security.password.max-wait-ms:5000}") long maxWaitMs) {
+
+        PasswordEncoder delegating = delegatingEncoder(
+                algorithm, bcryptStrength, pbkdf2Iterations, argon2MemoryKb, argon2Iterations);
+
+        // Por defecto la mitad de los núcleos: el resto queda libre para otros endpoints
+        int threads = hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        return new BoundedPasswordEncoder(delegating, threads, queueCapacity, maxWaitMs);
+    }
+
+    static PasswordEncoder delegatingEncoder(String algorithm, int bcryptStrength, int pbkdf2Iterations,
+                                             int argon2MemoryKb, int argon2Iterations) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put(PBKDF2, new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (ARGON2_AVAILABLE) {
+            encoders.put(ARGON2, new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKb, argon2Iterations));
+        }
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Algoritmo de contraseñas no disponible: " + algorithm
+                    + (ARGON2.equals(algorithm) ? " (compila con el perfil Maven argon2)" : ""));
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        // Hashes anteriores sin prefijo {id}: eran BCrypt y se actualizan en el siguiente login
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("🔐 Contraseñas nuevas con {} (bcrypt-strength={}, pbkdf2-iterations={}, argon2 {})",
+                algorithm, bcryptStrength, pbkdf2Iterations, ARGON2_AVAILABLE ? "disponible" : "no disponible");
+        return delegating;
+    }
+}
@@ -2,10 +2,14 @@ package com.example.fishingapp.service;
 
 import com.example.fishingapp.dto.image.ImageDeleteResponseDto;
 import com.example.fishingapp.dto.image.ImageResponseDto;
+import com.example.fishingapp.dto.image.ImageStatusResponseDto;
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
 import com.example.fishingapp.dto.image.ImageUploadResponseDto;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio principal de gestión de imágenes de capturas
@@ -23,6 +27,26 @@ public interface CaptureImageService {
      */
     ImageResponseDto uploadImage(Long captureId, Long userId, MultipartFile file);
 
+    /**
+     * Acepta una imagen para procesarla en segundo plano.
+     * Valida solo la cabecera, guarda el archivo en disco y crea la imagen en estado PENDING.
+     *
+     * @param captureId ID de la captura
+     * @param userId ID del usuario propietario
+     * @param file Archivo de imagen a subir
+     * @return Estado inicial (PENDING) con la URL para consultar el progreso
+     */
+    ImageStatusResponseDto submitImageUpload(Long captureId, Long userId, MultipartFile file);
+
+    /**
+     * Obtiene el estado de procesamiento de una imagen
+     *
+     * @param imageId ID de la imagen
+     * @param userId ID del usuario (para verificar permisos)
+     * @return Estado actual y, si está lista, la imagen procesada
+     */
+    ImageStatusResponseDto getImageStatus(Long imageId, Long userId);
+
     /**
      * Sube múltiples imágenes para una captura
      *
@@ -41,6 +65,27 @@ public interface CaptureImageService {
      */
     List<ImageResponseDto> getImagesByCapture(Long captureId);
 
+    /**
+     * Versión (ETag) de las imágenes listas de una captura, sin cargarlas
+     *
+     * @param captureId ID de la captura
+     * @return versión de las imágenes de la captura
+     */
+    String getImagesVersion(Long captureId);
+
+    /**
+     * Versión (ETag) de todas las imágenes listas
+     */
+    String getAllImagesVersion();
+
+    /**
+     * Obtiene las miniaturas de varias capturas con una sola consulta
+     *
+     * @param captureIds IDs de las capturas
+     * @return Miniaturas agrupadas por ID de captura (las capturas sin imágenes no aparecen)
+     */
+    Map<Long, List<ImageThumbnailDto>> getThumbnailsByCaptures(Collection<Long> captureIds);
+
     /**
      * Obtiene una imagen específica por su ID
      *
@@ -1,9 +1,16 @@
 package com.example.fishingapp.service;
 
+import com.example.fishingapp.security.AuthUser;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
-public interface CustomUserDetailsService extends UserDetailsService {
+public interface CustomUserDetailsService extends UserDetailsService, UserDetailsPasswordService {
 
     UserDetails loadUserByUsernameOrEmail(String identifier);
+
+    /**
+     * Descarta los datos cacheados del usuario (tras modificar o eliminar la cuenta)
+     */
+    void evictUser(AuthUser authUser);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.example.fishingapp.service;
+
+import com.example.fishingapp.model.EmailOutbox;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transporte de emails usado por EmailOutboxJob
+ */
+public interface EmailSender {
+
+    /**
+     * Envía un lote de emails reutilizando la misma conexión
+     *
+     * @return ids de los emails que no se pudieron enviar, con el motivo (vacío si todo fue bien)
+     */
+    Map<Long, String> sendBatch(List<EmailOutbox> emails);
+}
@@ -1,20 +1,92 @@
 package com.example.fishingapp.service;
 
+import com.example.fishingapp.dto.CursorPage;
 import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.dto.FishCaptureFeedDto;
+import com.example.fishingapp.dto.FishCaptureImportResult;
+import com.example.fishingapp.dto.PageResponse;
 import com.example.fishingapp.security.AuthUser;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface FishCaptureService {
 
     FishCaptureDto createFishCapture(FishCaptureDto fishCaptureDto, Long userId);
 
+    /**
+     * Importación masiva: resuelve el usuario una vez e inserta en lotes JDBC,
+     * cada lote en su propia transacción. Las filas se leen según se recorren.
+     *
+     * @param captures filas a importar (una fila null se informa como no válida)
+     * @param userId usuario propietario de todas las capturas
+     * @return resultado por fila
+     */
+    FishCaptureImportResult importFishCaptures(Iterable<FishCaptureDto> captures, Long userId);
+
     FishCaptureDto findById(Long id);
 
     List<FishCaptureDto> getAllFishCapturesByUsername(String userName);
 
+    /**
+     * Capturas de un usuario paginadas, en una sola consulta
+     *
+     * @param userName usuario propietario
+     * @param page número de página (empezando en 0)
+     * @param size tamaño de página solicitado (se acota al máximo configurado)
+     * @param sort campo y dirección: captureDate, weight o createdAt, p. ej. "weight,desc"
+     */
+    PageResponse<FishCaptureDto> getFishCapturesByUsername(String userName, int page, Integer size, String sort);
+
     List<FishCaptureDto> getAllFishCapture();
 
+    /**
+     * Búsqueda por especie y lugar, ordenada por relevancia y tolerante a errores de escritura en la especie
+     *
+     * @param query texto a buscar (obligatorio)
+     * @param page número de página (empezando en 0)
+     * @param size tamaño de página solicitado (se acota al máximo configurado)
+     */
+    PageResponse<FishCaptureDto> searchFishCaptures(String query, int page, Integer size);
+
+    /**
+     * Feed de capturas paginado por cursor (más recientes primero)
+     *
+     * @param cursor cursor opaco devuelto por la página anterior (null para la primera)
+     * @param size tamaño de página solicitado (se acota al máximo configurado)
+     */
+    CursorPage<FishCaptureDto> getCaptureFeed(String cursor, Integer size);
+
+    /**
+     * Igual que getCaptureFeed, pero cada captura incluye sus miniaturas.
+     * Las imágenes de toda la página se obtienen con una sola consulta.
+     */
+    CursorPage<FishCaptureFeedDto> getCaptureFeedWithImages(String cursor, Integer size);
+
+    /**
+     * Recorre todas las capturas en streaming, entregándolas una a una al consumidor
+     * sin materializar la tabla completa en memoria
+     *
+     * @param consumer receptor de cada captura exportada
+     * @return número de capturas exportadas
+     */
+    long exportAllFishCaptures(Consumer<FishCaptureDto> consumer);
+
+    /**
+     * Versión (ETag) de todas las capturas, calculada con una consulta agregada
+     */
+    String getCapturesVersion();
+
+    /**
+     * Versión (ETag) de las capturas de un usuario (null si no tiene capturas)
+     */
+    String getCapturesVersionByUsername(String userName);
+
+    /**
+     * Versión (ETag) del feed con imágenes: combina capturas e imágenes
+     */
+    String getFeedWithImagesVersion();
+
     FishCaptureDto updateFishCaptureDto (FishCaptureDto fishCaptureDto, Long userId, AuthUser authUser);
 
     void deleteFishCaptureDto(Long fishCaptureId, Long userCaptureId);
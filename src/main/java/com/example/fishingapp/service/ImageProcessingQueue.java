@@ -0,0 +1,20 @@
+package com.example.fishingapp.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Cola de procesamiento asíncrono de imágenes
+ * El archivo se guarda en disco y un pool acotado de workers lo procesa y sube al almacenamiento
+ */
+public interface ImageProcessingQueue {
+
+    /**
+     * Guarda el archivo en disco y encola su procesamiento.
+     * Si hay una transacción activa, la tarea se encola tras el commit
+     * (el worker debe ver la fila PENDING ya confirmada).
+     *
+     * @param imageId ID de la imagen en estado PENDING
+     * @param file Archivo ya validado
+     */
+    void submit(Long imageId, MultipartFile file);
+}
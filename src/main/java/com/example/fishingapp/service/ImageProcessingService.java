@@ -1,9 +1,12 @@
 package com.example.fishingapp.service;
 
+import com.example.fishingapp.dto.image.DecodedImage;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Interfaz para el servicio de procesamiento de imágenes
@@ -12,7 +15,8 @@ import java.io.InputStream;
 public interface ImageProcessingService {
 
     /**
-     * Valida que el archivo sea una imagen válida
+     * Valida que el archivo sea una imagen válida.
+     * Solo lee la cabecera de la imagen (no decodifica los píxeles)
      *
      * @param file Archivo a validar
      * @throws com.example.fishingapp.exception.InvalidImageException si la imagen no es válida
@@ -20,7 +24,32 @@ public interface ImageProcessingService {
     void validateImage(MultipartFile file);
 
     /**
-     * Obtiene las dimensiones de una imagen
+     * Calcula el hash SHA-256 de los bytes del archivo leyéndolo en streaming
+     *
+     * @param file Archivo subido
+     * @return Hash en hexadecimal (64 caracteres)
+     */
+    String computeContentHash(MultipartFile file);
+
+    /**
+     * Decodifica la imagen una sola vez para reutilizar el raster en todo el pipeline
+     *
+     * @param file Archivo ya validado
+     * @return Imagen decodificada con su tipo MIME y dimensiones
+     * @throws com.example.fishingapp.exception.InvalidImageException si no se puede decodificar
+     */
+    DecodedImage decodeImage(MultipartFile file);
+
+    /**
+     * Decodifica una imagen guardada en disco (subidas asíncronas)
+     *
+     * @param file Ruta del archivo ya validado
+     * @return Imagen decodificada con su tipo MIME y dimensiones
+     */
+    DecodedImage decodeImage(Path file);
+
+    /**
+     * Obtiene las dimensiones de una imagen leyendo solo su cabecera
      *
      * @param inputStream Stream de la imagen
      * @return Array con [ancho, alto]
@@ -36,6 +65,14 @@ public interface ImageProcessingService {
      */
     ByteArrayInputStream createThumbnail(InputStream originalImage, String outputFormat);
 
+    /**
+     * Crea un thumbnail a partir de una imagen ya decodificada
+     *
+     * @param image Raster de la imagen original
+     * @return Stream del thumbnail generado (JPEG)
+     */
+    ByteArrayInputStream createThumbnail(BufferedImage image);
+
     /**
      * Optimiza una imagen reduciendo su calidad si es necesario
      *
@@ -46,6 +83,15 @@ public interface ImageProcessingService {
      */
     ByteArrayInputStream optimizeImage(InputStream originalImage, String outputFormat, Integer maxWidth);
 
+    /**
+     * Optimiza una imagen ya decodificada
+     *
+     * @param image Raster de la imagen original
+     * @param maxWidth Ancho máximo (null para no limitar)
+     * @return Stream de la imagen optimizada (JPEG)
+     */
+    ByteArrayInputStream optimizeImage(BufferedImage image, Integer maxWidth);
+
     /**
      * Obtiene el formato de salida basado en el tipo MIME
      *
@@ -61,13 +107,4 @@ public interface ImageProcessingService {
      * @return Tipo MIME detectado
      */
     String detectMimeType(InputStream inputStream);
-
-    /**
-     * Convierte el InputStream de un MultipartFile a ByteArrayInputStream
-     * para poder reutilizarlo múltiples veces
-     *
-     * @param file Archivo multipart
-     * @return ByteArrayInputStream que puede ser reutilizado
-     */
-    ByteArrayInputStream convertToReusableStream(MultipartFile file);
 }
\ No newline at end of file
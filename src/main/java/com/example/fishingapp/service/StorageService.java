@@ -3,6 +3,7 @@ package com.example.fishingapp.service;
 import com.example.fishingapp.dto.FileMetaData;
 
 import java.io.InputStream;
+import java.util.Collection;
 
 public interface StorageService {
     /**
@@ -23,6 +24,16 @@ public interface StorageService {
      */
     void deleteFile(String key);
 
+    /**
+     * Elimina varios archivos. Las implementaciones con API de borrado masivo
+     * lo hacen en el menor número de llamadas posible; por defecto, uno a uno.
+     *
+     * @param keys Rutas de los archivos a eliminar
+     */
+    default void deleteFiles(Collection<String> keys) {
+        keys.forEach(this::deleteFile);
+    }
+
     /**
      * Verifica si un archivo existe en S3
      *
@@ -48,4 +59,14 @@ public interface StorageService {
      * @return Clave construida (path completo en el bucket)
      */
     String buildFileKey(Long userId, Long captureId, String fileName);
+
+    /**
+     * Construye la clave (key) para almacenar el thumbnail de un archivo
+     *
+     * @param userId ID del usuario
+     * @param captureId ID de la captura
+     * @param fileName Nombre del archivo
+     * @return Clave construida
+     */
+    String buildThumbnailKey(Long userId, Long captureId, String fileName);
 }
@@ -12,6 +12,16 @@ public interface UserService {
 
     List<UserDto> getAllUsers ();
 
+    /**
+     * Versión (ETag) de todos los usuarios, calculada con una consulta agregada
+     */
+    String getUsersVersion ();
+
+    /**
+     * Versión (ETag) de un usuario (null si no existe)
+     */
+    String getUserVersion (String username);
+
     UserDto updateUserDto (UserDto userDto);
 
     void deleteUser (String username);
@@ -33,8 +33,10 @@ public interface VerificationTokenService {
 
     /**
      * Elimina tokens expirados (útil para tareas programadas)
+     *
+     * @return número de tokens eliminados
      */
-    void deleteExpiredTokens();
+    int deleteExpiredTokens();
 
     /**
      * Elimina todos los tokens de un usuario
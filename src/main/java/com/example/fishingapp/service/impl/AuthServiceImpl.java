@@ -15,6 +15,8 @@ import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.security.RefreshToken;
 import com.example.fishingapp.security.Role;
 import com.example.fishingapp.service.AuthService;
+import com.example.fishingapp.service.CustomUserDetailsService;
+import com.example.fishingapp.service.EmailService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,6 +27,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -42,12 +45,19 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final AuthUserStateCache authUserStateCache;
+    private final CustomUserDetailsService userDetailsService;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailService emailService;
 
     @Value("${jwt.refresh-token.expiration}")
     private long refreshTokenExpiration;
 
+    /**
+     * El hash de la contraseña se calcula fuera de la transacción (en el pool de
+     * BoundedPasswordEncoder): mientras espera turno no retiene ninguna conexión de BD
+     */
     @Override
-    @Transactional
     public AuthResponse register(RegisterRequest request) {
         // Verificar si el email ya existe
         if (authUserRepository.existsByUsername(request.getUsername())) {
@@ -59,57 +69,72 @@ public class AuthServiceImpl implements AuthService {
             throw new EmailAlreadyExistsException("El email ya está en uso");
         }
 
-        // Crear el User (tabla users)
-        User user = User.builder()
-                .username(request.getUsername())
-                .fullName(request.getFullName())
-                .email(request.getEmail())
-                .build();
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
 
-        User savedUser = userRepository.save(user);
-
-        // Crear el AuthUser (tabla auth_users)
-        AuthUser authUser = AuthUser.builder()
-                .username(request.getUsername())
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(Role.USER)
-                .enabled(true)
-                .accountNonLocked(true)
-                .user(savedUser)
-                .build();
+        return transactionTemplate.execute(status -> {
+            // Crear el User (tabla users)
+            User user = User.builder()
+                    .username(request.getUsername())
+                    .fullName(request.getFullName())
+                    .email(request.getEmail())
+                    .build();
 
-        AuthUser savedAuthUser = authUserRepository.save(authUser);
+            User savedUser = userRepository.save(user);
 
-        // Generar tokens con claims personalizados
-        Map<String, Object> extraClaims = new HashMap<>();
-        extraClaims.put(USER_ID, savedUser.getId());
-        extraClaims.put(ROLE, savedAuthUser.getRole().name());
+            // Crear el AuthUser (tabla auth_users)
+            AuthUser authUser = AuthUser.builder()
+                    .username(request.getUsername())
+                    .email(request.getEmail())
+                    .password(encodedPassword)
+                    .role(Role.USER)
+                    .enabled(true)
+                    .accountNonLocked(true)
+                    .user(savedUser)
+                    .build();
 
-        String accessToken = jwtService.generateToken(extraClaims, savedAuthUser);
-        String refreshToken = createRefreshToken(savedAuthUser);
+            AuthUser savedAuthUser = authUserRepository.save(authUser);
 
-        return buildAuthResponse(savedAuthUser, accessToken, refreshToken);
+            // Se encola en esta misma transacción: si el registro falla no se envía
+            emailService.sendWelcomeEmail(savedAuthUser.getEmail(), savedAuthUser.getUsername());
+
+            // Generar tokens con claims personalizados
+            Map<String, Object> extraClaims = new HashMap<>();
+            extraClaims.put(USER_ID, savedUser.getId());
+            extraClaims.put(ROLE, savedAuthUser.getRole().name());
+
+            String accessToken = jwtService.generateToken(extraClaims, savedAuthUser);
+            String refreshToken = createRefreshToken(savedAuthUser);
+
+            return buildAuthResponse(savedAuthUser, accessToken, refreshToken);
+        });
     }
 
+    /**
+     * La comprobación de la contraseña (y su rehash si el algoritmo o el coste han cambiado)
+     * ocurre antes de abrir la transacción que registra el login y crea el refresh token
+     */
     @Override
-    @Transactional
     public AuthResponse login(LoginRequest request) {
+        Authentication authentication;
         try {
             // Autenticar con Spring Security
-            Authentication authentication = authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getIdentifier(),
                             request.getPassword()
                     )
             );
+        } catch (AuthenticationException e) {
+            throw new BadCredentialsException("Email o contraseña incorrectos");
+        }
 
-            // Obtener el usuario autenticado
-            AuthUser authUser = (AuthUser) authentication.getPrincipal();
+        // Obtener el usuario autenticado (con su User, cargado en la misma consulta)
+        AuthUser authUser = (AuthUser) authentication.getPrincipal();
 
+        return transactionTemplate.execute(status -> {
             // Actualizar último login
             authUser.setLastLoginAt(LocalDateTime.now());
-            authUserRepository.save(authUser);
+            authUserRepository.updateLastLoginAt(authUser.getId(), authUser.getLastLoginAt());
 
             // Generar tokens con claims personalizados
             Map<String, Object> extraClaims = new HashMap<>();
@@ -117,13 +142,10 @@ public class AuthServiceImpl implements AuthService {
             extraClaims.put(ROLE, authUser.getRole().name());
 
             String accessToken = jwtService.generateToken(extraClaims, authUser);
-            String refreshToken = createRefreshToken(authUser);
+            String refreshToken = rotateRefreshToken(authUser);
 
             return buildAuthResponse(authUser, accessToken, refreshToken);
-
-        } catch (AuthenticationException e) {
-            throw new BadCredentialsException("Email o contraseña incorrectos");
-        }
+        });
     }
 
     @Override
@@ -131,8 +153,8 @@ public class AuthServiceImpl implements AuthService {
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         String requestRefreshToken = request.getRefreshToken();
 
-        // Buscar el refresh token en la base de datos
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(requestRefreshToken)
+        // Buscar el refresh token junto con su usuario (una sola consulta)
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenWithUser(requestRefreshToken)
                 .orElseThrow(() -> new ResourceNotFoundException("AuthService","Refresh token: "+ request.getRefreshToken(),"Refresh token no encontrado"));
 
         // Verificar si está revocado
@@ -176,18 +198,27 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new ResourceNotFoundException("AuthService","Usuario: "+ username,"Usuario no encontrado"));
 
         refreshTokenRepository.deleteAllByAuthUserId(authUser.getId());
+
+        // Autenticación sin estado: los access tokens ya emitidos dejan de aceptarse
+        authUserStateCache.revokeTokens(authUser.getUsername());
+        userDetailsService.evictUser(authUser);
+    }
+
+    /**
+     * Sustituye los refresh tokens del usuario por uno nuevo: un DELETE masivo y un INSERT
+     */
+    private String rotateRefreshToken(AuthUser authUser) {
+        refreshTokenRepository.deleteAllByAuthUserId(authUser.getId());
+        return createRefreshToken(authUser);
     }
 
     /**
      * Crea y guarda un refresh token en la base de datos
      */
     private String createRefreshToken(AuthUser authUser) {
-        // Revocar tokens anteriores del usuario (opcional, por seguridad)
-        refreshTokenRepository.deleteAllByAuthUserId(authUser.getId());
-
-        // Crear nuevo refresh token
         RefreshToken refreshToken = RefreshToken.builder()
-                .authUser(authUser)
+                // Referencia sin SELECT: solo hace falta la clave ajena
+                .authUser(authUserRepository.getReferenceById(authUser.getId()))
                 .expiryDate(LocalDateTime.now().plusSeconds(refreshTokenExpiration / 1000))
                 .revoked(false)
                 .build();
@@ -0,0 +1,93 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.repository.AuthUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de las cuentas para la autenticación sin estado (solo claims del JWT).
+ * Guarda durante unos segundos si la cuenta está activa, para no consultar la BD en cada petición,
+ * y recuerda en memoria las revocaciones de tokens hasta que los tokens afectados hayan expirado.
+ */
+@Service
+@Slf4j
+public class AuthUserStateCache {
+
+    private final AuthUserRepository authUserRepository;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final long jwtExpiration;
+
+    // username -> estado (activa/bloqueada) y momento de la comprobación
+    private final Map<String, AccountState> states = new ConcurrentHashMap<>();
+
+    // username -> segundo de la revocación: solo valen los tokens con "iat" posterior
+    private final Map<String, Instant> revocations = new ConcurrentHashMap<>();
+
+    private record AccountState(boolean active, long checkedAt) {
+    }
+
+    public AuthUserStateCache(AuthUserRepository authUserRepository,
+                              @Value("${app.security.account-state.ttl-seconds:30}") long ttlSeconds,
+                              @Value("${app.security.account-state.max-size:10000}") int maxSize,
+                              @Value("${jwt.expiration}") long jwtExpiration) {
+        this.authUserRepository = authUserRepository;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+        this.jwtExpiration = jwtExpiration;
+    }
+
+    /**
+     * Indica si un token emitido en issuedAt puede autenticar al usuario:
+     * la cuenta debe estar habilitada y no bloqueada, y el token no puede estar revocado
+     */
+    public boolean isActive(String username, Date issuedAt) {
+        Instant revokedAt = revocations.get(username);
+        if (revokedAt != null) {
+            if (revokedAt.isBefore(Instant.now().minusMillis(jwtExpiration))) {
+                // Todos los tokens anteriores a la revocación ya han expirado
+                revocations.remove(username, revokedAt);
+            } else if (issuedAt == null || !issuedAt.toInstant().isAfter(revokedAt)) {
+                // Mismo segundo que la revocación: no se puede saber si es anterior, se rechaza
+                return false;
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        AccountState state = states.get(username);
+        if (state == null || now - state.checkedAt() > ttlMillis) {
+            if (states.size() >= maxSize) {
+                states.clear();
+            }
+            boolean active = authUserRepository
+                    .existsByUsernameAndEnabledTrueAndAccountNonLockedTrue(username);
+            state = new AccountState(active, now);
+            states.put(username, state);
+        }
+        return state.active();
+    }
+
+    /**
+     * Invalida los tokens emitidos hasta ahora para el usuario (solo en esta instancia)
+     */
+    public void revokeTokens(String username) {
+        // Los "iat" del JWT tienen precisión de segundos: se compara con la misma precisión
+        revocations.put(username, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        evict(username);
+        log.info("🔒 Tokens de acceso revocados para {}", username);
+    }
+
+    /**
+     * Fuerza a recomprobar el estado de la cuenta en la próxima petición
+     */
+    public void evict(String username) {
+        states.remove(username);
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.dto.image.DecodedImage;
 import com.example.fishingapp.dto.image.ImageDeleteResponseDto;
 import com.example.fishingapp.dto.image.ImageResponseDto;
+import com.example.fishingapp.dto.image.ImageStatusResponseDto;
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
 import com.example.fishingapp.dto.image.ImageUploadResponseDto;
 import com.example.fishingapp.exception.InvalidImageException;
 import com.example.fishingapp.exception.ResourceNotFoundException;
@@ -9,9 +12,13 @@ import com.example.fishingapp.exception.UnauthorizedException;
 import com.example.fishingapp.mapper.ImageMapper;
 import com.example.fishingapp.model.CaptureImage;
 import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.model.StorageDeletion;
 import com.example.fishingapp.repository.CaptureImageRepository;
 import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.StorageDeletionRepository;
 import com.example.fishingapp.service.CaptureImageService;
+import com.example.fishingapp.service.ImageProcessingQueue;
 import com.example.fishingapp.service.ImageProcessingService;
 import com.example.fishingapp.service.StorageService;
 import lombok.RequiredArgsConstructor;
@@ -19,11 +26,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de gestión de imágenes de capturas
@@ -39,15 +57,24 @@ public class CaptureImageServiceImpl implements CaptureImageService {
     private final CaptureImageRepository captureImageRepository;
     private final FishCaptureRepository fishCaptureRepository;
     private final ImageMapper imageMapper;
-
-    // Necesitamos acceder a métodos específicos de S3StorageServiceImpl
-    private final CloudinaryStorageServiceImpl cloudinaryStorageService;
+    private final ImageProcessingQueue imageProcessingQueue;
+    private final ImageTaskExecutor imageTaskExecutor;
+    private final DtoCache dtoCache;
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.image.max-images-per-capture}")
     private int maxImagesPerCapture;
 
+    // Antigüedad a partir de la cual una imagen PENDING se da por perdida (StaleImageSweepJob)
+    @Value("${app.image.async.stale-after-minutes:30}")
+    private long staleAfterMinutes;
+
+    /**
+     * Sin @Transactional: cada acceso a BD usa su propia transacción corta y la
+     * subida al almacenamiento se hace sin retener ninguna conexión JDBC
+     */
     @Override
-    @Transactional
     public ImageResponseDto uploadImage(Long captureId, Long userId, MultipartFile file) {
         log.info("Iniciando subida de imagen para captura {} por usuario {}", captureId, userId);
 
@@ -55,7 +82,7 @@ public class CaptureImageServiceImpl implements CaptureImageService {
         FishCapture capture = validateCaptureOwnership(captureId, userId);
 
         // 2. Verificar límite de imágenes
-        long currentImageCount = captureImageRepository.countByFishCaptureId(captureId);
+        long currentImageCount = countImagesTowardsLimit(captureId);
 
         log.info("🔍 DEBUG: currentImageCount={}, maxImagesPerCapture={}, condition={}",
                 currentImageCount, maxImagesPerCapture, (currentImageCount >= maxImagesPerCapture));
@@ -70,15 +97,74 @@ public class CaptureImageServiceImpl implements CaptureImageService {
         // 3. Validar la imagen
         imageProcessingService.validateImage(file);
 
-        // 4. Procesar y subir la imagen
-        CaptureImage savedImage = processAndUploadImage(file, capture, userId);
+        // 4. Reutilizar los archivos si el usuario ya subió esta misma imagen; si no, procesar y subir
+        String contentHash = imageProcessingService.computeContentHash(file);
+        CaptureImage savedImage = reuseOrProcessImage(file, capture, userId, contentHash);
 
         log.info("Imagen subida exitosamente: ID {}", savedImage.getId());
-        return imageMapper.toDto(savedImage);
+        ImageResponseDto savedDto = imageMapper.toDto(savedImage);
+        dtoCache.put(DtoCache.CAPTURE_IMAGES, savedImage.getId(), savedDto);
+        return savedDto;
     }
 
     @Override
     @Transactional
+    public ImageStatusResponseDto submitImageUpload(Long captureId, Long userId, MultipartFile file) {
+        log.info("Aceptando imagen para procesamiento asíncrono en captura {} por usuario {}", captureId, userId);
+
+        // 1. Verificar que la captura existe y pertenece al usuario
+        FishCapture capture = validateCaptureOwnership(captureId, userId);
+
+        // 2. Verificar límite de imágenes (las pendientes recientes también cuentan)
+        long currentImageCount = countImagesTowardsLimit(captureId);
+        if (currentImageCount >= maxImagesPerCapture) {
+            throw new InvalidImageException(
+                    String.format("Se ha alcanzado el límite máximo de %d imágenes por captura",
+                            maxImagesPerCapture));
+        }
+
+        // 3. Validar la imagen (solo cabecera, sin decodificar)
+        imageProcessingService.validateImage(file);
+
+        // 4. Imagen ya subida por el usuario: queda lista sin pasar por la cola
+        String contentHash = imageProcessingService.computeContentHash(file);
+        CaptureImage reusedImage = saveReusedImage(file, capture, userId, contentHash);
+        if (reusedImage != null) {
+            return imageMapper.toStatusDto(reusedImage);
+        }
+
+        // 5. Crear la imagen en estado PENDING
+        CaptureImage pendingImage = CaptureImage.builder()
+                .fileName(sanitizeFileName(file.getOriginalFilename()))
+                .fileSize(file.getSize())
+                .mimeType(file.getContentType() != null ? file.getContentType() : "application/octet-stream")
+                .contentHash(contentHash)
+                .status(ImageStatus.PENDING)
+                .fishCapture(capture)
+                .build();
+        CaptureImage savedImage = captureImageRepository.save(pendingImage);
+
+        // 6. Guardar en disco y encolar (el worker arranca tras el commit)
+        imageProcessingQueue.submit(savedImage.getId(), file);
+
+        log.info("Imagen {} aceptada, pendiente de procesamiento", savedImage.getId());
+        return imageMapper.toStatusDto(savedImage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ImageStatusResponseDto getImageStatus(Long imageId, Long userId) {
+        CaptureImage image = captureImageRepository.findById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("Imagen no encontrada con ID: " + imageId));
+
+        if (!image.getFishCapture().getUser().getId().equals(userId)) {
+            throw new UnauthorizedException("No tienes permisos para consultar esta imagen");
+        }
+
+        return imageMapper.toStatusDto(image);
+    }
+
+    @Override
     public ImageUploadResponseDto uploadMultipleImages(Long captureId, Long userId, MultipartFile[] files) {
         log.info("Iniciando subida de {} imágenes para captura {} por usuario {}",
                 files.length, captureId, userId);
@@ -87,7 +173,7 @@ public class CaptureImageServiceImpl implements CaptureImageService {
         FishCapture capture = validateCaptureOwnership(captureId, userId);
 
         // 2. Verificar límite de imágenes
-        long currentImageCount = captureImageRepository.countByFishCaptureId(captureId);
+        long currentImageCount = countImagesTowardsLimit(captureId);
         int newImageCount = files.length;
 
         if (currentImageCount + newImageCount > maxImagesPerCapture) {
@@ -100,15 +186,44 @@ public class CaptureImageServiceImpl implements CaptureImageService {
         List<ImageResponseDto> uploadedImages = new ArrayList<>();
         List<String> errors = new ArrayList<>();
 
+        // Imágenes que el usuario ya subió: una sola consulta para todo el lote
+        List<String> contentHashes = new ArrayList<>(files.length);
+        for (MultipartFile file : files) {
+            contentHashes.add(contentHashOrNull(file));
+        }
+        Map<String, CaptureImage> reusable = findReusableImages(contentHashes, userId);
+
+        // Cada archivo se procesa en paralelo (pool acotado); el orden de la respuesta se mantiene
+        List<CompletableFuture<ProcessedImage>> pendingUploads = new ArrayList<>();
         for (int i = 0; i < files.length; i++) {
             MultipartFile file = files[i];
-            try {
+            String contentHash = contentHashes.get(i);
+            CaptureImage duplicate = contentHash != null ? reusable.get(contentHash) : null;
+            if (duplicate != null) {
+                // Sin procesar ni subir nada: se reutiliza al guardar, con la fila origen bloqueada
+                pendingUploads.add(null);
+                continue;
+            }
+            pendingUploads.add(imageTaskExecutor.process(() -> {
                 // Validar
                 imageProcessingService.validateImage(file);
 
-                // Procesar y subir
-                CaptureImage savedImage = processAndUploadImage(file, capture, userId);
-                uploadedImages.add(imageMapper.toDto(savedImage));
+                // Procesar y subir (sin tocar la BD desde el pool)
+                return processAndUploadFiles(file, capture, userId, contentHash);
+            }));
+        }
+
+        for (int i = 0; i < files.length; i++) {
+            MultipartFile file = files[i];
+            try {
+                // Guardar en el hilo de la petición, dentro de su transacción si la hay
+                CompletableFuture<ProcessedImage> pendingUpload = pendingUploads.get(i);
+                CaptureImage savedImage = pendingUpload != null
+                        ? saveProcessedImage(ImageTaskExecutor.await(pendingUpload))
+                        : reuseOrProcessImage(file, capture, userId, contentHashes.get(i));
+                ImageResponseDto savedDto = imageMapper.toDto(savedImage);
+                dtoCache.put(DtoCache.CAPTURE_IMAGES, savedImage.getId(), savedDto);
+                uploadedImages.add(savedDto);
 
                 log.info("Imagen {}/{} subida exitosamente", i + 1, files.length);
 
@@ -145,7 +260,8 @@ public class CaptureImageServiceImpl implements CaptureImageService {
             throw new ResourceNotFoundException("Captura no encontrada con ID: " + captureId);
         }
 
-        List<CaptureImage> images = captureImageRepository.findByFishCaptureId(captureId);
+        // Solo las imágenes ya procesadas (las pendientes no tienen URLs todavía)
+        List<CaptureImage> images = captureImageRepository.findByFishCaptureIdAndStatus(captureId, ImageStatus.READY);
         log.debug("Encontradas {} imágenes para captura {}", images.size(), captureId);
 
         return imageMapper.toDtoList(images);
@@ -153,13 +269,39 @@ public class CaptureImageServiceImpl implements CaptureImageService {
 
     @Override
     @Transactional(readOnly = true)
+    public String getImagesVersion(Long captureId) {
+        if (!fishCaptureRepository.existsById(captureId)) {
+            throw new ResourceNotFoundException("Captura no encontrada con ID: " + captureId);
+        }
+        return captureImageRepository.findVersionByCaptureId(captureId, ImageStatus.READY).etag();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getAllImagesVersion() {
+        return captureImageRepository.findVersion(ImageStatus.READY).etag();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ImageThumbnailDto>> getThumbnailsByCaptures(Collection<Long> captureIds) {
+        if (captureIds.isEmpty()) {
+            return Map.of();
+        }
+        return captureImageRepository.findThumbnailsByCaptureIds(captureIds, ImageStatus.READY)
+                .stream()
+                .collect(Collectors.groupingBy(ImageThumbnailDto::captureId));
+    }
+
+    @Override
     public ImageResponseDto getImageById(Long imageId) {
         log.debug("Obteniendo imagen con ID {}", imageId);
 
-        CaptureImage image = captureImageRepository.findById(imageId)
-                .orElseThrow(() -> new ResourceNotFoundException("Imagen no encontrada con ID: " + imageId));
-
-        return imageMapper.toDto(image);
+        // Solo se cachean imágenes READY: las pendientes lanzan 404 y no se guardan
+        return dtoCache.get(DtoCache.CAPTURE_IMAGES, imageId, () -> captureImageRepository.findById(imageId)
+                .filter(found -> found.getStatus() == ImageStatus.READY)
+                .map(imageMapper::toDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Imagen no encontrada con ID: " + imageId)));
     }
 
     @Override
@@ -167,8 +309,8 @@ public class CaptureImageServiceImpl implements CaptureImageService {
     public ImageDeleteResponseDto deleteImage(Long imageId, Long userId) {
         log.info("Eliminando imagen {} por usuario {}", imageId, userId);
 
-        // 1. Obtener la imagen
-        CaptureImage image = captureImageRepository.findById(imageId)
+        // 1. Obtener la imagen, bloqueando la fila frente a subidas que reutilicen sus archivos
+        CaptureImage image = captureImageRepository.findByIdForUpdate(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Imagen no encontrada con ID: " + imageId));
 
         // 2. Verificar permisos
@@ -177,22 +319,11 @@ public class CaptureImageServiceImpl implements CaptureImageService {
             throw new UnauthorizedException("No tienes permisos para eliminar esta imagen");
         }
 
-        // 3. Eliminar de S3
-        try {
-            storageService.deleteFile(image.getS3Key());
-
-            // Eliminar también el thumbnail
-            String thumbnailKey = extractS3KeyFromUrl(image.getThumbnailUrl());
-            storageService.deleteFile(thumbnailKey);
-
-            log.info("Archivos eliminados de S3 correctamente");
-        } catch (Exception e) {
-            log.error("Error al eliminar archivos de S3: {}", e.getMessage());
-            // Continuamos con la eliminación de BD aunque falle S3
-        }
-
-        // 4. Eliminar de la base de datos
+        // 3. Eliminar de la base de datos y registrar el borrado de sus archivos en la misma transacción
+        // (StorageCleanupJob los elimina del almacenamiento después, con reintentos)
         captureImageRepository.delete(image);
+        dtoCache.evict(DtoCache.CAPTURE_IMAGES, imageId);
+        enqueueStoredFilesDeletion(List.of(image));
 
         log.info("Imagen {} eliminada exitosamente", imageId);
         return ImageDeleteResponseDto.success(imageId, captureId);
@@ -208,22 +339,12 @@ public class CaptureImageServiceImpl implements CaptureImageService {
             throw new UnauthorizedException("No tienes permisos para eliminar estas imágenes");
         }
 
-        List<CaptureImage> images = captureImageRepository.findByFishCaptureId(captureId);
+        List<CaptureImage> images = captureImageRepository.findByFishCaptureIdForUpdate(captureId);
 
-        // Eliminar cada imagen
-        for (CaptureImage image : images) {
-            try {
-                // Eliminar de S3
-                storageService.deleteFile(image.getS3Key());
-                String thumbnailKey = extractS3KeyFromUrl(image.getThumbnailUrl());
-                storageService.deleteFile(thumbnailKey);
-            } catch (Exception e) {
-                log.error("Error al eliminar imagen {} de S3: {}", image.getId(), e.getMessage());
-            }
-        }
-
-        // Eliminar de BD
+        // Filas y borrados pendientes de sus archivos en la misma transacción
         captureImageRepository.deleteByFishCaptureId(captureId);
+        evictImageDtos(images);
+        enqueueStoredFilesDeletion(images);
 
         log.info("Eliminadas {} imágenes de captura {}", images.size(), captureId);
     }
@@ -250,33 +371,18 @@ public class CaptureImageServiceImpl implements CaptureImageService {
     public void deleteAllImagesByCaptureInternal(Long captureId) {
         log.info("🗑️ Eliminando todas las imágenes de captura {} (cascada interna)", captureId);
 
-        List<CaptureImage> images = captureImageRepository.findByFishCaptureId(captureId);
+        List<CaptureImage> images = captureImageRepository.findByFishCaptureIdForUpdate(captureId);
 
         if (images.isEmpty()) {
             log.info("ℹ️ No hay imágenes para eliminar en captura {}", captureId);
             return;
         }
 
-        // Eliminar cada imagen de S3
-        for (CaptureImage image : images) {
-            try {
-                // Eliminar imagen original
-                storageService.deleteFile(image.getS3Key());
-                log.debug("✅ Imagen original eliminada de S3: {}", image.getS3Key());
-
-                // Eliminar thumbnail
-                String thumbnailKey = extractS3KeyFromUrl(image.getThumbnailUrl());
-                storageService.deleteFile(thumbnailKey);
-                log.debug("✅ Thumbnail eliminado de S3: {}", thumbnailKey);
-
-            } catch (Exception e) {
-                log.error("⚠️ Error al eliminar imagen {} de S3: {}", image.getId(), e.getMessage());
-                // Continuar con las demás aunque falle una
-            }
-        }
-
-        // Eliminar de BD
+        // Eliminar de BD. Se ejecuta dentro de la transacción de quien borra la captura:
+        // los borrados pendientes solo quedan registrados si esa transacción confirma
         captureImageRepository.deleteByFishCaptureId(captureId);
+        evictImageDtos(images);
+        enqueueStoredFilesDeletion(images);
 
         log.info("✅ Eliminadas {} imágenes de captura {}", images.size(), captureId);
     }
@@ -303,7 +409,103 @@ public class CaptureImageServiceImpl implements CaptureImageService {
         return capture;
     }
 
-    private CaptureImage processAndUploadImage(MultipartFile file, FishCapture capture, Long userId) {
+    /**
+     * Imágenes de la captura que ocupan hueco en el límite max-images-per-capture
+     */
+    private long countImagesTowardsLimit(Long captureId) {
+        return captureImageRepository.countTowardsLimit(captureId, LocalDateTime.now().minusMinutes(staleAfterMinutes));
+    }
+
+    private CaptureImage processAndUploadImage(MultipartFile file, FishCapture capture, Long userId, String contentHash) {
+        return saveProcessedImage(processAndUploadFiles(file, capture, userId, contentHash));
+    }
+
+    /**
+     * Imágenes READY del usuario con alguno de los hashes dados, indexadas por hash.
+     * Sin bloqueo: solo decide qué archivos no hace falta procesar (se reutilizan con saveReusedImage)
+     */
+    private Map<String, CaptureImage> findReusableImages(Collection<String> contentHashes, Long userId) {
+        List<String> hashes = contentHashes.stream().filter(Objects::nonNull).distinct().toList();
+        if (hashes.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return captureImageRepository.findByContentHashes(hashes, userId, ImageStatus.READY).stream()
+                .collect(Collectors.toMap(CaptureImage::getContentHash, Function.identity(), (first, other) -> first));
+    }
+
+    /**
+     * Reutiliza los archivos de una imagen idéntica del usuario o, si ya no hay ninguna, procesa y sube la imagen
+     */
+    private CaptureImage reuseOrProcessImage(MultipartFile file, FishCapture capture, Long userId, String contentHash) {
+        CaptureImage reusedImage = saveReusedImage(file, capture, userId, contentHash);
+        return reusedImage != null ? reusedImage : processAndUploadImage(file, capture, userId, contentHash);
+    }
+
+    /**
+     * Guarda una imagen que apunta a los archivos de otra idéntica, o devuelve null si no hay ninguna.
+     * La búsqueda bloquea la fila origen hasta el commit: un borrado concurrente espera y después
+     * ve la nueva fila en findS3KeysInUse, o termina antes y aquí el origen ya no aparece.
+     */
+    private CaptureImage saveReusedImage(MultipartFile file, FishCapture capture, Long userId, String contentHash) {
+        if (contentHash == null) {
+            return null;
+        }
+        return transactionTemplate.execute(status -> {
+            List<CaptureImage> sources = captureImageRepository.findByContentHashesForUpdate(
+                    List.of(contentHash), userId, ImageStatus.READY);
+            if (sources.isEmpty()) {
+                return null;
+            }
+            CaptureImage source = sources.get(0);
+            CaptureImage savedImage = captureImageRepository.save(reuseProcessedImage(source, file, capture));
+            log.info("Imagen {} reutiliza los archivos de la imagen {}", savedImage.getId(), source.getId());
+            return savedImage;
+        });
+    }
+
+    /**
+     * Nueva imagen que apunta a los archivos ya procesados de otra con el mismo contenido
+     */
+    private CaptureImage reuseProcessedImage(CaptureImage existing, MultipartFile file, FishCapture capture) {
+        return CaptureImage.builder()
+                .originalUrl(existing.getOriginalUrl())
+                .thumbnailUrl(existing.getThumbnailUrl())
+                .s3Key(existing.getS3Key())
+                .mimeType(existing.getMimeType())
+                .width(existing.getWidth())
+                .height(existing.getHeight())
+                .contentHash(existing.getContentHash())
+                .fileName(sanitizeFileName(file.getOriginalFilename()))
+                .fileSize(file.getSize())
+                .fishCapture(capture)
+                .build();
+    }
+
+    /**
+     * Hash del archivo, o null si no se puede leer (el procesamiento informará del error)
+     */
+    private String contentHashOrNull(MultipartFile file) {
+        try {
+            return imageProcessingService.computeContentHash(file);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ No se pudo calcular el hash de '{}': {}", file.getOriginalFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Imagen ya subida al almacenamiento y pendiente de guardar en BD,
+     * junto con las keys a eliminar si el guardado falla
+     */
+    private record ProcessedImage(CaptureImage image, List<String> uploadedKeys) {
+    }
+
+    /**
+     * Decodifica, optimiza y sube la imagen original y el thumbnail.
+     * No accede a la BD, por lo que puede ejecutarse en el pool de procesamiento.
+     */
+    private ProcessedImage processAndUploadFiles(MultipartFile file, FishCapture capture, Long userId,
+                                                 String contentHash) {
         log.info("╔════════════════════════════════════════════════════════╗");
         log.info("║  PROCESANDO Y SUBIENDO IMAGEN                         ║");
         log.info("╚════════════════════════════════════════════════════════╝");
@@ -313,33 +515,30 @@ public class CaptureImageServiceImpl implements CaptureImageService {
         log.info("Captura ID: {}", capture.getId());
         log.info("Usuario ID: {}", userId);
 
+        // Archivos ya subidos, para compensar si falla un paso posterior
+        List<String> uploadedKeys = new ArrayList<>();
+
         try {
-            // 1. Detectar tipo MIME y formato
-            log.info("📋 Paso 1: Detectando tipo MIME...");
-            ByteArrayInputStream reusableStream = imageProcessingService.convertToReusableStream(file);
-            String mimeType = imageProcessingService.detectMimeType(reusableStream);
+            // 1. Decodificar la imagen una sola vez (tipo MIME, dimensiones y raster)
+            log.info("📋 Paso 1: Decodificando imagen...");
+            DecodedImage decoded = imageProcessingService.decodeImage(file);
+            String mimeType = decoded.mimeType();
             String outputFormat = imageProcessingService.getOutputFormat(mimeType);
             log.info("  ✓ MIME type: {}", mimeType);
             log.info("  ✓ Output format: {}", outputFormat);
 
-            // 2. Obtener dimensiones originales
-            log.info("📐 Paso 2: Obteniendo dimensiones...");
-            reusableStream.reset();
-            int[] dimensions = imageProcessingService.getImageDimensions(reusableStream);
+            // 2. Dimensiones originales (del raster ya decodificado)
+            int[] dimensions = {decoded.width(), decoded.height()};
             log.info("  ✓ Dimensiones: {}x{}", dimensions[0], dimensions[1]);
 
             // 3. Optimizar imagen original
             log.info("🔧 Paso 3: Optimizando imagen...");
-            reusableStream.reset();
-            ByteArrayInputStream optimizedImage = imageProcessingService.optimizeImage(
-                    reusableStream, outputFormat, 1920);
+            ByteArrayInputStream optimizedImage = imageProcessingService.optimizeImage(decoded.image(), 1920);
             log.info("  ✓ Imagen optimizada. Tamaño: {} bytes", optimizedImage.available());
 
             // 4. Crear thumbnail
             log.info("🖼️ Paso 4: Creando thumbnail...");
-            reusableStream.reset();
-            ByteArrayInputStream thumbnail = imageProcessingService.createThumbnail(
-                    reusableStream, outputFormat);
+            ByteArrayInputStream thumbnail = imageProcessingService.createThumbnail(decoded.image());
             log.info("  ✓ Thumbnail creado. Tamaño: {} bytes", thumbnail.available());
 
             // 5. Generar nombres de archivo únicos
@@ -351,30 +550,31 @@ public class CaptureImageServiceImpl implements CaptureImageService {
             // 6. Construir keys para S3
             log.info("🔑 Paso 6: Construyendo keys para S3...");
             String originalKey = storageService.buildFileKey(userId, capture.getId(), sanitizedFileName);
-            String thumbnailKey = cloudinaryStorageService.buildThumbnailKey(userId, capture.getId(), sanitizedFileName);
+            String thumbnailKey = storageService.buildThumbnailKey(userId, capture.getId(), sanitizedFileName);
             log.info("  ✓ Key original: {}", originalKey);
             log.info("  ✓ Key thumbnail: {}", thumbnailKey);
 
-            // 7. Subir imagen original a S3
-            log.info("☁️ Paso 7: Subiendo imagen original a S3...");
-            String originalUrl = storageService.uploadFile(
-                    originalKey,
-                    optimizedImage,
-                    optimizedImage.available(),
-                    mimeType);
+            // 7-8. Subir imagen original y thumbnail en paralelo (sin transacción abierta)
+            log.info("☁️ Paso 7-8: Subiendo imagen original y thumbnail a S3...");
+            CompletableFuture<String> originalUpload = imageTaskExecutor.upload(() -> storageService.uploadFile(
+                    originalKey, optimizedImage, optimizedImage.available(), mimeType));
+            CompletableFuture<String> thumbnailUpload = imageTaskExecutor.upload(() -> storageService.uploadFile(
+                    thumbnailKey, thumbnail, thumbnail.available(), mimeType));
+
+            // Esperar a ambas antes de decidir, para poder compensar la que sí terminó
+            CompletableFuture.allOf(originalUpload, thumbnailUpload).handle((result, error) -> null).join();
+            if (!originalUpload.isCompletedExceptionally()) {
+                uploadedKeys.add(originalKey);
+            }
+            if (!thumbnailUpload.isCompletedExceptionally()) {
+                uploadedKeys.add(thumbnailKey);
+            }
+            String originalUrl = ImageTaskExecutor.await(originalUpload);
+            String thumbnailUrl = ImageTaskExecutor.await(thumbnailUpload);
             log.info("  ✅ URL imagen original: {}", originalUrl);
-
-            // 8. Subir thumbnail a S3
-            log.info("☁️ Paso 8: Subiendo thumbnail a S3...");
-            String thumbnailUrl = storageService.uploadFile(
-                    thumbnailKey,
-                    thumbnail,
-                    thumbnail.available(),
-                    mimeType);
             log.info("  ✅ URL thumbnail: {}", thumbnailUrl);
 
-            // 9. Crear entidad y guardar en BD
-            log.info("💾 Paso 9: Guardando en base de datos...");
+            // 9. Crear entidad (se guarda en saveProcessedImage)
             CaptureImage captureImage = CaptureImage.builder()
                     .originalUrl(originalUrl)
                     .thumbnailUrl(thumbnailUrl)
@@ -384,10 +584,24 @@ public class CaptureImageServiceImpl implements CaptureImageService {
                     .width(dimensions[0])
                     .height(dimensions[1])
                     .s3Key(originalKey)
+                    .contentHash(contentHash)
                     .fishCapture(capture)
                     .build();
 
-            CaptureImage savedImage = captureImageRepository.save(captureImage);
+            return new ProcessedImage(captureImage, uploadedKeys);
+
+        } catch (Exception e) {
+            throw processingFailed(e, uploadedKeys);
+        }
+    }
+
+    /**
+     * Guarda en BD una imagen ya subida; si falla, elimina sus archivos del almacenamiento
+     */
+    private CaptureImage saveProcessedImage(ProcessedImage processed) {
+        try {
+            log.info("💾 Paso 9: Guardando en base de datos...");
+            CaptureImage savedImage = captureImageRepository.save(processed.image());
             log.info("  ✅ Imagen guardada con ID: {}", savedImage.getId());
 
             log.info("╔════════════════════════════════════════════════════════╗");
@@ -397,15 +611,60 @@ public class CaptureImageServiceImpl implements CaptureImageService {
             return savedImage;
 
         } catch (Exception e) {
-            log.error("╔════════════════════════════════════════════════════════╗");
-            log.error("║  ❌ ERROR EN EL PROCESO                                ║");
-            log.error("╚════════════════════════════════════════════════════════╝");
-            log.error("Error en paso: {}", e.getMessage());
-            log.error("Stack trace completo:", e);
-            throw new RuntimeException("Error procesando imagen: " + e.getMessage(), e);
+            throw processingFailed(e, processed.uploadedKeys());
         }
     }
 
+    private RuntimeException processingFailed(Exception e, List<String> uploadedKeys) {
+        log.error("╔════════════════════════════════════════════════════════╗");
+        log.error("║  ❌ ERROR EN EL PROCESO                                ║");
+        log.error("╚════════════════════════════════════════════════════════╝");
+        log.error("Error en paso: {}", e.getMessage());
+        log.error("Stack trace completo:", e);
+
+        // Compensación: no dejar archivos huérfanos en el almacenamiento
+        for (String key : uploadedKeys) {
+            try {
+                storageService.deleteFile(key);
+                log.info("↩️ Archivo {} eliminado tras el error", key);
+            } catch (Exception deleteError) {
+                log.error("⚠️ No se pudo eliminar el archivo huérfano {}: {}", key, deleteError.getMessage());
+            }
+        }
+        return new RuntimeException("Error procesando imagen: " + e.getMessage(), e);
+    }
+
+    /**
+     * Registra en el outbox (storage_deletions) el borrado de la imagen original y el thumbnail
+     * de cada imagen; debe llamarse dentro de la transacción que borra las filas
+     */
+    private void enqueueStoredFilesDeletion(List<CaptureImage> images) {
+        // Imágenes pendientes o fallidas no tienen archivos subidos
+        List<CaptureImage> stored = images.stream().filter(image -> image.getS3Key() != null).toList();
+        if (stored.isEmpty()) {
+            return;
+        }
+        // Archivos compartidos (misma imagen subida varias veces) que otras imágenes siguen usando
+        Set<String> keysInUse = new HashSet<>(captureImageRepository.findS3KeysInUse(
+                stored.stream().map(CaptureImage::getS3Key).toList(),
+                images.stream().map(CaptureImage::getId).toList()));
+
+        List<String> keys = new ArrayList<>(stored.size() * 2);
+        for (CaptureImage image : stored) {
+            if (!keysInUse.add(image.getS3Key())) {
+                // En uso por otra imagen, o ya añadido en este lote
+                continue;
+            }
+            keys.add(image.getS3Key());
+            keys.add(extractS3KeyFromUrl(image.getThumbnailUrl()));
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+        storageDeletionRepository.saveAll(keys.stream().map(StorageDeletion::of).toList());
+        log.debug("📝 {} archivos pendientes de eliminar del almacenamiento", keys.size());
+    }
+
     /**
      * Construye mensaje de resultado de subida múltiple
      */
@@ -445,4 +704,8 @@ public class CaptureImageServiceImpl implements CaptureImageService {
                 .replaceAll("_{2,}", "_")
                 .toLowerCase();
     }
+
+    private void evictImageDtos(List<CaptureImage> images) {
+        images.forEach(image -> dtoCache.evict(DtoCache.CAPTURE_IMAGES, image.getId()));
+    }
 }
@@ -7,16 +7,25 @@ import com.example.fishingapp.exception.StorageException;
 import com.example.fishingapp.service.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
+@Profile("!" + LocalStorageServiceImpl.PROFILE)
 @RequiredArgsConstructor
 @Slf4j
 public class CloudinaryStorageServiceImpl implements StorageService {
@@ -28,6 +37,9 @@ public class CloudinaryStorageServiceImpl implements StorageService {
     private static final String FOLDER_CAPTURES = "fish-captures/captures";
     private static final String FOLDER_THUMBNAILS = "fish-captures/thumbnails";
 
+    // Máximo de public_ids por llamada de borrado de la Admin API
+    static final int DELETE_BATCH_SIZE = 100;
+
     @Override
     public String uploadFile(String key, InputStream inputStream, long contentLength, String contentType) {
         log.info("════════════════════════════════════════════════════════");
@@ -37,6 +49,7 @@ public class CloudinaryStorageServiceImpl implements StorageService {
         log.info("Content Length: {} bytes", contentLength);
         log.info("Content Type: {}", contentType);
 
+        Path spooled = null;
         try {
             // Extraer el folder y el public_id del key
             String folder = extractFolder(key);
@@ -45,8 +58,11 @@ public class CloudinaryStorageServiceImpl implements StorageService {
             log.info("📁 Folder: {}", folder);
             log.info("🆔 Public ID: {}", publicId);
 
-            // Subir a Cloudinary
-            Map uploadResult = cloudinary.uploader().upload(inputStream.readAllBytes(),
+            // Subir a Cloudinary desde un temporal en disco: el cliente HTTP lo envía en streaming
+            // en lugar de cargar todo el archivo en memoria con readAllBytes()
+            spooled = Files.createTempFile("cloudinary-upload-", ".tmp");
+            Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            Map uploadResult = cloudinary.uploader().upload(spooled.toFile(),
                     ObjectUtils.asMap(
                             "folder", folder,
                             "public_id", publicId,
@@ -75,6 +91,8 @@ public class CloudinaryStorageServiceImpl implements StorageService {
             log.error("════════════════════════════════════════════════════════");
             log.error("Error: {}", e.getMessage(), e);
             throw new StorageException("Error al subir archivo a Cloudinary", e);
+        } finally {
+            deleteQuietly(spooled);
         }
     }
 
@@ -104,6 +122,42 @@ public class CloudinaryStorageServiceImpl implements StorageService {
         }
     }
 
+    /**
+     * Borrado masivo con la Admin API (delete_resources): una llamada por cada 100 archivos
+     */
+    @Override
+    public void deleteFiles(Collection<String> keys) {
+        List<String> publicIds = keys.stream().map(this::extractFullPublicId).distinct().toList();
+        if (publicIds.isEmpty()) {
+            return;
+        }
+        log.info("🗑️ Eliminando {} archivos de Cloudinary", publicIds.size());
+
+        List<String> failedChunks = new ArrayList<>();
+        for (int from = 0; from < publicIds.size(); from += DELETE_BATCH_SIZE) {
+            List<String> chunk = publicIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, publicIds.size()));
+            try {
+                Map result = cloudinary.api().deleteResources(chunk, ObjectUtils.asMap(RESOURCE_TYPE, IMAGE));
+                Object deleted = result.get("deleted");
+                if (deleted instanceof Map<?, ?> statuses) {
+                    statuses.forEach((publicId, status) -> {
+                        if (!"deleted".equals(status)) {
+                            log.warn("⚠️ Resultado de eliminación de {}: {}", publicId, status);
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                log.error("❌ Error al eliminar {} archivos: {}", chunk.size(), e.getMessage(), e);
+                failedChunks.addAll(chunk);
+            }
+        }
+
+        if (!failedChunks.isEmpty()) {
+            throw new StorageException("Error al eliminar archivos de Cloudinary: " + failedChunks);
+        }
+        log.info("✅ Archivos eliminados correctamente");
+    }
+
     @Override
     public boolean fileExists(String key) {
         try {
@@ -146,37 +200,52 @@ public class CloudinaryStorageServiceImpl implements StorageService {
     }
 
 
+    /**
+     * El UUID evita que dos subidas paralelas del mismo nombre en el mismo segundo
+     * compartan key (la segunda sobrescribiría a la primera: overwrite=true)
+     */
     @Override
     public String buildFileKey(Long userId, Long captureId, String fileName) {
         String timestamp = LocalDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String sanitized = sanitizeFileName(fileName);
 
-        // Formato: captures/user_123/capture_456/20241111_120000_image.jpg
-        return String.format("%s/user_%d/capture_%d/%s_%s",
+        // Formato: captures/user_123/capture_456/20241111_120000_<uuid>_image.jpg
+        return String.format("%s/user_%d/capture_%d/%s_%s_%s",
                 FOLDER_CAPTURES,
                 userId,
                 captureId,
                 timestamp,
+                UUID.randomUUID(),
                 sanitized);
     }
 
-    /**
-     * Construye la clave para un thumbnail
-     */
+    @Override
     public String buildThumbnailKey(Long userId, Long captureId, String fileName) {
         String timestamp = LocalDateTime.now()
                 .format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
         String sanitized = sanitizeFileName(fileName);
 
-        return String.format("%s/user_%d/capture_%d/%s_thumb_%s",
+        return String.format("%s/user_%d/capture_%d/%s_%s_thumb_%s",
                 FOLDER_THUMBNAILS,
                 userId,
                 captureId,
                 timestamp,
+                UUID.randomUUID(),
                 sanitized);
     }
 
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo eliminar el temporal {}: {}", path, e.getMessage());
+        }
+    }
+
     /**
      * Extrae el folder del key (todo menos el nombre del archivo)
      */
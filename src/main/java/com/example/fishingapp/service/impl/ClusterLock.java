@@ -0,0 +1,71 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.SchedulerLock;
+import com.example.fishingapp.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cerrojo en base de datos para que una tarea programada se ejecute en un solo nodo.
+ * Caduca tras lockAtMostFor: si el nodo muere con el cerrojo tomado, otro lo recupera.
+ */
+@Component
+@Slf4j
+public class ClusterLock {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    // Identifica esta instancia (varios procesos pueden compartir host)
+    private final String owner;
+
+    public ClusterLock(SchedulerLockRepository schedulerLockRepository) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.owner = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * @return true si este nodo ha tomado el cerrojo y debe ejecutar la tarea
+     */
+    public boolean tryLock(String name, Duration lockAtMostFor) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(lockAtMostFor);
+        if (schedulerLockRepository.tryAcquire(name, owner, now, until) == 1) {
+            return true;
+        }
+        if (schedulerLockRepository.existsById(name)) {
+            return false;
+        }
+
+        // Primera ejecución de la tarea: crear la fila. Si otro nodo la inserta a la vez, pierde este.
+        try {
+            schedulerLockRepository.saveAndFlush(SchedulerLock.builder()
+                    .name(name)
+                    .lockedUntil(until)
+                    .lockedBy(owner)
+                    .build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Cerrojo {} creado por otro nodo", name);
+            return false;
+        }
+    }
+
+    public void unlock(String name) {
+        schedulerLockRepository.release(name, owner, LocalDateTime.now());
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
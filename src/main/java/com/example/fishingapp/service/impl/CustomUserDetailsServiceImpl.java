@@ -1,29 +1,143 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.AuthUserRepository;
+import com.example.fishingapp.security.AuthUser;
+import com.example.fishingapp.security.Role;
 import com.example.fishingapp.service.CustomUserDetailsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
 
 @Service
 public class CustomUserDetailsServiceImpl implements CustomUserDetailsService {
 
 
     private final AuthUserRepository authUserRepository;
+    private final AuthUserStateCache authUserStateCache;
+
+    // Usuarios cargados por el filtro JWT, por username o email. Se guarda una copia inmutable,
+    // nunca la entidad JPA: cada petición recibe su propio AuthUser desligado
+    private final Cache<String, CachedAuthUser> authUserCache;
 
-    public CustomUserDetailsServiceImpl(AuthUserRepository authUserRepository) {
+    public CustomUserDetailsServiceImpl(AuthUserRepository authUserRepository,
+                                        AuthUserStateCache authUserStateCache,
+                                        ObjectProvider<MeterRegistry> meterRegistry,
+                                        @Value("${app.security.user-cache.max-size:1000}") long maxSize,
+                                        @Value("${app.security.user-cache.ttl-seconds:300}") long ttlSeconds) {
         this.authUserRepository = authUserRepository;
+        this.authUserStateCache = authUserStateCache;
+        this.authUserCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        // Aciertos, fallos y expulsiones en /actuator/metrics/cache.gets (cache=authUsers)
+        meterRegistry.ifAvailable(registry ->
+                CaffeineCacheMetrics.monitor(registry, authUserCache, "authUsers"));
     }
 
+    /**
+     * Usado por el login (AuthenticationManager): siempre consulta la BD
+     */
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) {
-        return loadUserByUsernameOrEmail(usernameOrEmail);
+        return findByUsernameOrEmail(usernameOrEmail);
     }
 
     @Override
     public UserDetails loadUserByUsernameOrEmail(String identifier) throws UsernameNotFoundException {
+        return authUserCache.get(identifier, key -> CachedAuthUser.of(findByUsernameOrEmail(key)))
+                .toAuthUser();
+    }
+
+    @Override
+    public void evictUser(AuthUser authUser) {
+        if (authUser == null) {
+            return;
+        }
+        evictNow(authUser.getUsername(), authUser.getEmail());
+
+        // Evita que una lectura concurrente vuelva a cachear los datos antiguos antes del commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            String username = authUser.getUsername();
+            String email = authUser.getEmail();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(username, email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Guarda el hash actualizado tras un login correcto (algoritmo o coste antiguos)
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        AuthUser authUser = (AuthUser) user;
+        authUserRepository.updatePassword(authUser.getId(), newPassword);
+        authUser.setPassword(newPassword);
+        evictUser(authUser);
+        return authUser;
+    }
+
+    private void evictNow(String username, String email) {
+        if (username != null) {
+            authUserCache.invalidate(username);
+            authUserStateCache.evict(username);
+        }
+        if (email != null) {
+            authUserCache.invalidate(email);
+        }
+    }
+
+    private AuthUser findByUsernameOrEmail(String identifier) {
         return authUserRepository.findByUsernameOrEmail(identifier)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
     }
+
+    /**
+     * Datos de la cuenta que necesita la autenticación, sin referencias a entidades gestionadas
+     */
+    private record CachedAuthUser(Long id, String username, String email, String password, Role role,
+                                  boolean enabled, boolean accountNonLocked, Long userId) {
+
+        static CachedAuthUser of(AuthUser authUser) {
+            return new CachedAuthUser(
+                    authUser.getId(),
+                    authUser.getUsername(),
+                    authUser.getEmail(),
+                    authUser.getPassword(),
+                    authUser.getRole(),
+                    Boolean.TRUE.equals(authUser.getEnabled()),
+                    Boolean.TRUE.equals(authUser.getAccountNonLocked()),
+                    authUser.getUser() != null ? authUser.getUser().getId() : null);
+        }
+
+        AuthUser toAuthUser() {
+            return AuthUser.builder()
+                    .id(id)
+                    .username(username)
+                    .email(email)
+                    .password(password)
+                    .role(role)
+                    .enabled(enabled)
+                    .accountNonLocked(accountNonLocked)
+                    .user(userId != null ? User.builder().id(userId).build() : null)
+                    .build();
+        }
+    }
 }
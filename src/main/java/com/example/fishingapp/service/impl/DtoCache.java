@@ -0,0 +1,96 @@
+package com.example.fishingapp.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Caché read-through de DTOs (capturas, usuarios e imágenes) sobre el CacheManager configurado.
+ * Las escrituras se aplican al confirmar la transacción y las invalidaciones se repiten
+ * al terminarla, para que una lectura concurrente no vuelva a cachear datos antiguos.
+ * Los métodos cacheados no abren transacción: un acierto no toca la BD.
+ */
+@Component
+@Slf4j
+public class DtoCache {
+
+    public static final String FISH_CAPTURES = "fishCaptures";
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String CAPTURE_IMAGES = "captureImages";
+
+    public static final List<String> CACHE_NAMES = List.of(FISH_CAPTURES, USERS, USERS_BY_USERNAME, CAPTURE_IMAGES);
+
+    private final CacheManager cacheManager;
+
+    public DtoCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Devuelve el valor cacheado o lo carga (una sola carga por clave a la vez).
+     * Las excepciones del loader (p. ej. ResourceNotFoundException) se propagan sin envolver
+     * y no se cachean.
+     */
+    public <T> T get(String cacheName, Object key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        try {
+            return cache.get(key, loader::get);
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Guarda un valor recién escrito (tras el commit si hay transacción activa)
+     */
+    public void put(String cacheName, Object key, Object value) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || key == null || value == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, value);
+                }
+            });
+        } else {
+            cache.put(key, value);
+        }
+    }
+
+    /**
+     * Invalida una clave ahora y otra vez al terminar la transacción
+     */
+    public void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || key == null) {
+            return;
+        }
+        cache.evict(key);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(key);
+                }
+            });
+        }
+        log.debug("Invalidada clave {} de la caché {}", key, cacheName);
+    }
+}
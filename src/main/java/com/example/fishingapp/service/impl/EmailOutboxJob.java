@@ -0,0 +1,189 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.EmailOutbox;
+import com.example.fishingapp.repository.EmailOutboxRepository;
+import com.example.fishingapp.service.EmailSender;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Envía los emails de email_outbox. Solo lo ejecuta el nodo que toma el cerrojo de ClusterLock
+ * (así un email no se envía dos veces); ese nodo reparte los pendientes en lotes entre un pool
+ * propio de workers, cada uno con su conexión, y reintenta los fallidos con espera exponencial.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.outbox.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class EmailOutboxJob {
+
+    static final String LOCK_NAME = "email-outbox";
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailSender emailSender;
+    private final ClusterLock clusterLock;
+    private final ThreadPoolTaskExecutor workers;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lockAtMostFor;
+    private final Duration abandonedRetention;
+
+    public EmailOutboxJob(EmailOutboxRepository emailOutboxRepository,
+                          EmailSender emailSender,
+                          ClusterLock clusterLock,
+                          @Value("${app.mail.outbox.workers:2}") int workerCount,
+                          @Value("${app.mail.outbox.batch-size:50}") int batchSize,
+                          @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                          @Value("${app.mail.outbox.backoff-base-seconds:30}") long backoffBaseSeconds,
+                          @Value("${app.mail.outbox.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                          @Value("${app.mail.outbox.lock-at-most-seconds:300}") long lockAtMostSeconds,
+                          @Value("${app.mail.outbox.abandoned-retention-days:7}") long abandonedRetentionDays) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailSender = emailSender;
+        this.clusterLock = clusterLock;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostSeconds);
+        this.abandonedRetention = Duration.ofDays(abandonedRetentionDays);
+
+        this.workers = new ThreadPoolTaskExecutor();
+        workers.setCorePoolSize(workerCount);
+        workers.setMaxPoolSize(workerCount);
+        workers.setThreadNamePrefix("email-sender-");
+        workers.initialize();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.interval-ms:5000}",
+            initialDelayString = "${app.mail.outbox.initial-delay-ms:10000}")
+    public void drain() {
+        if (!clusterLock.tryLock(LOCK_NAME, lockAtMostFor)) {
+            return;
+        }
+        try {
+            // Se deja margen para terminar antes de que caduque el cerrojo
+            long deadline = System.nanoTime() + lockAtMostFor.dividedBy(2).toNanos();
+            int processed;
+            do {
+                processed = drainOnce();
+            } while (processed == batchSize * workerCount && System.nanoTime() < deadline);
+            purgeAbandoned(LocalDateTime.now());
+        } finally {
+            clusterLock.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Envía una tanda de hasta workers × batch-size emails pendientes
+     *
+     * @return número de emails procesados (enviados o reprogramados)
+     */
+    int drainOnce() {
+        List<EmailOutbox> due = emailOutboxRepository.findDue(
+                LocalDateTime.now(), maxAttempts, Limit.of(batchSize * workerCount));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<List<EmailOutbox>> batches = new ArrayList<>();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            batches.add(due.subList(from, Math.min(from + batchSize, due.size())));
+        }
+        List<Future<Map<Long, String>>> results = batches.stream()
+                .map(batch -> workers.submit(() -> emailSender.sendBatch(batch)))
+                .toList();
+
+        Map<Long, String> failures = new HashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            try {
+                failures.putAll(results.get(i).get());
+            } catch (ExecutionException e) {
+                // El lote entero falló (p. ej. no se pudo conectar con el servidor SMTP)
+                String error = String.valueOf(e.getCause().getMessage());
+                batches.get(i).forEach(email -> failures.put(email.getId(), error));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batches.get(i).forEach(email -> failures.put(email.getId(), "Envío interrumpido"));
+            }
+        }
+
+        List<EmailOutbox> sent = new ArrayList<>();
+        List<EmailOutbox> failed = new ArrayList<>();
+        for (EmailOutbox email : due) {
+            String error = failures.get(email.getId());
+            if (error == null) {
+                sent.add(email);
+            } else {
+                scheduleRetry(email, error);
+                failed.add(email);
+            }
+        }
+        emailOutboxRepository.deleteAllInBatch(sent);
+        emailOutboxRepository.saveAll(failed);
+
+        log.info("📧 Enviados {} emails ({} reprogramados)", sent.size(), failed.size());
+        return due.size();
+    }
+
+    /**
+     * Borra los emails abandonados (max-attempts agotados) pasado el periodo de retención;
+     * los enviados no necesitan purga porque se borran al enviarse
+     *
+     * @return número de emails borrados
+     */
+    int purgeAbandoned(LocalDateTime now) {
+        int purged = emailOutboxRepository.deleteAbandonedBefore(maxAttempts, now.minus(abandonedRetention));
+        if (purged > 0) {
+            log.info("🧹 Purgados {} emails abandonados tras {} intentos", purged, maxAttempts);
+        }
+        return purged;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private void scheduleRetry(EmailOutbox email, String error) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(truncate(error));
+
+        // 30s, 1m, 2m, 4m... hasta el máximo configurado
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(backoffMax) > 0) {
+            delay = backoffMax;
+        }
+        email.setNextAttemptAt(LocalDateTime.now().plus(delay));
+
+        if (attempts >= maxAttempts) {
+            log.error("❌ Se abandona el email {} para {} tras {} intentos: {}",
+                    email.getId(), email.getRecipient(), attempts, email.getLastError());
+        } else {
+            log.warn("⚠️ Email {} reprogramado (intento {}): {}", email.getId(), attempts, email.getLastError());
+        }
+    }
+
+    private String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.fishingapp.service.impl;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plantilla HTML con variables {{nombre}}, troceada una sola vez al arrancar.
+ * Renderizar solo concatena los trozos fijos con los valores (escapados como HTML),
+ * sin volver a analizar el texto en cada envío.
+ */
+final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // literals tiene siempre un elemento más que variables: literal, variable, literal, ...
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private EmailTemplate(List<String> literals, List<String> variables) {
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    static EmailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Variable sin cerrar en la plantilla, posición " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+        return new EmailTemplate(literals, variables);
+    }
+
+    /**
+     * Carga y compila una plantilla del classpath (p. ej. templates/email/welcome.html)
+     */
+    static EmailTemplate load(String location) {
+        try (InputStream in = new ClassPathResource(location).getInputStream()) {
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar la plantilla de email " + location, e);
+        }
+    }
+
+    /**
+     * Las variables sin valor se dejan vacías
+     */
+    String render(Map<String, String> values) {
+        StringBuilder out = new StringBuilder(literalLength + 64 * variables.length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(variables[i]);
+            if (value != null) {
+                out.append(HtmlUtils.htmlEscape(value, StandardCharsets.UTF_8.name()));
+            }
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+}
@@ -1,36 +1,161 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.dto.CursorPage;
+import com.example.fishingapp.dto.FeedCursor;
 import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.dto.FishCaptureFeedDto;
+import com.example.fishingapp.dto.FishCaptureImportResult;
+import com.example.fishingapp.dto.PageResponse;
+import com.example.fishingapp.dto.ResourceVersion;
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
 import com.example.fishingapp.exception.ResourceNotFoundException;
 import com.example.fishingapp.exception.UnauthorizedException;
 import com.example.fishingapp.mapper.FishCaptureMapper;
 import com.example.fishingapp.model.FishCapture;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.FishCaptureSearchRepository;
 import com.example.fishingapp.repository.UserRepository;
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.service.CaptureImageService;
 import com.example.fishingapp.service.FishCaptureService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class FishCaptureServiceImpl implements FishCaptureService {
 
+    // Campos por los que se puede ordenar el listado por usuario (respaldados por índices)
+    private static final Set<String> USER_CAPTURES_SORT_FIELDS = Set.of("captureDate", "weight", "createdAt");
+
+    // Longitud máxima del texto de búsqueda
+    private static final int MAX_SEARCH_QUERY_LENGTH = 100;
+
+    // Error de cada fila de un lote de importación que no se pudo guardar
+    static final String IMPORT_BATCH_ERROR = "No se pudo guardar el lote de esta fila, inténtalo de nuevo";
+
     private final FishCaptureRepository fishCaptureRepository;
 
+    private final FishCaptureSearchRepository fishCaptureSearchRepository;
+
     private final UserRepository userRepository;
 
     private final CaptureImageService captureImageService;
 
-    public FishCaptureServiceImpl(FishCaptureRepository fishCaptureRepository, UserRepository userRepository, CaptureImageService captureImageService) {
+    private final DtoCache dtoCache;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.feed.default-page-size:20}")
+    private int defaultFeedPageSize;
+
+    @Value("${app.feed.max-page-size:100}")
+    private int maxFeedPageSize;
+
+    @Value("${app.fish-capture.import.batch-size:100}")
+    private int importBatchSize;
+
+    @Value("${app.fish-capture.import.max-rows:10000}")
+    private int importMaxRows;
+
+    public FishCaptureServiceImpl(FishCaptureRepository fishCaptureRepository, UserRepository userRepository,
+                                  CaptureImageService captureImageService, DtoCache dtoCache,
+                                  TransactionTemplate transactionTemplate,
+                                  FishCaptureSearchRepository fishCaptureSearchRepository) {
         this.fishCaptureRepository = fishCaptureRepository;
+        this.fishCaptureSearchRepository = fishCaptureSearchRepository;
         this.userRepository = userRepository;
         this.captureImageService = captureImageService;
+        this.dtoCache = dtoCache;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Sin @Transactional: cada lote confirma por separado, así un fallo solo afecta a sus filas
+     */
+    @Override
+    public FishCaptureImportResult importFishCaptures(Iterable<FishCaptureDto> captures, Long userId) {
+        // El usuario se comprueba una vez; cada lote usa solo una referencia (sin SELECT)
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("User", "id", userId.toString());
+        }
+
+        List<FishCaptureImportResult.Row> rows = new ArrayList<>();
+        List<FishCaptureDto> batch = new ArrayList<>(importBatchSize);
+        List<Integer> batchIndexes = new ArrayList<>(importBatchSize);
+        int index = 0;
+
+        for (FishCaptureDto dto : captures) {
+            if (index >= importMaxRows) {
+                rows.add(FishCaptureImportResult.Row.failed(index,
+                        "Se ha superado el máximo de " + importMaxRows + " filas por importación; el resto no se ha procesado"));
+                break;
+            }
+            String error = validateImportRow(dto);
+            if (error != null) {
+                rows.add(FishCaptureImportResult.Row.failed(index, error));
+            } else {
+                batch.add(dto);
+                batchIndexes.add(index);
+                if (batch.size() == importBatchSize) {
+                    rows.addAll(insertImportBatch(batch, batchIndexes, userId));
+                    batch.clear();
+                    batchIndexes.clear();
+                }
+            }
+            index++;
+        }
+        if (!batch.isEmpty()) {
+            rows.addAll(insertImportBatch(batch, batchIndexes, userId));
+        }
+
+        rows.sort(Comparator.comparingInt(FishCaptureImportResult.Row::index));
+        FishCaptureImportResult result = FishCaptureImportResult.of(rows);
+        log.info("📥 Importación de capturas para usuario {}: {} creadas, {} rechazadas",
+                userId, result.created(), result.failed());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCapturesVersion() {
+        return fishCaptureRepository.findVersion().etag();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getCapturesVersionByUsername(String userName) {
+        ResourceVersion version = fishCaptureRepository.findVersionByUsername(userName);
+        // Sin capturas no hay versión: la respuesta (vacía o 404) se construye siempre
+        return version.count() == 0 ? null : version.etag();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getFeedWithImagesVersion() {
+        return fishCaptureRepository.findVersion().etag() + "." + captureImageService.getAllImagesVersion();
     }
 
     @Override
@@ -43,15 +168,16 @@ public class FishCaptureServiceImpl implements FishCaptureService {
         FishCapture fishCapture = FishCaptureMapper.mapFishCapture(fishCaptureDto, user);
         FishCapture savedFishCapture = fishCaptureRepository.save(fishCapture);
 
-        return FishCaptureMapper.mapFishCaptureDto(savedFishCapture);
+        FishCaptureDto savedDto = FishCaptureMapper.mapFishCaptureDto(savedFishCapture);
+        dtoCache.put(DtoCache.FISH_CAPTURES, savedDto.id(), savedDto);
+        return savedDto;
     }
 
     @Override
-    @Transactional(readOnly = true)
     public FishCaptureDto findById(Long id) {
-        return fishCaptureRepository.findById(id)
+        return dtoCache.get(DtoCache.FISH_CAPTURES, id, () -> fishCaptureRepository.findById(id)
                 .map(FishCaptureMapper::mapFishCaptureDto)
-                .orElseThrow(() -> new ResourceNotFoundException("FishCapture", "id", id.toString()));
+                .orElseThrow(() -> new ResourceNotFoundException("FishCapture", "id", id.toString())));
     }
 
     @Override
@@ -67,6 +193,23 @@ public class FishCaptureServiceImpl implements FishCaptureService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<FishCaptureDto> getFishCapturesByUsername(String userName, int page, Integer size, String sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("El número de página no puede ser negativo");
+        }
+        PageRequest pageRequest = PageRequest.of(page, resolveFeedPageSize(size), parseUserCapturesSort(sort));
+
+        Page<FishCaptureDto> result = fishCaptureRepository.findDtoPageByUsername(userName, pageRequest);
+
+        // Sin resultados: distinguir "usuario sin capturas" de "usuario inexistente"
+        if (result.getTotalElements() == 0 && !userRepository.existsByUsername(userName)) {
+            throw new ResourceNotFoundException("User", "username", userName);
+        }
+        return PageResponse.of(result);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<FishCaptureDto> getAllFishCapture() {
@@ -76,6 +219,94 @@ public class FishCaptureServiceImpl implements FishCaptureService {
                 .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<FishCaptureDto> searchFishCaptures(String query, int page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("El texto de búsqueda es obligatorio");
+        }
+        String term = query.strip();
+        if (term.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new IllegalArgumentException("El texto de búsqueda no puede superar los "
+                    + MAX_SEARCH_QUERY_LENGTH + " caracteres");
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("El número de página no puede ser negativo");
+        }
+        // Sin Sort: el orden lo da la relevancia
+        return PageResponse.of(fishCaptureSearchRepository.search(term, PageRequest.of(page, resolveFeedPageSize(size))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FishCaptureDto> getCaptureFeed(String cursor, Integer size) {
+        return loadFeedPage(cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FishCaptureFeedDto> getCaptureFeedWithImages(String cursor, Integer size) {
+        CursorPage<FishCaptureDto> page = loadFeedPage(cursor, size);
+
+        // Una sola consulta para las imágenes de toda la página (en lugar de una por captura)
+        Map<Long, List<ImageThumbnailDto>> thumbnails = captureImageService.getThumbnailsByCaptures(
+                page.items().stream().map(FishCaptureDto::id).toList());
+
+        return new CursorPage<>(
+                page.items().stream()
+                        .map(capture -> FishCaptureFeedDto.of(capture,
+                                thumbnails.getOrDefault(capture.id(), List.of())))
+                        .toList(),
+                page.nextCursor(),
+                page.hasNext()
+        );
+    }
+
+    private CursorPage<FishCaptureDto> loadFeedPage(String cursor, Integer size) {
+        int pageSize = resolveFeedPageSize(size);
+        // Pedimos un elemento extra para saber si hay página siguiente sin hacer COUNT
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<FishCapture> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = fishCaptureRepository.findFeedFirstPage(limit);
+        } else {
+            FeedCursor after = FeedCursor.decode(cursor);
+            rows = fishCaptureRepository.findFeedAfter(after.createdAt(), after.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<FishCapture> page = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            FishCapture last = page.get(page.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPage<>(
+                page.stream().map(FishCaptureMapper::mapFishCaptureDto).toList(),
+                nextCursor,
+                hasNext
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAllFishCaptures(Consumer<FishCaptureDto> consumer) {
+        long exported = 0;
+        try (Stream<FishCapture> captures = fishCaptureRepository.streamAllByOrderById()) {
+            for (FishCapture capture : (Iterable<FishCapture>) captures::iterator) {
+                consumer.accept(FishCaptureMapper.mapFishCaptureDto(capture));
+                // Sacar la entidad del contexto de persistencia para que no crezca con la exportación
+                entityManager.detach(capture);
+                exported++;
+            }
+        }
+        log.info("Exportadas {} capturas", exported);
+        return exported;
+    }
+
     @Transactional
     public FishCaptureDto updateFishCaptureDto(FishCaptureDto fishCaptureDto, Long requestingUserId, AuthUser authUser) {
         // ⭐ CORREGIDO: Buscar por el ID de la captura, no del usuario
@@ -93,6 +324,7 @@ public class FishCaptureServiceImpl implements FishCaptureService {
         existingFishCapture.setCaptureDate(fishCaptureDto.captureData());
         existingFishCapture.setLocation(fishCaptureDto.location());
         existingFishCapture.setWeight(fishCaptureDto.weight());
+        dtoCache.evict(DtoCache.FISH_CAPTURES, existingFishCapture.getId());
 
         return FishCaptureMapper.mapFishCaptureDto(fishCaptureRepository.save(existingFishCapture));
     }
@@ -131,7 +363,85 @@ public class FishCaptureServiceImpl implements FishCaptureService {
         // 4. Eliminar la captura de la BD
         fishCaptureRepository.delete(fishCapture);
         fishCaptureRepository.flush(); // Forzar ejecución inmediata
+        dtoCache.evict(DtoCache.FISH_CAPTURES, idFishCapture);
 
         log.info("✅ Captura {} eliminada exitosamente", idFishCapture);
     }
+
+    private String validateImportRow(FishCaptureDto dto) {
+        if (dto == null) {
+            return "Fila vacía o con formato no válido";
+        }
+        if (dto.fishType() == null || dto.fishType().isBlank()) {
+            return "fishType es obligatorio";
+        }
+        if (dto.captureData() == null) {
+            return "captureData es obligatorio";
+        }
+        if (dto.weight() == null) {
+            return "weight es obligatorio";
+        }
+        return null;
+    }
+
+    /**
+     * Inserta un lote en una transacción: los INSERT se envían agrupados en un único lote JDBC
+     */
+    private List<FishCaptureImportResult.Row> insertImportBatch(List<FishCaptureDto> batch, List<Integer> indexes, Long userId) {
+        List<FishCaptureImportResult.Row> rows = new ArrayList<>(batch.size());
+        try {
+            List<Long> ids = transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(importBatchSize);
+                User user = entityManager.getReference(User.class, userId);
+
+                List<FishCapture> saved = new ArrayList<>(batch.size());
+                for (FishCaptureDto dto : batch) {
+                    FishCapture capture = FishCaptureMapper.mapFishCapture(dto, user);
+                    capture.setId(null);
+                    entityManager.persist(capture);
+                    saved.add(capture);
+                }
+                entityManager.flush();
+                // No acumular entidades en el contexto de persistencia entre lotes
+                entityManager.clear();
+                return saved.stream().map(FishCapture::getId).toList();
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                rows.add(FishCaptureImportResult.Row.created(indexes.get(i), ids.get(i)));
+            }
+        } catch (RuntimeException e) {
+            // El detalle (SQL, restricciones) solo va al log: al cliente se le da un mensaje genérico
+            log.error("❌ Error guardando un lote de {} capturas (filas {}..{})",
+                    batch.size(), indexes.get(0), indexes.get(indexes.size() - 1), e);
+            indexes.forEach(i -> rows.add(FishCaptureImportResult.Row.failed(i, IMPORT_BATCH_ERROR)));
+        }
+        return rows;
+    }
+
+    /**
+     * Convierte "campo[,asc|desc]" en Sort, desempatando por id para un orden estable
+     */
+    private Sort parseUserCapturesSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.by(Sort.Order.desc("captureDate"), Sort.Order.desc("id"));
+        }
+        String[] parts = sort.split(",");
+        String field = parts[0].trim();
+        if (!USER_CAPTURES_SORT_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Campo de ordenación no permitido: " + field);
+        }
+        Sort.Direction direction = Sort.Direction.DESC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new IllegalArgumentException("Dirección de ordenación no válida: " + parts[1]));
+        }
+        return Sort.by(new Sort.Order(direction, field), new Sort.Order(direction, "id"));
+    }
+
+    private int resolveFeedPageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultFeedPageSize;
+        }
+        return Math.min(size, maxFeedPageSize);
+    }
 }
@@ -0,0 +1,275 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.dto.image.DecodedImage;
+import com.example.fishingapp.exception.StorageException;
+import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.repository.CaptureImageRepository;
+import com.example.fishingapp.service.ImageProcessingQueue;
+import com.example.fishingapp.service.ImageProcessingService;
+import com.example.fishingapp.service.StorageService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Implementación de la cola de procesamiento asíncrono de imágenes.
+ * Los workers no mantienen transacción (ni conexión a BD) durante la
+ * decodificación ni durante la subida remota: solo abren transacciones
+ * cortas para cambiar el estado de la imagen.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageProcessingQueueImpl implements ImageProcessingQueue {
+
+    private final ImageProcessingService imageProcessingService;
+    private final StorageService storageService;
+    private final CaptureImageRepository captureImageRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageTaskExecutor imageTaskExecutor;
+
+    @Value("${app.image.async.spool-dir:${java.io.tmpdir}/fishing-app/spool}")
+    private String spoolDir;
+
+    @Value("${app.image.async.pool-size:2}")
+    private int poolSize;
+
+    @Value("${app.image.async.max-pool-size:4}")
+    private int maxPoolSize;
+
+    @Value("${app.image.async.queue-capacity:50}")
+    private int queueCapacity;
+
+    // Pool propio (no se expone como bean para no sustituir el applicationTaskExecutor de Spring Boot)
+    private ThreadPoolTaskExecutor executor;
+
+    // markFailed puede ejecutarse desde afterCommit, con la transacción de la petición ya confirmada
+    // pero aún ligada al hilo: con REQUIRED se uniría a ella y el UPDATE nunca se confirmaría
+    private TransactionTemplate requiresNewTransaction;
+
+    @PostConstruct
+    void init() {
+        requiresNewTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-worker-");
+        // Cola llena: rechazar (la imagen se marca FAILED) en lugar de bloquear el hilo HTTP
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void submit(Long imageId, MultipartFile file) {
+        Path spooledFile = spool(imageId, file);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(imageId, spooledFile);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        deleteSpooledFile(spooledFile);
+                    }
+                }
+            });
+        } else {
+            enqueue(imageId, spooledFile);
+        }
+    }
+
+    /**
+     * Procesa una imagen en un worker: decodificar, optimizar, crear thumbnail,
+     * subir ambos archivos y marcar la imagen como READY (o FAILED si algo falla)
+     */
+    void process(Long imageId, Path spooledFile) {
+        log.info("⚙️ Procesando imagen {} en segundo plano", imageId);
+        String originalKey = null;
+        String thumbnailKey = null;
+
+        try {
+            // 1. Transacción corta: marcar PROCESSING y obtener datos para las keys
+            ImageJob job = transactionTemplate.execute(status -> captureImageRepository.findById(imageId)
+                    .map(image -> {
+                        image.setStatus(ImageStatus.PROCESSING);
+                        return new ImageJob(
+                                image.getFishCapture().getUser().getId(),
+                                image.getFishCapture().getId(),
+                                image.getFileName());
+                    })
+                    .orElse(null));
+
+            if (job == null) {
+                log.warn("Imagen {} eliminada antes de procesarse", imageId);
+                return;
+            }
+
+            // 2. Procesamiento y subida fuera de transacción
+            DecodedImage decoded = imageProcessingService.decodeImage(spooledFile);
+            ByteArrayInputStream optimizedImage = imageProcessingService.optimizeImage(decoded.image(), 1920);
+            ByteArrayInputStream thumbnail = imageProcessingService.createThumbnail(decoded.image());
+
+            originalKey = storageService.buildFileKey(job.userId(), job.captureId(), job.fileName());
+            thumbnailKey = storageService.buildThumbnailKey(job.userId(), job.captureId(), job.fileName());
+
+            // Subir original y thumbnail en paralelo; esperar a ambas para poder compensar
+            String uploadOriginalKey = originalKey;
+            String uploadThumbnailKey = thumbnailKey;
+            CompletableFuture<String> originalUpload = imageTaskExecutor.upload(() -> storageService.uploadFile(
+                    uploadOriginalKey, optimizedImage, optimizedImage.available(), decoded.mimeType()));
+            CompletableFuture<String> thumbnailUpload = imageTaskExecutor.upload(() -> storageService.uploadFile(
+                    uploadThumbnailKey, thumbnail, thumbnail.available(), decoded.mimeType()));
+            CompletableFuture.allOf(originalUpload, thumbnailUpload).handle((result, error) -> null).join();
+            if (originalUpload.isCompletedExceptionally()) {
+                originalKey = null;
+            }
+            if (thumbnailUpload.isCompletedExceptionally()) {
+                thumbnailKey = null;
+            }
+            String originalUrl = ImageTaskExecutor.await(originalUpload);
+            String thumbnailUrl = ImageTaskExecutor.await(thumbnailUpload);
+
+            // 3. Transacción corta: marcar READY
+            String finalOriginalKey = originalKey;
+            Boolean updated = transactionTemplate.execute(status -> captureImageRepository.findById(imageId)
+                    .map(image -> {
+                        image.setOriginalUrl(originalUrl);
+                        image.setThumbnailUrl(thumbnailUrl);
+                        image.setS3Key(finalOriginalKey);
+                        image.setMimeType(decoded.mimeType());
+                        image.setWidth(decoded.width());
+                        image.setHeight(decoded.height());
+                        image.setStatus(ImageStatus.READY);
+                        return true;
+                    })
+                    .orElse(false));
+
+            if (!Boolean.TRUE.equals(updated)) {
+                // La imagen se eliminó mientras se subía: no dejar archivos huérfanos
+                log.warn("Imagen {} eliminada durante el procesamiento, borrando archivos subidos", imageId);
+                deleteQuietly(originalKey);
+                deleteQuietly(thumbnailKey);
+                return;
+            }
+
+            log.info("✅ Imagen {} procesada correctamente", imageId);
+
+        } catch (Exception e) {
+            log.error("❌ Error procesando imagen {}: {}", imageId, e.getMessage(), e);
+            deleteQuietly(originalKey);
+            deleteQuietly(thumbnailKey);
+            markFailed(imageId, e.getMessage());
+        } finally {
+            deleteSpooledFile(spooledFile);
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS AUXILIARES ==========
+
+    /**
+     * Guarda el archivo subido en el directorio de spool (nombre = ID de la imagen)
+     */
+    private Path spool(Long imageId, MultipartFile file) {
+        try {
+            Path directory = Paths.get(spoolDir);
+            Files.createDirectories(directory);
+            Path target = directory.resolve(imageId + ".upload");
+            file.transferTo(target);
+            log.debug("Imagen {} guardada en spool: {}", imageId, target);
+            return target;
+        } catch (IOException e) {
+            log.error("Error guardando imagen {} en spool", imageId, e);
+            throw new StorageException("Error al guardar temporalmente la imagen", e);
+        }
+    }
+
+    private void enqueue(Long imageId, Path spooledFile) {
+        try {
+            executor.execute(() -> process(imageId, spooledFile));
+            log.debug("Imagen {} encolada para procesamiento", imageId);
+        } catch (TaskRejectedException e) {
+            log.warn("Cola de procesamiento llena, imagen {} rechazada", imageId);
+            deleteSpooledFile(spooledFile);
+            markFailed(imageId, "Cola de procesamiento llena, inténtalo de nuevo más tarde");
+        }
+    }
+
+    private void markFailed(Long imageId, String reason) {
+        try {
+            requiresNewTransaction.execute(status -> {
+                captureImageRepository.findById(imageId).ifPresent(image -> {
+                    image.setStatus(ImageStatus.FAILED);
+                    image.setErrorMessage(truncate(reason));
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("No se pudo marcar la imagen {} como FAILED: {}", imageId, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(String key) {
+        if (key == null) {
+            return;
+        }
+        try {
+            storageService.deleteFile(key);
+        } catch (Exception e) {
+            log.error("⚠️ Error al eliminar archivo huérfano {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void deleteSpooledFile(Path spooledFile) {
+        try {
+            Files.deleteIfExists(spooledFile);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo de spool {}: {}", spooledFile, e.getMessage());
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return "Error desconocido";
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+
+    /**
+     * Datos de la imagen necesarios fuera de la transacción
+     */
+    private record ImageJob(Long userId, Long captureId, String fileName) {
+    }
+}
@@ -1,22 +1,39 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.dto.image.DecodedImage;
 import com.example.fishingapp.exception.InvalidImageException;
 import com.example.fishingapp.service.ImageProcessingService;
 import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.thumbnailator.util.exif.ExifFilterUtils;
+import net.coobird.thumbnailator.util.exif.ExifUtils;
+import net.coobird.thumbnailator.util.exif.Orientation;
 import org.apache.tika.Tika;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Implementación del servicio de procesamiento de imágenes
@@ -26,11 +43,25 @@ import java.util.List;
 @Slf4j
 public class ImageProcessingServiceImpl implements ImageProcessingService {
 
+    static {
+        // Decodificar en memoria: sin caché en disco de ImageIO (evita ficheros temporales por cada lectura)
+        ImageIO.setUseCache(false);
+    }
+
     private final Tika tika = new Tika();
 
     // Límite de Cloudinary (10MB)
     private static final long CLOUDINARY_MAX_SIZE = 10485760L; // 10MB en bytes
 
+    // Rango de calidad JPEG para la búsqueda binaria de optimizeImage
+    private static final float MAX_JPEG_QUALITY = 0.80f;
+    private static final float MIN_JPEG_QUALITY = 0.50f;
+    private static final float QUALITY_PRECISION = 0.05f;
+
+    // Tamaño máximo del JPEG optimizado (por defecto, el límite de Cloudinary)
+    @Value("${app.image.max-output-size:" + CLOUDINARY_MAX_SIZE + "}")
+    private long maxOutputSize;
+
     @Value("${app.image.max-size}")
     private long maxFileSize;
 
@@ -43,6 +74,22 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
     @Value("${app.image.thumbnail.height}")
     private int thumbnailHeight;
 
+    // Calidad JPEG de los thumbnails
+    private static final float THUMBNAIL_JPEG_QUALITY = 0.75f;
+
+    // Capacidad inicial de los buffers de codificación (un JPEG de 1920 px suele ocupar menos de 1MB)
+    private static final int ENCODE_BUFFER_INITIAL_CAPACITY = 1024 * 1024;
+
+    // Buffers de codificación reutilizables entre peticiones y hilos. El pool está acotado:
+    // como mucho se retienen pool-size buffers de max-retained-bytes cada uno
+    @Value("${app.image.encode-buffer.pool-size:8}")
+    private int encodeBufferPoolSize;
+
+    @Value("${app.image.encode-buffer.max-retained-bytes:4194304}")
+    private int encodeBufferMaxRetainedBytes;
+
+    private final Queue<PooledImageOutputStream> encodeBuffers = new ConcurrentLinkedQueue<>();
+
     @Override
     public void validateImage(MultipartFile file) {
         log.debug("Iniciando validación de imagen: {}", file.getOriginalFilename());
@@ -82,47 +129,88 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
                             detectedMimeType, allowedTypesString));
         }
 
-        // Validar que realmente sea una imagen válida que se pueda procesar
-        try {
-            BufferedImage image = ImageIO.read(file.getInputStream());
-            if (image == null) {
-                log.warn("El archivo no pudo ser procesado como imagen");
-                throw new InvalidImageException("El archivo no es una imagen válida");
-            }
-
-            // Validar dimensiones mínimas (opcional)
-            if (image.getWidth() < 100 || image.getHeight() < 100) {
-                log.warn("Imagen con dimensiones muy pequeñas: {}x{}",
-                        image.getWidth(), image.getHeight());
-                throw new InvalidImageException(
-                        "La imagen es demasiado pequeña. Dimensiones mínimas: 100x100 píxeles");
-            }
-
-            log.debug("Imagen válida: {}x{} píxeles", image.getWidth(), image.getHeight());
-
+        // Validar que realmente sea una imagen leyendo solo la cabecera (sin decodificar píxeles)
+        int[] dimensions;
+        try (InputStream inputStream = file.getInputStream()) {
+            dimensions = readHeaderDimensions(inputStream);
         } catch (IOException e) {
             log.error("Error al procesar la imagen", e);
             throw new InvalidImageException("Error al procesar la imagen");
         }
 
+        if (dimensions == null) {
+            log.warn("El archivo no pudo ser procesado como imagen");
+            throw new InvalidImageException("El archivo no es una imagen válida");
+        }
+
+        // Validar dimensiones mínimas (opcional)
+        if (dimensions[0] < 100 || dimensions[1] < 100) {
+            log.warn("Imagen con dimensiones muy pequeñas: {}x{}", dimensions[0], dimensions[1]);
+            throw new InvalidImageException(
+                    "La imagen es demasiado pequeña. Dimensiones mínimas: 100x100 píxeles");
+        }
+
+        log.debug("Imagen válida: {}x{} píxeles", dimensions[0], dimensions[1]);
+
         log.info("Imagen validada correctamente: {} - {} bytes - {}",
                 file.getOriginalFilename(), file.getSize(), detectedMimeType);
     }
 
+    @Override
+    public String computeContentHash(MultipartFile file) {
+        try (InputStream in = file.getInputStream()) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException e) {
+            log.error("Error al leer el archivo para calcular su hash: {}", e.getMessage());
+            throw new InvalidImageException("Error al leer el archivo", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Copia el archivo a disco y decodifica desde allí: leído desde un InputStream, ImageIO
+     * (sin caché en disco) retendría en memoria todo el archivo comprimido durante la decodificación
+     */
+    @Override
+    public DecodedImage decodeImage(MultipartFile file) {
+        Path spooled = null;
+        try {
+            spooled = Files.createTempFile("image-decode-", ".upload");
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return decodeImage(spooled);
+        } catch (IOException e) {
+            log.error("Error al copiar la imagen a disco", e);
+            throw new InvalidImageException("Error al leer el archivo", e);
+        } finally {
+            deleteQuietly(spooled);
+        }
+    }
+
+    @Override
+    public DecodedImage decodeImage(Path file) {
+        return decode(file);
+    }
+
     @Override
     public int[] getImageDimensions(InputStream inputStream) {
         try {
-            BufferedImage image = ImageIO.read(inputStream);
-            if (image == null) {
+            int[] dimensions = readHeaderDimensions(inputStream);
+            if (dimensions == null) {
                 log.warn("No se pudieron obtener dimensiones de la imagen");
                 return new int[]{0, 0};
             }
 
-            int width = image.getWidth();
-            int height = image.getHeight();
-            log.debug("Dimensiones obtenidas: {}x{}", width, height);
-
-            return new int[]{width, height};
+            log.debug("Dimensiones obtenidas: {}x{}", dimensions[0], dimensions[1]);
+            return dimensions;
 
         } catch (IOException e) {
             log.error("Error al obtener dimensiones de la imagen", e);
@@ -132,112 +220,68 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
 
     @Override
     public ByteArrayInputStream createThumbnail(InputStream originalImage, String outputFormat) {
-        try {
-            log.debug("Creando thumbnail con formato: {}", outputFormat);
+        log.debug("Creando thumbnail con formato: {}", outputFormat);
+        return createThumbnail(readImage(originalImage));
+    }
 
+    @Override
+    public ByteArrayInputStream createThumbnail(BufferedImage image) {
+        PooledImageOutputStream buffer = acquireEncodeBuffer();
+        try {
             // Siempre usar JPEG para thumbnails (mejor compresión)
-            String format = "jpg";
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-
-            Thumbnails.of(originalImage)
+            BufferedImage thumbnail = Thumbnails.of(image)
                     .size(thumbnailWidth, thumbnailHeight)
-                    .outputFormat(format)
-                    .outputQuality(0.75) // 75% de calidad para thumbnails (reducido de 0.8)
-                    .toOutputStream(outputStream);
+                    .imageType(BufferedImage.TYPE_INT_RGB)
+                    .asBufferedImage();
 
-            byte[] thumbnailBytes = outputStream.toByteArray();
+            encodeJpeg(thumbnail, THUMBNAIL_JPEG_QUALITY, buffer);
+            byte[] thumbnailBytes = buffer.toByteArray();
             log.info("Thumbnail creado: {}x{} - {} bytes",
-                    thumbnailWidth, thumbnailHeight, thumbnailBytes.length);
+                    thumbnail.getWidth(), thumbnail.getHeight(), thumbnailBytes.length);
 
             return new ByteArrayInputStream(thumbnailBytes);
 
         } catch (IOException e) {
             log.error("Error al crear thumbnail", e);
             throw new InvalidImageException("Error al crear miniatura de la imagen", e);
+        } finally {
+            releaseEncodeBuffer(buffer);
         }
     }
 
     @Override
     public ByteArrayInputStream optimizeImage(InputStream originalImage, String outputFormat, Integer maxWidth) {
-        try {
-            log.debug("Optimizando imagen con formato: {} y ancho máximo: {}", outputFormat, maxWidth);
+        log.debug("Optimizando imagen con formato: {} y ancho máximo: {}", outputFormat, maxWidth);
+        return optimizeImage(readImage(originalImage), maxWidth);
+    }
 
+    @Override
+    public ByteArrayInputStream optimizeImage(BufferedImage originalImage, Integer maxWidth) {
+        try {
             // 🔥 FORZAR JPEG para mejor compresión (PNG no comprime bien)
-            String finalFormat = "jpg";
-            log.debug("Forzando formato JPEG para optimización");
-
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            float quality = 0.80f; // Comenzar con 80% de calidad
-
-            boolean success = false;
-            int attempts = 0;
-            int maxAttempts = 5;
-
-            while (!success && attempts < maxAttempts) {
-                outputStream.reset();
-                attempts++;
-
-                if (maxWidth != null && maxWidth > 0) {
-                    // Redimensionar manteniendo el aspect ratio
-                    Thumbnails.of(originalImage)
-                            .width(maxWidth)
-                            .outputFormat(finalFormat)
-                            .outputQuality(quality)
-                            .toOutputStream(outputStream);
-                } else {
-                    // Solo optimizar sin redimensionar
-                    Thumbnails.of(originalImage)
-                            .scale(1.0)
-                            .outputFormat(finalFormat)
-                            .outputQuality(quality)
-                            .toOutputStream(outputStream);
-                }
-
-                long outputSize = outputStream.size();
-                log.debug("Intento {}: {} bytes con calidad {}", attempts, outputSize, quality);
-
-                // Verificar si cumple con el límite de Cloudinary
-                if (outputSize <= CLOUDINARY_MAX_SIZE) {
-                    success = true;
-                    log.info("✅ Imagen optimizada correctamente - {} bytes (calidad: {})",
-                            outputSize, quality);
-                } else {
-                    // Reducir calidad para el siguiente intento
-                    quality -= 0.10f;
-
-                    if (quality < 0.50f) {
-                        // Si la calidad baja demasiado, reducir también el tamaño
-                        log.warn("⚠️ Calidad muy baja, reduciendo dimensiones");
-                        if (maxWidth != null && maxWidth > 800) {
-                            maxWidth = (int) (maxWidth * 0.8); // Reducir 20%
-                            quality = 0.75f; // Resetear calidad
-                        } else {
-                            throw new InvalidImageException(
-                                    String.format(
-                                            "No se pudo comprimir la imagen por debajo de 10MB después de %d intentos. " +
-                                                    "Por favor, usa una imagen más pequeña o con menos resolución.",
-                                            attempts
-                                    )
-                            );
-                        }
-                    }
-
-                    // Resetear el stream para el siguiente intento
-                    if (originalImage instanceof ByteArrayInputStream) {
-                        ((ByteArrayInputStream) originalImage).reset();
-                    }
-                }
+            // Redimensionar una sola vez; los intentos posteriores solo re-codifican este raster
+            BufferedImage resized = resizeForJpeg(originalImage, maxWidth);
+
+            byte[] encoded = encodeWithinLimit(resized);
+            if (encoded.length > maxOutputSize && resized.getWidth() > 800) {
+                // Ni con calidad mínima cabe: estimar el factor de escala con el modelo bytes/píxel
+                // (el tamaño JPEG crece aprox. con el número de píxeles)
+                double scale = Math.sqrt((double) maxOutputSize / encoded.length) * 0.9;
+                int targetWidth = Math.max(800, (int) (resized.getWidth() * scale));
+                log.warn("⚠️ Calidad muy baja, reduciendo dimensiones a {} px de ancho", targetWidth);
+
+                resized = resizeForJpeg(resized, targetWidth);
+                encoded = encodeWithinLimit(resized);
             }
 
-            if (!success) {
-                throw new InvalidImageException(
-                        "No se pudo optimizar la imagen dentro del límite de 10MB. " +
-                                "Por favor, usa una imagen más pequeña."
-                );
+            if (encoded.length > maxOutputSize) {
+                throw new InvalidImageException(String.format(
+                        "No se pudo optimizar la imagen dentro del límite de %s. " +
+                                "Por favor, usa una imagen más pequeña.",
+                        formatSize(maxOutputSize)));
             }
 
-            return new ByteArrayInputStream(outputStream.toByteArray());
+            return new ByteArrayInputStream(encoded);
 
         } catch (IOException e) {
             log.error("Error al optimizar imagen", e);
@@ -248,7 +292,7 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
     @Override
     public String getOutputFormat(String mimeType) {
         // 🔥 SIEMPRE usar JPEG para mejor compresión
-        // PNG y WebP no comprimen tan bien y pueden exceder 10MB
+        // PNG y WebP no comprimen tan bien y pueden exceder app.image.max-output-size
         String format = "jpg";
 
         log.debug("Formato de salida para {}: {} (forzado a JPEG para compatibilidad con Cloudinary)",
@@ -268,15 +312,231 @@ public class ImageProcessingServiceImpl implements ImageProcessingService {
         }
     }
 
-    @Override
-    public ByteArrayInputStream convertToReusableStream(MultipartFile file) {
+    /**
+     * Redimensiona a un raster RGB (sin alfa) listo para codificar como JPEG
+     */
+    private BufferedImage resizeForJpeg(BufferedImage image, Integer maxWidth) throws IOException {
+        if (maxWidth != null && maxWidth > 0) {
+            return Thumbnails.of(image)
+                    .width(maxWidth)
+                    .imageType(BufferedImage.TYPE_INT_RGB)
+                    .asBufferedImage();
+        }
+        return Thumbnails.of(image)
+                .scale(1.0)
+                .imageType(BufferedImage.TYPE_INT_RGB)
+                .asBufferedImage();
+    }
+
+    /**
+     * Elige la mayor calidad cuyo resultado cabe en el límite de Cloudinary.
+     * Prueba primero la calidad máxima (caso habitual: una sola codificación) y,
+     * si no cabe, hace búsqueda binaria sobre el mismo raster ya redimensionado.
+     * Los intentos se codifican en dos buffers del pool (intento en curso y mejor hasta ahora)
+     * y solo el resultado elegido se copia a un array de su tamaño exacto.
+     *
+     * @return la mejor codificación; si supera el límite es la de calidad mínima (no cabe)
+     */
+    // Tamaño legible para los mensajes de error (MB o KB según el límite configurado)
+    private static String formatSize(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format("%d MB", bytes / 1024 / 1024);
+        }
+        return String.format("%d KB", Math.max(1, bytes / 1024));
+    }
+
+    private byte[] encodeWithinLimit(BufferedImage image) throws IOException {
+        PooledImageOutputStream best = acquireEncodeBuffer();
+        PooledImageOutputStream attempt = acquireEncodeBuffer();
+        try {
+            encodeJpeg(image, MAX_JPEG_QUALITY, best);
+            log.debug("Calidad {}: {} bytes", MAX_JPEG_QUALITY, best.size());
+            if (best.size() <= maxOutputSize) {
+                log.info("✅ Imagen optimizada correctamente - {} bytes (calidad: {})", best.size(), MAX_JPEG_QUALITY);
+                return best.toByteArray();
+            }
+
+            encodeJpeg(image, MIN_JPEG_QUALITY, best);
+            log.debug("Calidad {}: {} bytes", MIN_JPEG_QUALITY, best.size());
+            if (best.size() > maxOutputSize) {
+                return best.toByteArray();
+            }
+
+            float bestQuality = MIN_JPEG_QUALITY;
+            float high = MAX_JPEG_QUALITY;
+            while (high - bestQuality > QUALITY_PRECISION) {
+                float quality = (bestQuality + high) / 2;
+                encodeJpeg(image, quality, attempt);
+                log.debug("Calidad {}: {} bytes", quality, attempt.size());
+
+                if (attempt.size() <= maxOutputSize) {
+                    // Intercambiar buffers en lugar de copiar el resultado
+                    PooledImageOutputStream previousBest = best;
+                    best = attempt;
+                    attempt = previousBest;
+                    bestQuality = quality;
+                } else {
+                    high = quality;
+                }
+            }
+
+            log.info("✅ Imagen optimizada correctamente - {} bytes (calidad: {})", best.size(), bestQuality);
+            return best.toByteArray();
+        } finally {
+            releaseEncodeBuffer(best);
+            releaseEncodeBuffer(attempt);
+        }
+    }
+
+    /**
+     * Codifica el raster como JPEG con la calidad indicada (sin redimensionar) en el buffer dado
+     */
+    private void encodeJpeg(BufferedImage image, float quality, PooledImageOutputStream output) throws IOException {
+        output.clear();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Toma un buffer de codificación del pool (o crea uno si están todos en uso)
+     */
+    private PooledImageOutputStream acquireEncodeBuffer() {
+        PooledImageOutputStream buffer = encodeBuffers.poll();
+        return buffer != null
+                ? buffer
+                : new PooledImageOutputStream(ENCODE_BUFFER_INITIAL_CAPACITY, encodeBufferMaxRetainedBytes);
+    }
+
+    /**
+     * Devuelve el buffer al pool; si está lleno, se descarta
+     */
+    private void releaseEncodeBuffer(PooledImageOutputStream buffer) {
+        // size() es aproximado con accesos concurrentes: como mucho se retiene algún buffer de más
+        if (encodeBuffers.size() < encodeBufferPoolSize) {
+            buffer.clear();
+            encodeBuffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Lee ancho y alto desde la cabecera de la imagen sin decodificar el raster
+     *
+     * @return [ancho, alto] o null si el formato no es reconocido
+     */
+    private int[] readHeaderDimensions(InputStream inputStream) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            if (imageInputStream == null) {
+                return null;
+            }
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Detecta el tipo MIME (Tika solo lee los primeros bytes) y decodifica el raster
+     * con acceso aleatorio al archivo, sin copiarlo a memoria
+     */
+    private DecodedImage decode(Path file) {
+        String mimeType;
+        BufferedImage image;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            mimeType = tika.detect(inputStream);
+        } catch (IOException e) {
+            log.error("Error al detectar tipo MIME", e);
+            throw new InvalidImageException("Error al leer el archivo", e);
+        }
+
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(file.toFile())) {
+            image = readOriented(imageInputStream);
+        } catch (IOException e) {
+            log.error("Error al decodificar la imagen", e);
+            throw new InvalidImageException("Error al procesar la imagen", e);
+        }
+
+        log.debug("Imagen decodificada: {}x{} ({})", image.getWidth(), image.getHeight(), mimeType);
+        return new DecodedImage(image, mimeType, image.getWidth(), image.getHeight());
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
         try {
-            byte[] bytes = file.getBytes();
-            log.debug("Stream convertido a reutilizable: {} bytes", bytes.length);
-            return new ByteArrayInputStream(bytes);
+            Files.deleteIfExists(path);
         } catch (IOException e) {
-            log.error("Error al convertir archivo a stream reutilizable", e);
-            throw new InvalidImageException("Error al procesar el archivo", e);
+            log.warn("⚠️ No se pudo eliminar el temporal {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Decodifica una imagen desde un stream (para los métodos basados en InputStream)
+     */
+    private BufferedImage readImage(InputStream inputStream) {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            return readOriented(imageInputStream);
+        } catch (IOException e) {
+            log.error("Error al decodificar la imagen", e);
+            throw new InvalidImageException("Error al procesar la imagen", e);
+        }
+    }
+
+    /**
+     * Decodifica el raster y lo gira según la etiqueta EXIF Orientation (las fotos de móvil en
+     * vertical se guardan apaisadas con Orientation=6). Al trabajar con BufferedImage Thumbnailator
+     * ya no puede aplicarla por su cuenta, así que se hace una sola vez aquí
+     */
+    private BufferedImage readOriented(ImageInputStream imageInputStream) throws IOException {
+        if (imageInputStream == null) {
+            throw new InvalidImageException("El archivo no es una imagen válida");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+        if (!readers.hasNext()) {
+            throw new InvalidImageException("El archivo no es una imagen válida");
+        }
+
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(imageInputStream, true, false);
+            BufferedImage image = reader.read(0);
+            Orientation orientation = readOrientation(reader);
+            if (orientation == null || orientation == Orientation.TOP_LEFT) {
+                return image;
+            }
+            log.debug("Aplicando orientación EXIF {}", orientation);
+            return ExifFilterUtils.getFilterForOrientation(orientation).apply(image);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private Orientation readOrientation(ImageReader reader) {
+        try {
+            return ExifUtils.getExifOrientation(reader, 0);
+        } catch (IOException | RuntimeException e) {
+            // Metadatos EXIF corruptos: la imagen se usa tal cual
+            log.warn("⚠️ No se pudo leer la orientación EXIF: {}", e.getMessage());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.example.fishingapp.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
+
+/**
+ * Pools acotados para procesar imágenes en paralelo:
+ * uno para el procesamiento de cada archivo y otro para las subidas remotas.
+ * Están separados para que una tarea de archivo que espera a sus subidas
+ * nunca bloquee el pool del que dependen esas subidas.
+ * Con app.image.parallel.enabled=false todo se ejecuta en el hilo que llama.
+ */
+@Component
+@Slf4j
+public class ImageTaskExecutor {
+
+    private final ThreadPoolTaskExecutor processingPool;
+    private final ThreadPoolTaskExecutor uploadPool;
+
+    public ImageTaskExecutor(@Value("${app.image.parallel.enabled:true}") boolean enabled,
+                             @Value("${app.image.parallel.processing-threads:4}") int processingThreads,
+                             @Value("${app.image.parallel.upload-threads:8}") int uploadThreads) {
+        if (enabled) {
+            processingPool = newPool("image-process-", processingThreads);
+            uploadPool = newPool("image-upload-", uploadThreads);
+            log.info("Procesamiento paralelo de imágenes activado ({} hilos de proceso, {} de subida)",
+                    processingThreads, uploadThreads);
+        } else {
+            processingPool = null;
+            uploadPool = null;
+        }
+    }
+
+    /**
+     * Ejecuta el procesamiento completo de un archivo (decodificar, optimizar, subir, guardar)
+     */
+    public <T> CompletableFuture<T> process(Supplier<T> task) {
+        return submit(processingPool, task);
+    }
+
+    /**
+     * Ejecuta una subida al almacenamiento remoto
+     */
+    public <T> CompletableFuture<T> upload(Supplier<T> task) {
+        return submit(uploadPool, task);
+    }
+
+    /**
+     * Espera el resultado y relanza la excepción original de la tarea (sin envolver)
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (processingPool != null) {
+            processingPool.shutdown();
+            uploadPool.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(ThreadPoolTaskExecutor pool, Supplier<T> task) {
+        if (pool == null) {
+            // Modo secuencial
+            try {
+                return CompletableFuture.completedFuture(task.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(task, pool);
+    }
+
+    private ThreadPoolTaskExecutor newPool(String prefix, int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix(prefix);
+        // Saturado: el hilo que llama ejecuta la tarea (contrapresión en lugar de rechazar)
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
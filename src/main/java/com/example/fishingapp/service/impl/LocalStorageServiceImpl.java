@@ -0,0 +1,251 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.dto.FileMetaData;
+import com.example.fishingapp.exception.ResourceNotFoundException;
+import com.example.fishingapp.exception.StorageException;
+import com.example.fishingapp.service.StorageService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Almacenamiento en disco local (perfil local-storage), para desarrollo, pruebas de carga
+ * y despliegues on-premise sin Cloudinary. Los archivos se sirven desde FileController.
+ */
+@Service
+@Profile(LocalStorageServiceImpl.PROFILE)
+@Slf4j
+public class LocalStorageServiceImpl implements StorageService {
+
+    public static final String PROFILE = "local-storage";
+
+    private static final String FOLDER_CAPTURES = "captures";
+    private static final String FOLDER_THUMBNAILS = "thumbnails";
+
+    // Bytes por llamada a transferFrom al escribir
+    private static final long TRANSFER_CHUNK = 1024 * 1024;
+
+    private final Path root;
+    private final String publicUrl;
+
+    // Pool propio y acotado para los borrados masivos; con la cola llena borra el hilo que llama
+    private final ThreadPoolTaskExecutor deletePool;
+
+    /**
+     * @param rootDir       directorio raíz donde se guardan los archivos
+     * @param publicUrl     URL pública de FileController; las URLs quedan como {publicUrl}/{key}
+     * @param deleteThreads hilos para borrar archivos en paralelo en deleteFiles
+     */
+    public LocalStorageServiceImpl(@Value("${app.storage.local.root-dir:${java.io.tmpdir}/fishing-app/storage}") String rootDir,
+                                   @Value("${app.storage.local.public-url:http://localhost:8080/files}") String publicUrl,
+                                   @Value("${app.storage.local.delete-threads:4}") int deleteThreads) {
+        this.root = Paths.get(rootDir).toAbsolutePath().normalize();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl.substring(0, publicUrl.length() - 1) : publicUrl;
+
+        deletePool = new ThreadPoolTaskExecutor();
+        deletePool.setCorePoolSize(deleteThreads);
+        deletePool.setMaxPoolSize(deleteThreads);
+        deletePool.setQueueCapacity(deleteThreads * 16);
+        deletePool.setThreadNamePrefix("local-delete-");
+        deletePool.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        deletePool.initialize();
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new StorageException("No se pudo crear el directorio de almacenamiento: " + root, e);
+        }
+        log.info("📁 Almacenamiento local en {} (URL pública: {})", root, this.publicUrl);
+    }
+
+    @Override
+    public String uploadFile(String key, InputStream inputStream, long contentLength, String contentType) {
+        Path target = resolve(key);
+        Path tmp = null;
+        try {
+            Files.createDirectories(target.getParent());
+            // Se escribe en un temporal del mismo directorio y se mueve de forma atómica:
+            // quien lea el archivo nunca ve una escritura a medias
+            tmp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            long written = 0;
+            try (ReadableByteChannel in = Channels.newChannel(inputStream);
+                 FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                long transferred;
+                while ((transferred = out.transferFrom(in, written, TRANSFER_CHUNK)) > 0) {
+                    written += transferred;
+                }
+            }
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("✅ Archivo guardado en disco: {} ({} bytes)", key, written);
+            return publicUrl + "/" + key;
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            log.error("❌ Error al guardar archivo en disco: {}", e.getMessage(), e);
+            throw new StorageException("Error al guardar archivo en disco", e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String key) {
+        try {
+            // Borrar un archivo que ya no existe no es un error (los reintentos son seguros)
+            if (!Files.deleteIfExists(resolve(key))) {
+                log.debug("Archivo ya eliminado: {}", key);
+            }
+        } catch (IOException e) {
+            log.error("❌ Error al eliminar archivo: {}", e.getMessage(), e);
+            throw new StorageException("Error al eliminar archivo de disco", e);
+        }
+    }
+
+    /**
+     * Borra los archivos en paralelo en el pool acotado. Intenta borrarlos todos aunque
+     * alguno falle y después informa de los fallidos
+     */
+    @Override
+    public void deleteFiles(Collection<String> keys) {
+        if (keys.size() <= 1) {
+            keys.forEach(this::deleteFile);
+            return;
+        }
+
+        Queue<String> failed = new ConcurrentLinkedQueue<>();
+        CompletableFuture<?>[] deletions = keys.stream()
+                .map(key -> CompletableFuture.runAsync(() -> {
+                    try {
+                        deleteFile(key);
+                    } catch (StorageException e) {
+                        failed.add(key);
+                    }
+                }, deletePool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(deletions).join();
+
+        if (!failed.isEmpty()) {
+            throw new StorageException("Error al eliminar archivos de disco: " + List.copyOf(failed));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        deletePool.shutdown();
+    }
+
+    @Override
+    public boolean fileExists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public FileMetaData getFileMetadata(String key) {
+        Path path = resolve(key);
+        try {
+            return new FileMetaData(
+                    Files.size(path),
+                    contentType(path).toString(),
+                    Files.getLastModifiedTime(path).toInstant());
+        } catch (IOException e) {
+            log.error("Error obteniendo metadatos: {}", e.getMessage());
+            throw new StorageException("Error obteniendo metadatos", e);
+        }
+    }
+
+    /**
+     * El UUID evita que dos subidas paralelas del mismo nombre en el mismo segundo
+     * compartan key (la segunda reemplazaría el archivo de la primera)
+     */
+    @Override
+    public String buildFileKey(Long userId, Long captureId, String fileName) {
+        // Formato: captures/user_123/capture_456/20241111_120000_<uuid>_image.jpg
+        return String.format("%s/user_%d/capture_%d/%s_%s_%s",
+                FOLDER_CAPTURES, userId, captureId, timestamp(), UUID.randomUUID(), sanitizeFileName(fileName));
+    }
+
+    @Override
+    public String buildThumbnailKey(Long userId, Long captureId, String fileName) {
+        return String.format("%s/user_%d/capture_%d/%s_%s_thumb_%s",
+                FOLDER_THUMBNAILS, userId, captureId, timestamp(), UUID.randomUUID(), sanitizeFileName(fileName));
+    }
+
+    /**
+     * Archivo listo para servir. Las claves fuera del directorio raíz se tratan como inexistentes.
+     */
+    public Resource loadAsResource(String key) {
+        Path path;
+        try {
+            path = resolve(key);
+        } catch (StorageException e) {
+            throw new ResourceNotFoundException("Archivo no encontrado: " + key);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Archivo no encontrado: " + key);
+        }
+        return new FileSystemResource(path);
+    }
+
+    public MediaType contentType(Path path) {
+        return MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * Resuelve la clave dentro del directorio raíz, rechazando rutas que escapen de él (../)
+     */
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new StorageException("Ruta de archivo no válida: " + key);
+        }
+        return path;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("⚠️ No se pudo eliminar el temporal {}: {}", path, e.getMessage());
+        }
+    }
+
+    private String timestamp() {
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+    }
+
+    private String sanitizeFileName(String fileName) {
+        if (fileName == null) return "image";
+
+        return fileName
+                .replaceAll("[^a-zA-Z0-9._-]", "_")
+                .replaceAll("_{2,}", "_")
+                .toLowerCase();
+    }
+}
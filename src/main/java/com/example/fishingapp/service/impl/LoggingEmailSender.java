@@ -0,0 +1,34 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.EmailOutbox;
+import com.example.fishingapp.service.EmailSender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transporte por defecto (desarrollo y entornos sin SMTP): solo escribe los emails en el log.
+ * Se desactiva con app.mail.transport distinto de "log", para registrar otro EmailSender
+ * (p. ej. uno con JavaMailSender que abra un único Transport por lote).
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingEmailSender implements EmailSender {
+
+    @Override
+    public Map<Long, String> sendBatch(List<EmailOutbox> emails) {
+        for (EmailOutbox email : emails) {
+            log.info("========================================");
+            log.info("📧 EMAIL ENVIADO (MOCK)");
+            log.info("Para: {}", email.getRecipient());
+            log.info("Asunto: {}", email.getSubject());
+            log.info("Cuerpo:\n{}", email.getBody());
+            log.info("========================================");
+        }
+        return Map.of();
+    }
+}
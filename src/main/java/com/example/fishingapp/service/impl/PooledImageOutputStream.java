@@ -0,0 +1,122 @@
+package com.example.fishingapp.service.impl;
+
+import javax.imageio.stream.ImageOutputStreamImpl;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * ImageOutputStream sobre un array propio que se reutiliza entre codificaciones.
+ * A diferencia de ImageIO.createImageOutputStream(ByteArrayOutputStream), no hay caché
+ * intermedia ni copia por cada intento: el writer escribe directamente en el array.
+ * No es thread-safe; se toma y se devuelve al pool de ImageProcessingServiceImpl.
+ */
+final class PooledImageOutputStream extends ImageOutputStreamImpl {
+
+    private final int initialCapacity;
+    private final int maxRetainedCapacity;
+
+    private byte[] buffer;
+    private int length;
+
+    /**
+     * @param initialCapacity     capacidad inicial del array
+     * @param maxRetainedCapacity por encima de esta capacidad, clear() libera el array
+     *                            (un pico puntual no queda retenido para siempre)
+     */
+    PooledImageOutputStream(int initialCapacity, int maxRetainedCapacity) {
+        this.initialCapacity = initialCapacity;
+        this.maxRetainedCapacity = maxRetainedCapacity;
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Deja el stream vacío para la siguiente codificación
+     */
+    void clear() {
+        if (buffer.length > maxRetainedCapacity) {
+            buffer = new byte[initialCapacity];
+        }
+        length = 0;
+        streamPos = 0;
+        flushedPos = 0;
+        bitOffset = 0;
+    }
+
+    /**
+     * Bytes escritos hasta ahora
+     */
+    int size() {
+        return length;
+    }
+
+    /**
+     * Copia exacta del contenido (una sola asignación del tamaño final)
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    @Override
+    public void write(int b) {
+        flushBitsQuietly();
+        ensureCapacity(streamPos + 1);
+        buffer[(int) streamPos++] = (byte) b;
+        length = Math.max(length, (int) streamPos);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        flushBitsQuietly();
+        ensureCapacity(streamPos + len);
+        System.arraycopy(b, off, buffer, (int) streamPos, len);
+        streamPos += len;
+        length = Math.max(length, (int) streamPos);
+    }
+
+    @Override
+    public int read() {
+        bitOffset = 0;
+        if (streamPos >= length) {
+            return -1;
+        }
+        return buffer[(int) streamPos++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        bitOffset = 0;
+        if (streamPos >= length) {
+            return -1;
+        }
+        int count = (int) Math.min(len, length - streamPos);
+        System.arraycopy(buffer, (int) streamPos, b, off, count);
+        streamPos += count;
+        return count;
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    private void flushBitsQuietly() {
+        if (bitOffset != 0) {
+            try {
+                flushBits();
+            } catch (IOException e) {
+                // flushBits solo escribe en memoria
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void ensureCapacity(long required) {
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Imagen codificada demasiado grande");
+        }
+        if (required > buffer.length) {
+            int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(required, buffer.length * 2L));
+            buffer = Arrays.copyOf(buffer, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.repository.CaptureImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Marca como FAILED las imágenes que llevan demasiado tiempo en PENDING o PROCESSING:
+ * su archivo de spool se perdió al reiniciar o el worker murió a mitad de procesarlas,
+ * y ya nadie las va a terminar. Se ejecuta poco después de arrancar y luego periódicamente,
+ * solo en el nodo que toma el cerrojo de ClusterLock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.image.async.stale-sweep.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StaleImageSweepJob {
+
+    static final String LOCK_NAME = "stale-image-sweep";
+
+    static final String STALE_REASON = "El procesamiento no terminó, vuelve a subir la imagen";
+
+    private final CaptureImageRepository captureImageRepository;
+    private final ClusterLock clusterLock;
+    private final Duration staleAfter;
+    private final Duration lockAtMostFor;
+
+    public StaleImageSweepJob(CaptureImageRepository captureImageRepository,
+                              ClusterLock clusterLock,
+                              @Value("${app.image.async.stale-after-minutes:30}") long staleAfterMinutes,
+                              @Value("${app.image.async.stale-sweep.lock-at-most-seconds:300}") long lockAtMostSeconds) {
+        this.captureImageRepository = captureImageRepository;
+        this.clusterLock = clusterLock;
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${app.image.async.stale-sweep.interval-ms:600000}",
+            initialDelayString = "${app.image.async.stale-sweep.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!clusterLock.tryLock(LOCK_NAME, lockAtMostFor)) {
+            log.debug("Barrido de imágenes atascadas en curso en otro nodo");
+            return;
+        }
+        try {
+            sweepStale(LocalDateTime.now());
+        } finally {
+            clusterLock.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * @return número de imágenes marcadas como FAILED
+     */
+    int sweepStale(LocalDateTime now) {
+        int failed = captureImageRepository.markStaleAsFailed(
+                List.of(ImageStatus.PENDING, ImageStatus.PROCESSING), now.minus(staleAfter), STALE_REASON);
+        if (failed > 0) {
+            log.warn("🧹 {} imágenes atascadas en PENDING/PROCESSING marcadas como FAILED", failed);
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.StorageDeletion;
+import com.example.fishingapp.repository.StorageDeletionRepository;
+import com.example.fishingapp.service.StorageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Procesa en segundo plano la tabla storage_deletions:
+ * borra los archivos por lotes y reintenta los fallidos con espera exponencial.
+ * Borrar un archivo que ya no existe no es un error, así que reintentar es seguro.
+ * Solo lo ejecuta el nodo que toma el cerrojo de ClusterLock (sin borrados duplicados
+ * ni carreras al reprogramar los fallidos).
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.cleanup.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class StorageCleanupJob {
+
+    static final String LOCK_NAME = "storage-cleanup";
+
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final StorageService storageService;
+    private final ClusterLock clusterLock;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lockAtMostFor;
+    private final Duration abandonedRetention;
+
+    // Borrados abandonados tras max-attempts (archivos huérfanos en el almacenamiento),
+    // en /actuator/metrics/storage.deletions.abandoned
+    private final Counter abandoned;
+
+    public StorageCleanupJob(StorageDeletionRepository storageDeletionRepository,
+                             StorageService storageService,
+                             ClusterLock clusterLock,
+                             ObjectProvider<MeterRegistry> meterRegistry,
+                             @Value("${app.storage.cleanup.batch-size:100}") int batchSize,
+                             @Value("${app.storage.cleanup.max-attempts:10}") int maxAttempts,
+                             @Value("${app.storage.cleanup.backoff-base-seconds:30}") long backoffBaseSeconds,
+                             @Value("${app.storage.cleanup.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                             @Value("${app.storage.cleanup.lock-at-most-seconds:300}") long lockAtMostSeconds,
+                             @Value("${app.storage.cleanup.abandoned-retention-days:30}") long abandonedRetentionDays) {
+        this.storageDeletionRepository = storageDeletionRepository;
+        this.storageService = storageService;
+        this.clusterLock = clusterLock;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostSeconds);
+        this.abandonedRetention = Duration.ofDays(abandonedRetentionDays);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.abandoned = Counter.builder("storage.deletions.abandoned")
+                .description("Borrados de archivos abandonados tras agotar los reintentos")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.cleanup.interval-ms:30000}",
+            initialDelayString = "${app.storage.cleanup.initial-delay-ms:30000}")
+    public void drain() {
+        if (!clusterLock.tryLock(LOCK_NAME, lockAtMostFor)) {
+            return;
+        }
+        try {
+            // Se deja margen para terminar antes de que caduque el cerrojo
+            long deadline = System.nanoTime() + lockAtMostFor.dividedBy(2).toNanos();
+            int processed;
+            do {
+                processed = drainBatch();
+            } while (processed == batchSize && System.nanoTime() < deadline);
+            purgeAbandoned(LocalDateTime.now());
+        } finally {
+            clusterLock.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Procesa un lote de borrados pendientes
+     *
+     * @return número de borrados procesados (con éxito o reprogramados)
+     */
+    int drainBatch() {
+        List<StorageDeletion> due = storageDeletionRepository.findDue(LocalDateTime.now(), maxAttempts, Limit.of(batchSize));
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            // Caso normal: una sola llamada de borrado masivo para todo el lote
+            storageService.deleteFiles(due.stream().map(StorageDeletion::getFileKey).toList());
+            storageDeletionRepository.deleteAllInBatch(due);
+            log.info("🧹 Eliminados {} archivos pendientes del almacenamiento", due.size());
+            return due.size();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Falló el borrado masivo de {} archivos, reintentando uno a uno: {}", due.size(), e.getMessage());
+        }
+
+        // Uno a uno, para que un archivo problemático no bloquee al resto
+        List<StorageDeletion> done = new ArrayList<>();
+        List<StorageDeletion> failed = new ArrayList<>();
+        for (StorageDeletion deletion : due) {
+            try {
+                storageService.deleteFile(deletion.getFileKey());
+                done.add(deletion);
+            } catch (RuntimeException e) {
+                scheduleRetry(deletion, e);
+                failed.add(deletion);
+            }
+        }
+        storageDeletionRepository.deleteAllInBatch(done);
+        storageDeletionRepository.saveAll(failed);
+        return due.size();
+    }
+
+    /**
+     * Descarta los borrados abandonados (max-attempts agotados) pasado el periodo de retención.
+     * Sus keys quedan en el log para poder eliminar a mano los archivos huérfanos.
+     *
+     * @return número de borrados descartados
+     */
+    int purgeAbandoned(LocalDateTime now) {
+        List<StorageDeletion> expired = storageDeletionRepository.findAbandonedBefore(
+                maxAttempts, now.minus(abandonedRetention), Limit.of(batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        log.error("❌ Se descartan {} borrados abandonados, archivos huérfanos: {}",
+                expired.size(), expired.stream().map(StorageDeletion::getFileKey).toList());
+        storageDeletionRepository.deleteAllInBatch(expired);
+        return expired.size();
+    }
+
+    private void scheduleRetry(StorageDeletion deletion, RuntimeException error) {
+        int attempts = deletion.getAttempts() + 1;
+        deletion.setAttempts(attempts);
+        deletion.setLastError(truncate(error.getMessage()));
+
+        // 30s, 1m, 2m, 4m... hasta el máximo configurado
+        Duration delay = backoffBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (delay.compareTo(backoffMax) > 0) {
+            delay = backoffMax;
+        }
+        deletion.setNextAttemptAt(LocalDateTime.now().plus(delay));
+
+        if (attempts >= maxAttempts) {
+            abandoned.increment();
+            log.error("❌ Se abandona el borrado de {} tras {} intentos: {}",
+                    deletion.getFileKey(), attempts, deletion.getLastError());
+        } else {
+            log.warn("⚠️ Borrado de {} reprogramado (intento {}): {}",
+                    deletion.getFileKey(), attempts, deletion.getLastError());
+        }
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.repository.RefreshTokenRepository;
+import com.example.fishingapp.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+/**
+ * Purga periódica de refresh tokens expirados o revocados y de tokens de verificación expirados.
+ * Borra por lotes con DELETE ... LIMIT (cada lote en su propia transacción, sin cargar entidades)
+ * y solo la ejecuta el nodo que toma el cerrojo de ClusterLock.
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.token-cleanup.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class TokenCleanupJob {
+
+    static final String LOCK_NAME = "token-cleanup";
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final ClusterLock clusterLock;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration lockAtMostFor;
+
+    // Tokens borrados, en /actuator/metrics/tokens.purged (type=refresh|verification)
+    private final Counter refreshPurged;
+    private final Counter verificationPurged;
+
+    public TokenCleanupJob(RefreshTokenRepository refreshTokenRepository,
+                           VerificationTokenRepository verificationTokenRepository,
+                           ClusterLock clusterLock,
+                           ObjectProvider<MeterRegistry> meterRegistry,
+                           @Value("${app.security.token-cleanup.batch-size:1000}") int batchSize,
+                           @Value("${app.security.token-cleanup.max-batches:500}") int maxBatches,
+                           @Value("${app.security.token-cleanup.lock-at-most-seconds:600}") long lockAtMostSeconds) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.clusterLock = clusterLock;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.lockAtMostFor = Duration.ofSeconds(lockAtMostSeconds);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.refreshPurged = Counter.builder("tokens.purged").tag("type", "refresh")
+                .description("Tokens expirados eliminados por TokenCleanupJob").register(registry);
+        this.verificationPurged = Counter.builder("tokens.purged").tag("type", "verification")
+                .description("Tokens expirados eliminados por TokenCleanupJob").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-cleanup.interval-ms:3600000}",
+            initialDelayString = "${app.security.token-cleanup.initial-delay-ms:60000}")
+    public void purge() {
+        if (!clusterLock.tryLock(LOCK_NAME, lockAtMostFor)) {
+            log.debug("Purga de tokens en curso en otro nodo");
+            return;
+        }
+        try {
+            purgeExpired(LocalDateTime.now());
+        } finally {
+            clusterLock.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * @return total de tokens eliminados (refresh + verificación)
+     */
+    int purgeExpired(LocalDateTime now) {
+        long start = System.currentTimeMillis();
+        int refresh = purgeInBatches(refreshTokenRepository::deleteExpiredBatch, now);
+        int verification = purgeInBatches(verificationTokenRepository::deleteExpiredBatch, now);
+        refreshPurged.increment(refresh);
+        verificationPurged.increment(verification);
+
+        if (refresh + verification > 0) {
+            log.info("🧹 Purgados {} refresh tokens y {} tokens de verificación en {} ms",
+                    refresh, verification, System.currentTimeMillis() - start);
+        }
+        return refresh + verification;
+    }
+
+    private int purgeInBatches(BiFunction<LocalDateTime, Integer, Integer> deleteBatch, LocalDateTime now) {
+        int total = 0;
+        // maxBatches acota la duración de una ejecución por debajo de lock-at-most-seconds
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int deleted = deleteBatch.apply(now, batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.dto.ResourceVersion;
 import com.example.fishingapp.dto.UserDto;
 import com.example.fishingapp.exception.ResourceNotFoundException;
 import com.example.fishingapp.exception.UsernameAlreadyExistsException;
 import com.example.fishingapp.mapper.UserMapper;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.UserRepository;
+import com.example.fishingapp.service.CustomUserDetailsService;
 import com.example.fishingapp.service.UserService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,28 +19,32 @@ import java.util.Optional;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final DtoCache dtoCache;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, CustomUserDetailsService userDetailsService, DtoCache dtoCache) {
         this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.dtoCache = dtoCache;
     }
 
 
     @Override
-    @Transactional(readOnly = true)
     public UserDto findByUsername(String userName) {
 
-        return userRepository.findByUsername(userName).map(UserMapper::mapUserDto).orElseThrow(
-                () -> new ResourceNotFoundException("User", "username", userName)
-        );
+        return dtoCache.get(DtoCache.USERS_BY_USERNAME, userName, () ->
+                userRepository.findByUsername(userName).map(UserMapper::mapUserDto).orElseThrow(
+                        () -> new ResourceNotFoundException("User", "username", userName)
+                ));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public UserDto findById(Long id) {
 
-        return userRepository.findById(id).map(UserMapper::mapUserDto).orElseThrow(
-                () -> new ResourceNotFoundException("User", "id", id.toString())
-        );
+        return dtoCache.get(DtoCache.USERS, id, () ->
+                userRepository.findById(id).map(UserMapper::mapUserDto).orElseThrow(
+                        () -> new ResourceNotFoundException("User", "id", id.toString())
+                ));
     }
 
     @Override
@@ -47,6 +53,19 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll().stream().map(UserMapper::mapUserDto).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public String getUsersVersion() {
+        return userRepository.findVersion().etag();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String getUserVersion(String username) {
+        ResourceVersion version = userRepository.findVersionByUsername(username);
+        return version.count() == 0 ? null : version.etag();
+    }
+
     @Override
     @Transactional
     public UserDto updateUserDto(UserDto userDto) {
@@ -69,6 +88,10 @@ public class UserServiceImpl implements UserService {
             }
         }
 
+        // La cuenta cambia: descartar el usuario cacheado para la autenticación
+        userDetailsService.evictUser(existingUser.getAuthUser());
+        evictUserDto(existingUser);
+
         existingUser.setFullName(userDto.fullName());
         existingUser.setEmail(userDto.email());
         existingUser.setUsername(userDto.username());
@@ -83,6 +106,13 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("user", "username", username));
 
+        userDetailsService.evictUser(user.getAuthUser());
+        evictUserDto(user);
         userRepository.delete(user); // Elimina User y AuthUser automáticamente por cascade
     }
+
+    private void evictUserDto(User user) {
+        dtoCache.evict(DtoCache.USERS, user.getId());
+        dtoCache.evict(DtoCache.USERS_BY_USERNAME, user.getUsername());
+    }
 }
@@ -6,6 +6,7 @@ import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.security.VerificationToken;
 import com.example.fishingapp.service.VerificationTokenService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,7 @@ import java.time.LocalDateTime;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class VerificationTokenServiceImpl implements VerificationTokenService {
 
     private final VerificationTokenRepository verificationTokenRepository;
@@ -21,6 +23,13 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
     @Value("${verification.token.expiration:86400}") // 24 horas por defecto
     private long tokenExpirationSeconds;
 
+    // Mismos límites que la purga de TokenCleanupJob
+    @Value("${app.security.token-cleanup.batch-size:1000}")
+    private int deleteBatchSize;
+
+    @Value("${app.security.token-cleanup.max-batches:500}")
+    private int maxDeleteBatches;
+
 
     @Override
     @Transactional
@@ -82,10 +91,25 @@ public class VerificationTokenServiceImpl implements VerificationTokenService {
         verificationTokenRepository.save(verificationToken);
     }
 
+    /**
+     * Borra por lotes, cada uno en su propia transacción (bloqueos cortos);
+     * como mucho max-batches lotes por llamada, el resto queda para la siguiente
+     */
     @Override
-    @Transactional
-    public void deleteExpiredTokens() {
-        verificationTokenRepository.deleteByExpiryDateBefore(LocalDateTime.now());
+    public int deleteExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        for (int batch = 0; batch < maxDeleteBatches; batch++) {
+            int deleted = verificationTokenRepository.deleteExpiredBatch(now, deleteBatchSize);
+            total += deleted;
+            if (deleted < deleteBatchSize) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("🧹 Eliminados {} tokens de verificación expirados", total);
+        }
+        return total;
     }
 
     @Override
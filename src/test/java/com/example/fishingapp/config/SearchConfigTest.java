@@ -0,0 +1,74 @@
+package com.example.fishingapp.config;
+
+import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.FishCaptureSearchRepository;
+import com.example.fishingapp.repository.InMemoryFishCaptureSearchRepository;
+import com.example.fishingapp.repository.PostgresFishCaptureSearchRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SearchConfigTest {
+
+    private final SearchConfig searchConfig = new SearchConfig();
+
+    @Test
+    void postgres_usesFullTextSearch() throws Exception {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        // Detección de pg_trgm al construir el repositorio
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(true);
+        NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        when(namedJdbcTemplate.getJdbcTemplate()).thenReturn(jdbcTemplate);
+
+        FishCaptureSearchRepository repository = searchConfig.fishCaptureSearchRepository(
+                dataSource("PostgreSQL"), namedJdbcTemplate, mock(FishCaptureRepository.class), environment);
+
+        assertInstanceOf(PostgresFishCaptureSearchRepository.class, repository);
+    }
+
+    @Test
+    void h2WithTestProfile_usesInMemorySearch() throws Exception {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("test");
+
+        FishCaptureSearchRepository repository = searchConfig.fishCaptureSearchRepository(
+                dataSource("H2"), mock(NamedParameterJdbcTemplate.class),
+                mock(FishCaptureRepository.class), environment);
+
+        assertInstanceOf(InMemoryFishCaptureSearchRepository.class, repository);
+    }
+
+    @Test
+    void otherDatabaseOutsideTestProfile_failsFast() throws Exception {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+        DataSource dataSource = dataSource("MySQL");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                searchConfig.fishCaptureSearchRepository(dataSource, mock(NamedParameterJdbcTemplate.class),
+                        mock(FishCaptureRepository.class), environment));
+
+        assertTrue(exception.getMessage().contains("MySQL"));
+    }
+
+    private DataSource dataSource(String productName) throws Exception {
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn(productName);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
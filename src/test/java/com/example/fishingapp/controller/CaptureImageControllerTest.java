@@ -2,11 +2,13 @@ package com.example.fishingapp.controller;
 
 import com.example.fishingapp.dto.image.ImageDeleteResponseDto;
 import com.example.fishingapp.dto.image.ImageResponseDto;
+import com.example.fishingapp.dto.image.ImageStatusResponseDto;
 import com.example.fishingapp.dto.image.ImageUploadResponseDto;
 import com.example.fishingapp.exception.GlobalExceptionHandler;
 import com.example.fishingapp.exception.InvalidImageException;
 import com.example.fishingapp.exception.ResourceNotFoundException;
 import com.example.fishingapp.exception.UnauthorizedException;
+import com.example.fishingapp.model.ImageStatus;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.security.Role;
@@ -47,6 +49,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,7 +58,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @WebMvcTest(CaptureImageController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, HttpCaching.class})
 @DisplayName("CaptureImageController - Tests Unitarios")
 class CaptureImageControllerTest {
 
@@ -211,6 +214,52 @@ class CaptureImageControllerTest {
         verify(captureImageService, times(1)).uploadImage(eq(1L), eq(1L), any());
     }
 
+    @Test
+    @DisplayName("POST /api/captures/{captureId}/images/async - Debe aceptar la imagen con 202")
+    void testUploadImageAsync_Accepted() throws Exception {
+        // Given
+        setupAuthentication();
+
+        MockMultipartFile file = new MockMultipartFile(
+                "file",
+                "test.jpg",
+                "image/jpeg",
+                "fake image content".getBytes()
+        );
+
+        when(captureImageService.submitImageUpload(eq(1L), eq(1L), any()))
+                .thenReturn(new ImageStatusResponseDto(10L, 1L, ImageStatus.PENDING,
+                        "/api/captures/images/10/status", null, null));
+
+        // When & Then
+        mockMvc.perform(multipart("/api/captures/1/images/async")
+                        .file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/captures/images/10/status"))
+                .andExpect(jsonPath("$.imageId", is(10)))
+                .andExpect(jsonPath("$.status", is("PENDING")));
+
+        verify(captureImageService, times(1)).submitImageUpload(eq(1L), eq(1L), any());
+        verify(captureImageService, never()).uploadImage(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/captures/images/{imageId}/status - Debe devolver el estado")
+    void testGetImageStatus_Ready() throws Exception {
+        // Given
+        setupAuthentication();
+
+        when(captureImageService.getImageStatus(10L, 1L))
+                .thenReturn(new ImageStatusResponseDto(10L, 1L, ImageStatus.READY,
+                        "/api/captures/images/10/status", null, mockImageResponse));
+
+        // When & Then
+        mockMvc.perform(get("/api/captures/images/10/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("READY")))
+                .andExpect(jsonPath("$.image.originalUrl", is("https://s3.tebi.io/bucket/test.jpg")));
+    }
+
     @Test
     @DisplayName("POST /api/captures/{captureId}/images - Debe fallar con captura inexistente")
     void testUploadImage_CaptureNotFound() throws Exception {
@@ -384,6 +433,34 @@ class CaptureImageControllerTest {
         verify(captureImageService, times(1)).getImagesByCapture(999L);
     }
 
+    @Test
+    @DisplayName("GET /api/captures/{captureId}/images - Debe incluir ETag y Cache-Control")
+    void testGetImagesByCapture_ReturnsEtag() throws Exception {
+        // Given
+        when(captureImageService.getImagesVersion(1L)).thenReturn("2-abc-3");
+        when(captureImageService.getImagesByCapture(1L)).thenReturn(Collections.emptyList());
+
+        // When & Then
+        mockMvc.perform(get("/api/captures/1/images"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2-abc-3\""))
+                .andExpect(header().string("Cache-Control", containsString("max-age")));
+    }
+
+    @Test
+    @DisplayName("GET /api/captures/{captureId}/images - Debe retornar 304 sin cargar las imágenes")
+    void testGetImagesByCapture_NotModified() throws Exception {
+        // Given
+        when(captureImageService.getImagesVersion(1L)).thenReturn("2-abc-3");
+
+        // When & Then
+        mockMvc.perform(get("/api/captures/1/images").header("If-None-Match", "W/\"2-abc-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2-abc-3\""));
+
+        verify(captureImageService, never()).getImagesByCapture(anyLong());
+    }
+
     @Test
     @DisplayName("GET /api/captures/images/{imageId} - Debe obtener una imagen específica")
     void testGetImageById_Success() throws Exception {
@@ -0,0 +1,91 @@
+package com.example.fishingapp.controller;
+
+import com.example.fishingapp.exception.GlobalExceptionHandler;
+import com.example.fishingapp.exception.ResourceNotFoundException;
+import com.example.fishingapp.security.filter.JwtAuthenticationFilter;
+import com.example.fishingapp.service.impl.JwtService;
+import com.example.fishingapp.service.impl.LocalStorageServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests del controlador FileController (perfil local-storage)
+ */
+@WebMvcTest(FileController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles({"test", LocalStorageServiceImpl.PROFILE})
+@Import(GlobalExceptionHandler.class)
+@DisplayName("FileController - Tests Unitarios")
+class FileControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LocalStorageServiceImpl localStorageService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("a.jpg"), "0123456789");
+        when(localStorageService.loadAsResource("captures/user_1/a.jpg")).thenReturn(new FileSystemResource(file));
+        when(localStorageService.contentType(any())).thenReturn(MediaType.IMAGE_JPEG);
+        when(localStorageService.loadAsResource("captures/no-existe.jpg"))
+                .thenThrow(new ResourceNotFoundException("Archivo no encontrado: captures/no-existe.jpg"));
+    }
+
+    @Test
+    @DisplayName("Debe servir el archivo completo con Cache-Control")
+    void getFile_returnsWholeFile() throws Exception {
+        mockMvc.perform(get("/files/captures/user_1/a.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().string("0123456789"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    @DisplayName("Debe responder 206 con el rango pedido")
+    void getFile_withRange_returnsPartialContent() throws Exception {
+        mockMvc.perform(get("/files/captures/user_1/a.jpg").header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    @DisplayName("Debe responder 404 si el archivo no existe")
+    void getFile_missing_returnsNotFound() throws Exception {
+        mockMvc.perform(get("/files/captures/no-existe.jpg"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.fishingapp.controller;
 
 import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.FishCapture;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.AuthUserRepository;
+import com.example.fishingapp.repository.CaptureImageRepository;
 import com.example.fishingapp.repository.FishCaptureRepository;
 import com.example.fishingapp.repository.RefreshTokenRepository;
 import com.example.fishingapp.repository.UserRepository;
@@ -19,12 +22,17 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -51,6 +59,9 @@ class FishCaptureControllerTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private CaptureImageRepository captureImageRepository;
+
     private User testUser;
 
     @BeforeEach
@@ -204,6 +215,271 @@ class FishCaptureControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    void getCaptureFeed_paginatesWithCursor() throws Exception {
+        // created_at lo fija el servidor: la última creada va primero en el feed
+        for (int i = 0; i < 3; i++) {
+            FishCaptureDto dto = new FishCaptureDto(
+                    null, testUser.getId(), "Trucha " + i, 2.5f,
+                    LocalDate.of(2025, 9, 25), "Rio Tajo", null
+            );
+            mockMvc.perform(post("/api/fish-captures")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        String response = mockMvc.perform(get("/api/fish-captures/feed").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].fishType").value("Trucha 2"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String nextCursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/fish-captures/feed").param("size", "2").param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].fishType").value("Trucha 0"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getFishCapturePageByUsername_returnsSortedPage() throws Exception {
+        float[] weights = {1.5f, 4.0f, 2.5f};
+        for (float weight : weights) {
+            FishCaptureDto dto = new FishCaptureDto(
+                    null, testUser.getId(), "Trucha", weight,
+                    LocalDate.of(2025, 9, 25), "Rio Tajo", LocalDateTime.now()
+            );
+            mockMvc.perform(post("/api/fish-captures")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/fish-captures/user/testuser/page")
+                        .param("size", "2")
+                        .param("sort", "weight,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].weight").value(4.0))
+                .andExpect(jsonPath("$.items[1].weight").value(2.5))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void searchCaptures_returnsRankedMatchesToleratingTypos() throws Exception {
+        String[][] captures = {{"Trucha", "Rio Tajo"}, {"Lucio", "Embalse de Alcántara"}, {"Trucha arcoíris", "Charca"}};
+        for (String[] capture : captures) {
+            FishCaptureDto dto = new FishCaptureDto(
+                    null, testUser.getId(), capture[0], 2.0f,
+                    LocalDate.of(2025, 9, 25), capture[1], LocalDateTime.now()
+            );
+            mockMvc.perform(post("/api/fish-captures")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        // Especie y lugar a la vez
+        mockMvc.perform(get("/api/fish-captures/search").param("q", "trucha tajo"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.items[0].fishType").value("Trucha"))
+                .andExpect(jsonPath("$.items[0].location").value("Rio Tajo"));
+
+        // Error de escritura en la especie
+        mockMvc.perform(get("/api/fish-captures/search").param("q", "truha").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].fishType").value("Trucha"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        // Lugar sin tildes
+        mockMvc.perform(get("/api/fish-captures/search").param("q", "alcantara"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].fishType").value("Lucio"));
+    }
+
+    @Test
+    void searchCaptures_returnsBadRequest_whenQueryMissing() throws Exception {
+        mockMvc.perform(get("/api/fish-captures/search"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/fish-captures/search").param("q", "   "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getFishCapturePageByUsername_returnsNotFound_whenUserDoesNotExist() throws Exception {
+        mockMvc.perform(get("/api/fish-captures/user/nadie/page"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getCaptureFeedWithImages_embedsThumbnails() throws Exception {
+        // created_at lo fija el servidor: la más reciente es la última guardada
+        fishCaptureRepository.save(FishCapture.builder()
+                .captureDate(LocalDate.of(2025, 9, 24))
+                .fishType("Lucio")
+                .weight(3.0f)
+                .user(testUser)
+                .build());
+        FishCapture withImage = fishCaptureRepository.save(FishCapture.builder()
+                .captureDate(LocalDate.of(2025, 9, 25))
+                .fishType("Trucha")
+                .weight(2.5f)
+                .user(testUser)
+                .build());
+        captureImageRepository.save(CaptureImage.builder()
+                .originalUrl("https://cdn/orig.jpg")
+                .thumbnailUrl("https://cdn/thumb.jpg")
+                .fileName("orig.jpg")
+                .mimeType("image/jpeg")
+                .uploadedAt(LocalDateTime.now())
+                .fishCapture(withImage)
+                .build());
+
+        mockMvc.perform(get("/api/fish-captures/feed/with-images"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].fishType").value("Trucha"))
+                .andExpect(jsonPath("$.items[0].images[0].thumbnailUrl").value("https://cdn/thumb.jpg"))
+                .andExpect(jsonPath("$.items[1].images.length()").value(0));
+    }
+
+    @Test
+    void getCaptureFeed_returnsBadRequest_whenCursorInvalid() throws Exception {
+        mockMvc.perform(get("/api/fish-captures/feed").param("cursor", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllCaptures_conditionalGet_returnsNotModifiedUntilDataChanges() throws Exception {
+        FishCaptureDto dto = new FishCaptureDto(
+                null, testUser.getId(), "Trucha", 2.5f,
+                LocalDate.of(2025, 9, 25), "Rio Tajo", LocalDateTime.now()
+        );
+        mockMvc.perform(post("/api/fish-captures")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        String etag = mockMvc.perform(get("/api/fish-captures"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", containsString("public")))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/fish-captures").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Una captura nueva cambia la versión
+        mockMvc.perform(post("/api/fish-captures")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/fish-captures").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void importCaptures_jsonArray_createsOwnedCapturesAndReportsRejectedRows() throws Exception {
+        String body = """
+                [
+                  {"fishType": "Trucha", "weight": 2.5, "captureData": "2025-09-25", "location": "Rio Tajo"},
+                  {"fishType": "Lucio", "captureData": "2025-09-26"},
+                  {"fishType": "Carpa", "weight": 4.0, "captureData": "2025-09-27", "userId": 999}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/fish-captures/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rows[0].id").isNumber())
+                .andExpect(jsonPath("$.rows[1].error").value("weight es obligatorio"));
+
+        mockMvc.perform(get("/api/fish-captures/user/testuser"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[*].userId", everyItem(
+                        is(testUser.getId().intValue()))));
+    }
+
+    @Test
+    void importCaptures_ndjson_streamsRowsAndRejectsMalformedLines() throws Exception {
+        String body = """
+                {"fishType": "Trucha", "weight": 2.5, "captureData": "2025-09-25"}
+                esto no es json
+
+                {"fishType": "Lucio", "weight": 3.0, "captureData": "2025-09-26"}
+                """;
+
+        mockMvc.perform(post("/api/fish-captures/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rows[1].error").value("Fila vacía o con formato no válido"));
+    }
+
+    @Test
+    void exportAllCaptures_streamsNdjson() throws Exception {
+        for (String fishType : new String[]{"Trucha", "Lucio"}) {
+            FishCaptureDto dto = new FishCaptureDto(
+                    null, testUser.getId(), fishType, 2.5f,
+                    LocalDate.of(2025, 9, 25), "Rio Tajo", LocalDateTime.now()
+            );
+            mockMvc.perform(post("/api/fish-captures")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isCreated());
+        }
+
+        // El streaming se ejecuta en otro hilo: los datos deben estar confirmados
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        try {
+
+            MvcResult asyncResult = mockMvc.perform(get("/api/fish-captures/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(asyncResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-ndjson"))
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+
+            String[] lines = body.trim().split("\n");
+            org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+            org.junit.jupiter.api.Assertions.assertEquals("Trucha",
+                    objectMapper.readTree(lines[0]).get("fishType").asText());
+        } finally {
+            fishCaptureRepository.deleteAll();
+            refreshTokenRepository.deleteAll();
+            authUserRepository.deleteAll();
+            userRepository.deleteAll();
+        }
+    }
+
     @Test
     void getFishCaptureByUsername_returnsCaptures() throws Exception {
         FishCaptureDto dto = new FishCaptureDto(
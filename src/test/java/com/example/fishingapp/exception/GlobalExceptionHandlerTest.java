@@ -54,6 +54,16 @@ class GlobalExceptionHandlerTest {
         assertEquals("Email o contraseña incorrectos", response.getBody().getMessage());
     }
 
+    @Test
+    void handleServiceBusy_returnsServiceUnavailableWithRetryAfter() {
+        ServiceBusyException ex = new ServiceBusyException("Servidor ocupado", 5);
+        ResponseEntity<ErrorResponse> response = handler.handleServiceBusy(ex, request);
+
+        assertEquals(503, response.getStatusCodeValue());
+        assertEquals("5", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("Servidor ocupado", response.getBody().getMessage());
+    }
+
     @Test
     void handleUsernameNotFound_returnsNotFound() {
         UsernameNotFoundException ex = new UsernameNotFoundException("Usuario no encontrado");
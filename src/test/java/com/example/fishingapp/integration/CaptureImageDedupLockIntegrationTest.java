@@ -0,0 +1,141 @@
+package com.example.fishingapp.integration;
+
+import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.model.StorageDeletion;
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.repository.CaptureImageRepository;
+import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.StorageDeletionRepository;
+import com.example.fishingapp.repository.UserRepository;
+import com.example.fishingapp.service.CaptureImageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Borrado concurrente con una subida que reutiliza los archivos de la imagen borrada
+ * (transacciones reales: sin @Transactional en el test)
+ */
+@SpringBootTest
+@DisplayName("CaptureImage - Bloqueo de deduplicación")
+class CaptureImageDedupLockIntegrationTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CaptureImageService captureImageService;
+
+    @Autowired
+    private CaptureImageRepository captureImageRepository;
+
+    @Autowired
+    private StorageDeletionRepository storageDeletionRepository;
+
+    @Autowired
+    private FishCaptureRepository fishCaptureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private FishCapture capture;
+    private CaptureImage source;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .username("dedupuser")
+                .fullName("Dedup User")
+                .email("dedup@example.com")
+                .build());
+        capture = fishCaptureRepository.save(FishCapture.builder()
+                .fishType("Trucha")
+                .weight(1.0f)
+                .captureDate(LocalDate.now())
+                .location("Rio Tajo")
+                .user(user)
+                .build());
+        source = captureImageRepository.save(CaptureImage.builder()
+                .originalUrl("https://s3.tebi.io/bucket/captures/a.jpg")
+                .thumbnailUrl("https://s3.tebi.io/bucket/thumbnails/a.jpg")
+                .s3Key("captures/a.jpg")
+                .contentHash("hash-1")
+                .fileName("a.jpg")
+                .mimeType("image/jpeg")
+                .status(ImageStatus.READY)
+                .fishCapture(capture)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageDeletionRepository.deleteAll();
+        captureImageRepository.deleteAll();
+        fishCaptureRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("El borrado espera a la subida que reutiliza el origen y conserva sus archivos")
+    void deleteImage_waitsForReuseAndKeepsSharedFiles() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Subida que ya ha bloqueado la fila origen y aún no ha guardado la nueva imagen
+        CompletableFuture<Void> reuse = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            CaptureImage found = captureImageRepository.findByContentHashesForUpdate(
+                    List.of("hash-1"), user.getId(), ImageStatus.READY).get(0);
+            locked.countDown();
+            await(release);
+            captureImageRepository.save(CaptureImage.builder()
+                    .originalUrl(found.getOriginalUrl())
+                    .thumbnailUrl(found.getThumbnailUrl())
+                    .s3Key(found.getS3Key())
+                    .contentHash(found.getContentHash())
+                    .fileName("b.jpg")
+                    .mimeType("image/jpeg")
+                    .fishCapture(capture)
+                    .build());
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS), is(true));
+
+        CompletableFuture<Void> delete = CompletableFuture.runAsync(
+                () -> captureImageService.deleteImage(source.getId(), user.getId()));
+
+        // El borrado queda bloqueado en la fila origen hasta el commit de la subida
+        Thread.sleep(300);
+        assertThat(delete.isDone(), is(false));
+
+        release.countDown();
+        reuse.get(5, TimeUnit.SECONDS);
+        delete.get(5, TimeUnit.SECONDS);
+
+        // La nueva imagen sigue usando los archivos: no se encola su borrado
+        assertThat(captureImageRepository.findById(source.getId()).isPresent(), is(false));
+        assertThat(storageDeletionRepository.findAll().stream().map(StorageDeletion::getFileKey).toList(), empty());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
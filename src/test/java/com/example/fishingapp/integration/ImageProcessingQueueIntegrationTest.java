@@ -0,0 +1,135 @@
+package com.example.fishingapp.integration;
+
+import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.repository.CaptureImageRepository;
+import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.UserRepository;
+import com.example.fishingapp.service.ImageProcessingService;
+import com.example.fishingapp.service.StorageService;
+import com.example.fishingapp.service.impl.ImageProcessingQueueImpl;
+import com.example.fishingapp.service.impl.ImageTaskExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Encolado tras el commit con un gestor de transacciones real (sin @Transactional en el test:
+ * la transacción de la petición se confirma de verdad antes de encolar)
+ */
+@SpringBootTest
+@DisplayName("ImageProcessingQueue - Tests de Integración")
+class ImageProcessingQueueIntegrationTest {
+
+    @TempDir
+    Path spoolDir;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageProcessingService imageProcessingService;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    private ImageTaskExecutor imageTaskExecutor;
+
+    @Autowired
+    private CaptureImageRepository captureImageRepository;
+
+    @Autowired
+    private FishCaptureRepository fishCaptureRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private ImageProcessingQueueImpl queue;
+    private FishCapture capture;
+
+    @BeforeEach
+    void setUp() {
+        queue = new ImageProcessingQueueImpl(imageProcessingService, storageService,
+                captureImageRepository, transactionTemplate, imageTaskExecutor);
+        ReflectionTestUtils.setField(queue, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(queue, "poolSize", 1);
+        ReflectionTestUtils.setField(queue, "maxPoolSize", 1);
+        ReflectionTestUtils.setField(queue, "queueCapacity", 1);
+        ReflectionTestUtils.invokeMethod(queue, "init");
+
+        User user = userRepository.save(User.builder()
+                .username("queueuser")
+                .fullName("Queue User")
+                .email("queue@example.com")
+                .build());
+        capture = fishCaptureRepository.save(FishCapture.builder()
+                .fishType("Trucha")
+                .weight(1.0f)
+                .captureDate(LocalDate.now())
+                .location("Rio Tajo")
+                .user(user)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(queue, "shutdown");
+        captureImageRepository.deleteAll();
+        fishCaptureRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Cola llena tras el commit: la imagen queda FAILED en la BD")
+    void submit_rejectedAfterCommit_persistsFailedStatus() {
+        // Pool parado: cualquier tarea se rechaza
+        ReflectionTestUtils.invokeMethod(queue, "shutdown");
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg", "image/jpeg", "fake image".getBytes());
+
+        Long imageId = transactionTemplate.execute(status -> {
+            CaptureImage image = captureImageRepository.save(CaptureImage.builder()
+                    .fileName("test.jpg")
+                    .mimeType("image/jpeg")
+                    .status(ImageStatus.PENDING)
+                    .fishCapture(capture)
+                    .build());
+            queue.submit(image.getId(), file);
+            return image.getId();
+        });
+
+        CaptureImage stored = captureImageRepository.findById(imageId).orElseThrow();
+        assertThat(stored.getStatus(), is(ImageStatus.FAILED));
+        assertThat(stored.getErrorMessage(), containsString("Cola de procesamiento llena"));
+        assertThat(Files.exists(spoolDir.resolve(imageId + ".upload")), is(false));
+    }
+
+    @Test
+    @DisplayName("Rollback de la petición: no se encola y se borra el spool")
+    void submit_rolledBack_deletesSpoolWithoutEnqueueing() {
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg", "image/jpeg", "fake image".getBytes());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            queue.submit(99L, file);
+            status.setRollbackOnly();
+        });
+
+        assertThat(Files.exists(spoolDir.resolve("99.upload")), is(false));
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.fishingapp.repository;
 
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
 import com.example.fishingapp.model.CaptureImage;
 import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.ImageStatus;
 import com.example.fishingapp.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -267,6 +269,47 @@ class CaptureImageRepositoryTest {
     /**
      * Método auxiliar para crear y guardar una imagen de prueba
      */
+    @Test
+    @DisplayName("El límite por captura ignora FAILED y PENDING atascadas")
+    void testCountTowardsLimit() {
+        createAndSaveImage("ready.jpg", testCapture);
+        createImageWithStatus("processing.jpg", ImageStatus.PROCESSING);
+        createImageWithStatus("pending.jpg", ImageStatus.PENDING);
+        createImageWithStatus("failed.jpg", ImageStatus.FAILED);
+        LocalDateTime now = LocalDateTime.now();
+
+        // PENDING reciente: cuenta
+        assertThat(captureImageRepository.countTowardsLimit(testCapture.getId(), now.minusMinutes(30)), is(3L));
+        // PENDING anterior al umbral: ya no cuenta
+        assertThat(captureImageRepository.countTowardsLimit(testCapture.getId(), now.plusMinutes(1)), is(2L));
+    }
+
+    @Test
+    @DisplayName("Marca como FAILED las imágenes PENDING/PROCESSING anteriores al umbral")
+    void testMarkStaleAsFailed() {
+        CaptureImage ready = createAndSaveImage("ready.jpg", testCapture);
+        CaptureImage pending = createImageWithStatus("pending.jpg", ImageStatus.PENDING);
+        CaptureImage processing = createImageWithStatus("processing.jpg", ImageStatus.PROCESSING);
+        List<ImageStatus> stuck = List.of(ImageStatus.PENDING, ImageStatus.PROCESSING);
+
+        assertThat(captureImageRepository.markStaleAsFailed(stuck, LocalDateTime.now().minusMinutes(30), "perdida"), is(0));
+        assertThat(captureImageRepository.markStaleAsFailed(stuck, LocalDateTime.now().plusMinutes(1), "perdida"), is(2));
+        entityManager.clear();
+
+        assertThat(captureImageRepository.findById(pending.getId()).orElseThrow().getStatus(), is(ImageStatus.FAILED));
+        assertThat(captureImageRepository.findById(processing.getId()).orElseThrow().getErrorMessage(), is("perdida"));
+        assertThat(captureImageRepository.findById(ready.getId()).orElseThrow().getStatus(), is(ImageStatus.READY));
+    }
+
+    private CaptureImage createImageWithStatus(String fileName, ImageStatus status) {
+        return entityManager.persistAndFlush(CaptureImage.builder()
+                .fileName(fileName)
+                .mimeType("image/jpeg")
+                .status(status)
+                .fishCapture(testCapture)
+                .build());
+    }
+
     private CaptureImage createAndSaveImage(String fileName, FishCapture capture) {
         CaptureImage image = CaptureImage.builder()
                 .originalUrl("https://s3.tebi.io/bucket/" + fileName)
@@ -283,4 +326,80 @@ class CaptureImageRepositoryTest {
 
         return entityManager.persistAndFlush(image);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe obtener las miniaturas listas de varias capturas en una consulta")
+    void testFindThumbnailsByCaptureIds() {
+        FishCapture otherCapture = entityManager.persistAndFlush(FishCapture.builder()
+                .captureDate(LocalDate.now())
+                .createdAt(LocalDateTime.now())
+                .fishType("Lucio")
+                .weight(4.0f)
+                .user(entityManager.find(User.class, testUser.getId()))
+                .build());
+        FishCapture capture = entityManager.find(FishCapture.class, testCapture.getId());
+
+        persistImage(capture, "a.jpg", ImageStatus.READY);
+        persistImage(capture, "b.jpg", ImageStatus.READY);
+        persistImage(capture, "pending.jpg", ImageStatus.PENDING);
+        persistImage(otherCapture, "c.jpg", ImageStatus.READY);
+        entityManager.clear();
+
+        List<ImageThumbnailDto> thumbnails = captureImageRepository.findThumbnailsByCaptureIds(
+                List.of(capture.getId(), otherCapture.getId()), ImageStatus.READY);
+
+        assertThat(thumbnails, hasSize(3));
+        assertThat(thumbnails.stream().map(ImageThumbnailDto::thumbnailUrl).toList(),
+                contains("https://cdn/thumb_a.jpg", "https://cdn/thumb_b.jpg", "https://cdn/thumb_c.jpg"));
+        assertThat(thumbnails.get(2).captureId(), is(otherCapture.getId()));
+    }
+
+    @Test
+    @DisplayName("Debe encontrar por hash las imágenes listas del usuario y las keys compartidas")
+    void testFindByContentHashes_AndS3KeysInUse() {
+        FishCapture capture = entityManager.find(FishCapture.class, testCapture.getId());
+        CaptureImage first = persistStoredImage(capture, "captures/a.jpg", "hash-a", ImageStatus.READY);
+        CaptureImage copy = persistStoredImage(capture, "captures/a.jpg", "hash-a", ImageStatus.READY);
+        persistStoredImage(capture, "captures/b.jpg", "hash-b", ImageStatus.PENDING);
+        entityManager.clear();
+
+        List<CaptureImage> found = captureImageRepository.findByContentHashes(
+                List.of("hash-a", "hash-b"), testUser.getId(), ImageStatus.READY);
+        List<CaptureImage> otherUser = captureImageRepository.findByContentHashes(
+                List.of("hash-a"), testUser.getId() + 1, ImageStatus.READY);
+
+        assertThat(found.stream().map(CaptureImage::getId).toList(), contains(first.getId(), copy.getId()));
+        assertThat(otherUser, empty());
+        assertThat(captureImageRepository.findS3KeysInUse(List.of("captures/a.jpg"), List.of(first.getId())),
+                contains("captures/a.jpg"));
+        assertThat(captureImageRepository.findS3KeysInUse(List.of("captures/a.jpg"),
+                List.of(first.getId(), copy.getId())), empty());
+    }
+
+    private CaptureImage persistStoredImage(FishCapture capture, String s3Key, String contentHash, ImageStatus status) {
+        CaptureImage image = entityManager.persistAndFlush(CaptureImage.builder()
+                .originalUrl("https://cdn/" + s3Key)
+                .thumbnailUrl("https://cdn/thumb/" + s3Key)
+                .s3Key(s3Key)
+                .contentHash(contentHash)
+                .fileName("a.jpg")
+                .mimeType("image/jpeg")
+                .status(status)
+                .fishCapture(capture)
+                .build());
+        return image;
+    }
+
+    private void persistImage(FishCapture capture, String fileName, ImageStatus status) {
+        entityManager.persist(CaptureImage.builder()
+                .originalUrl("https://cdn/" + fileName)
+                .thumbnailUrl("https://cdn/thumb_" + fileName)
+                .fileName(fileName)
+                .mimeType("image/jpeg")
+                .status(status)
+                .fishCapture(capture)
+                .uploadedAt(LocalDateTime.now())
+                .build());
+        entityManager.flush();
+    }
+}
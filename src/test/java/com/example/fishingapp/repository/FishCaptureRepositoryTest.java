@@ -1,5 +1,6 @@
 package com.example.fishingapp.repository;
 
+import com.example.fishingapp.dto.FishCaptureDto;
 import com.example.fishingapp.model.FishCapture;
 import com.example.fishingapp.model.User;
 import org.junit.jupiter.api.DisplayName;
@@ -7,6 +8,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -25,6 +29,29 @@ class FishCaptureRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Test
+    @DisplayName("save: created_at lo fija el servidor aunque llegue una fecha futura")
+    void testCreatedAtIsSetByServer() {
+        User user = userRepository.save(User.builder()
+                .username("futuro")
+                .fullName("Usuario Futuro")
+                .email("futuro@example.com")
+                .build());
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+
+        FishCapture saved = fishCaptureRepository.saveAndFlush(FishCapture.builder()
+                .captureDate(LocalDate.of(2025, 9, 25))
+                .createdAt(LocalDateTime.now().plusYears(10))
+                .fishType("Trucha")
+                .location("Río Ebro")
+                .weight(2.3f)
+                .user(user)
+                .build());
+
+        assertThat(saved.getCreatedAt(), greaterThan(before));
+        assertThat(saved.getCreatedAt(), lessThan(LocalDateTime.now().plusSeconds(1)));
+    }
+
     @Test
     @DisplayName("findByUser: devuelve capturas de un usuario existente")
     void testFindByUserExists() {
@@ -128,4 +155,44 @@ class FishCaptureRepositoryTest {
         fishCaptureRepository.delete(capture);
         assertThat(fishCaptureRepository.count(), equalTo(countBefore - 1L));
     }
+
+    @Test
+    @DisplayName("findDtoPageByUsername: pagina y ordena por peso proyectando al DTO")
+    void testFindDtoPageByUsernameSortedByWeight() {
+        User user = userRepository.save(User.builder()
+                .username("pablo_g")
+                .fullName("Pablo García")
+                .email("pablo.garcia@example.com")
+                .build());
+        User other = userRepository.save(User.builder()
+                .username("otro")
+                .fullName("Otro Usuario")
+                .email("otro@example.com")
+                .build());
+
+        float[] weights = {1.2f, 4.8f, 3.1f};
+        for (float weight : weights) {
+            fishCaptureRepository.save(FishCapture.builder()
+                    .captureDate(LocalDate.of(2025, 9, 25))
+                    .fishType("Trucha")
+                    .location("Río Ebro")
+                    .weight(weight)
+                    .user(user)
+                    .build());
+        }
+        fishCaptureRepository.save(FishCapture.builder()
+                .captureDate(LocalDate.of(2025, 9, 25))
+                .fishType("Siluro")
+                .weight(30f)
+                .user(other)
+                .build());
+
+        Page<FishCaptureDto> page = fishCaptureRepository.findDtoPageByUsername("pablo_g",
+                PageRequest.of(0, 2, Sort.by(Sort.Order.desc("weight"), Sort.Order.desc("id"))));
+
+        assertThat(page.getTotalElements(), equalTo(3L));
+        assertThat(page.getContent().stream().map(FishCaptureDto::weight).toList(), contains(4.8f, 3.1f));
+        assertThat(page.getContent().get(0).userId(), equalTo(user.getId()));
+        assertThat(page.hasNext(), is(true));
+    }
 }
@@ -0,0 +1,130 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Búsqueda en memoria usada con H2 (equivalente a la de PostgreSQL)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("InMemoryFishCaptureSearchRepository - Tests de Integración")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class InMemoryFishCaptureSearchRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private FishCaptureRepository fishCaptureRepository;
+
+    private InMemoryFishCaptureSearchRepository searchRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        searchRepository = new InMemoryFishCaptureSearchRepository(fishCaptureRepository);
+        user = entityManager.persistAndFlush(User.builder()
+                .username("searchuser")
+                .fullName("Search User")
+                .email("search@example.com")
+                .build());
+    }
+
+    @Test
+    @DisplayName("Las capturas con todas las palabras van primero")
+    void search_fullText_ranksCapturesWithEveryTermFirst() {
+        FishCapture both = persist("Trucha", "Rio Tajo");
+        persist("Trucha", "Embalse de Alcántara");
+        persist("Barbo", "Rio Tajo");
+
+        Page<FishCaptureDto> result = searchRepository.search("trucha tajo", PageRequest.of(0, 10));
+
+        // La otra trucha entra por similitud con la especie; el barbo no coincide en nada
+        assertThat(result.getTotalElements(), is(2L));
+        assertThat(result.getContent().get(0).id(), is(both.getId()));
+        assertThat(result.getContent().get(1).location(), is("Embalse de Alcántara"));
+    }
+
+    @Test
+    @DisplayName("Tolera errores de escritura en la especie y ordena por relevancia")
+    void search_typoInSpecies_matchesBySimilarity() {
+        FishCapture exact = persist("Tenca", "Charca");
+        FishCapture longer = persist("Tencas del norte", "Charca");
+        persist("Carpa", "Charca");
+
+        Page<FishCaptureDto> typo = searchRepository.search("tenka", PageRequest.of(0, 10));
+        Page<FishCaptureDto> ranked = searchRepository.search("tenca", PageRequest.of(0, 10));
+
+        assertThat(typo.getContent().stream().map(FishCaptureDto::id).toList(), contains(exact.getId()));
+        assertThat(ranked.getContent().stream().map(FishCaptureDto::id).toList(),
+                contains(exact.getId(), longer.getId()));
+    }
+
+    @Test
+    @DisplayName("Ignora mayúsculas y tildes, y pagina los resultados")
+    void search_ignoresAccentsAndPaginates() {
+        for (int i = 0; i < 3; i++) {
+            persist("Lucio", "Embalse de Alcántara");
+        }
+
+        Page<FishCaptureDto> first = searchRepository.search("ALCANTARA", PageRequest.of(0, 2));
+        Page<FishCaptureDto> second = searchRepository.search("ALCANTARA", PageRequest.of(1, 2));
+
+        assertThat(first.getContent(), hasSize(2));
+        assertThat(first.getTotalElements(), is(3L));
+        assertThat(second.getContent(), hasSize(1));
+        assertThat(second.hasNext(), is(false));
+    }
+
+    @Test
+    @DisplayName("Sin coincidencias devuelve una página vacía")
+    void search_noMatches_returnsEmptyPage() {
+        persist("Trucha", "Rio Tajo");
+
+        Page<FishCaptureDto> result = searchRepository.search("salmón", PageRequest.of(0, 10));
+
+        assertThat(result.getContent(), empty());
+        assertThat(result.getTotalElements(), is(0L));
+    }
+
+    @Test
+    @DisplayName("Similitud de trigramas como pg_trgm")
+    void similarity_matchesPgTrgmDefinition() {
+        // "trucha" y "truha" comparten 4 de 9 trigramas distintos
+        double similarity = InMemoryFishCaptureSearchRepository.similarity(
+                InMemoryFishCaptureSearchRepository.trigrams("Trucha"),
+                InMemoryFishCaptureSearchRepository.trigrams("truha"));
+
+        assertThat(similarity, closeTo(4.0 / 9, 1e-9));
+    }
+
+    private FishCapture persist(String fishType, String location) {
+        return entityManager.persistAndFlush(FishCapture.builder()
+                .captureDate(LocalDate.now())
+                .createdAt(LocalDateTime.now())
+                .fishType(fishType)
+                .location(location)
+                .weight(1.0f)
+                .user(user)
+                .build());
+    }
+}
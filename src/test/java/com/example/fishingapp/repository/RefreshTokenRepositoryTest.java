@@ -0,0 +1,93 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.security.AuthUser;
+import com.example.fishingapp.security.RefreshToken;
+import com.example.fishingapp.security.Role;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Consultas de refresh tokens usadas por el login y el refresh
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("RefreshTokenRepository - Tests de Integración")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RefreshTokenRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private AuthUser authUser;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persistAndFlush(User.builder()
+                .username("refreshuser")
+                .fullName("Refresh User")
+                .email("refresh@example.com")
+                .build());
+        authUser = entityManager.persistAndFlush(AuthUser.builder()
+                .username("refreshuser")
+                .email("refresh@example.com")
+                .password("{bcrypt}hash")
+                .role(Role.USER)
+                .enabled(true)
+                .accountNonLocked(true)
+                .createdAt(LocalDateTime.now())
+                .user(user)
+                .build());
+    }
+
+    @Test
+    @DisplayName("findByTokenWithUser carga el AuthUser y su User en la misma consulta")
+    void findByTokenWithUser_fetchesAuthUserAndUser() {
+        RefreshToken token = persistToken();
+        entityManager.clear();
+
+        RefreshToken found = refreshTokenRepository.findByTokenWithUser(token.getToken()).orElseThrow();
+
+        assertThat(Hibernate.isInitialized(found.getAuthUser()), is(true));
+        assertThat(Hibernate.isInitialized(found.getAuthUser().getUser()), is(true));
+        assertThat(found.getAuthUser().getUser().getUsername(), is("refreshuser"));
+    }
+
+    @Test
+    @DisplayName("findByTokenWithUser devuelve vacío para un token desconocido")
+    void findByTokenWithUser_unknownToken_returnsEmpty() {
+        assertThat(refreshTokenRepository.findByTokenWithUser("unknown").isPresent(), is(false));
+    }
+
+    @Test
+    @DisplayName("deleteAllByAuthUserId borra todos los tokens del usuario en una sentencia")
+    void deleteAllByAuthUserId_deletesEveryTokenOfTheUser() {
+        persistToken();
+        persistToken();
+
+        assertThat(refreshTokenRepository.deleteAllByAuthUserId(authUser.getId()), is(2));
+        assertThat(refreshTokenRepository.count(), is(0L));
+    }
+
+    private RefreshToken persistToken() {
+        return entityManager.persistAndFlush(RefreshToken.builder()
+                .authUser(authUser)
+                .expiryDate(LocalDateTime.now().plusDays(7))
+                .build());
+    }
+}
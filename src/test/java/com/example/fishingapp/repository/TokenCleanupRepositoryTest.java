@@ -0,0 +1,132 @@
+package com.example.fishingapp.repository;
+
+import com.example.fishingapp.model.SchedulerLock;
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.security.AuthUser;
+import com.example.fishingapp.security.RefreshToken;
+import com.example.fishingapp.security.Role;
+import com.example.fishingapp.security.VerificationToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Borrado por lotes de tokens expirados y cerrojo de tareas programadas (TokenCleanupJob)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@DisplayName("Purga de tokens y scheduler_locks - Tests de Integración")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TokenCleanupRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private VerificationTokenRepository verificationTokenRepository;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    private AuthUser authUser;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persistAndFlush(User.builder()
+                .username("tokenuser")
+                .fullName("Token User")
+                .email("token@example.com")
+                .build());
+        authUser = entityManager.persistAndFlush(AuthUser.builder()
+                .username("tokenuser")
+                .email("token@example.com")
+                .password("{bcrypt}hash")
+                .role(Role.USER)
+                .enabled(true)
+                .accountNonLocked(true)
+                .createdAt(LocalDateTime.now())
+                .user(user)
+                .build());
+    }
+
+    @Test
+    @DisplayName("deleteExpiredBatch borra como mucho batchSize refresh tokens expirados o revocados")
+    void refreshDeleteExpiredBatch_respectsBatchSizeAndKeepsValidTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            persistRefreshToken(now.minusDays(1), false);
+        }
+        persistRefreshToken(now.plusDays(1), true);
+        RefreshToken valid = persistRefreshToken(now.plusDays(1), false);
+
+        assertThat(refreshTokenRepository.deleteExpiredBatch(now, 2), is(2));
+        assertThat(refreshTokenRepository.deleteExpiredBatch(now, 2), is(2));
+        assertThat(refreshTokenRepository.deleteExpiredBatch(now, 2), is(0));
+
+        assertThat(refreshTokenRepository.count(), is(1L));
+        assertThat(refreshTokenRepository.existsById(valid.getId()), is(true));
+    }
+
+    @Test
+    @DisplayName("deleteExpiredBatch borra solo tokens de verificación expirados")
+    void verificationDeleteExpiredBatch_deletesOnlyExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        persistVerificationToken(now.minusHours(1));
+        VerificationToken valid = persistVerificationToken(now.plusHours(1));
+
+        assertThat(verificationTokenRepository.deleteExpiredBatch(now, 10), is(1));
+
+        assertThat(verificationTokenRepository.count(), is(1L));
+        assertThat(verificationTokenRepository.existsById(valid.getId()), is(true));
+    }
+
+    @Test
+    @DisplayName("tryAcquire solo concede el cerrojo si está libre o caducado")
+    void tryAcquire_onlyWhenLockIsFreeOrExpired() {
+        // Precisión de la columna: sin truncar, la BD puede redondear por encima de "now"
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        entityManager.persistAndFlush(SchedulerLock.builder()
+                .name("job")
+                .lockedUntil(now.minusSeconds(1))
+                .lockedBy("node-a")
+                .build());
+
+        assertThat(schedulerLockRepository.tryAcquire("job", "node-b", now, now.plusMinutes(10)), is(1));
+        // Mientras node-b lo tiene, node-a no puede tomarlo ni liberarlo
+        assertThat(schedulerLockRepository.tryAcquire("job", "node-a", now, now.plusMinutes(10)), is(0));
+        assertThat(schedulerLockRepository.release("job", "node-a", now), is(0));
+
+        assertThat(schedulerLockRepository.release("job", "node-b", now), is(1));
+        assertThat(schedulerLockRepository.tryAcquire("job", "node-a", now, now.plusMinutes(10)), is(1));
+    }
+
+    private RefreshToken persistRefreshToken(LocalDateTime expiryDate, boolean revoked) {
+        return entityManager.persistAndFlush(RefreshToken.builder()
+                .authUser(authUser)
+                .expiryDate(expiryDate)
+                .revoked(revoked)
+                .build());
+    }
+
+    private VerificationToken persistVerificationToken(LocalDateTime expiryDate) {
+        return entityManager.persistAndFlush(VerificationToken.builder()
+                .authUser(authUser)
+                .tokenType(VerificationToken.TokenType.EMAIL_VERIFICATION)
+                .expiryDate(expiryDate)
+                .build());
+    }
+}
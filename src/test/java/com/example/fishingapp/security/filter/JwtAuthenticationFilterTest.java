@@ -1,7 +1,11 @@
 package com.example.fishingapp.security.filter;
 
+import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.service.CustomUserDetailsService;
+import com.example.fishingapp.service.impl.AuthUserStateCache;
 import com.example.fishingapp.service.impl.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,9 +17,11 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Date;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +34,9 @@ public class JwtAuthenticationFilterTest {
     @Mock
     private CustomUserDetailsService userDetailsService;
 
+    @Mock
+    private AuthUserStateCache authUserStateCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -116,5 +125,66 @@ public class JwtAuthenticationFilterTest {
         verify(filterChain).doFilter(request, response);
         assertNull(SecurityContextHolder.getContext().getAuthentication());
     }
-}
 
+    @Test
+    void doFilterInternal_statelessMode_buildsPrincipalFromClaims() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        String token = "stateless.jwt.token";
+        Claims claims = Jwts.claims()
+                .subject("testuser")
+                .issuedAt(new Date())
+                .add("userId", 7)
+                .add("role", "USER")
+                .build();
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractClaim(eq(token), any())).thenReturn(claims);
+        when(authUserStateCache.isActive(eq("testuser"), any())).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        AuthUser principal = (AuthUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals("testuser", principal.getUsername());
+        assertEquals(7L, principal.getUser().getId());
+        assertEquals("USER", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void doFilterInternal_statelessMode_inactiveAccount_doesNotSetAuthentication() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        String token = "revoked.jwt.token";
+        Claims claims = Jwts.claims()
+                .subject("testuser")
+                .issuedAt(new Date())
+                .add("userId", 7)
+                .add("role", "USER")
+                .build();
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractClaim(eq(token), any())).thenReturn(claims);
+        when(authUserStateCache.isActive(eq("testuser"), any())).thenReturn(false);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(userDetailsService);
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilterInternal_statelessMode_missingClaims_fallsBackToUserLookup() throws ServletException, IOException {
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessAuth", true);
+        String token = "legacy.jwt.token";
+        Claims claims = Jwts.claims().subject("test@example.com").build();
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.extractClaim(eq(token), any())).thenReturn(claims);
+        when(jwtService.extractUsername(token)).thenReturn("test@example.com");
+        when(userDetailsService.loadUserByUsernameOrEmail("test@example.com")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(token, userDetails)).thenReturn(true);
+
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        verify(userDetailsService).loadUserByUsernameOrEmail("test@example.com");
+        assertEquals(userDetails, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.fishingapp.security.password;
+
+import com.example.fishingapp.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final PasswordEncoder delegate = mock(PasswordEncoder.class);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void encodeAndMatches_delegateOnHashingPool() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000);
+        when(delegate.encode("secret")).thenAnswer(inv -> Thread.currentThread().getName());
+        when(delegate.matches("secret", "hash")).thenReturn(true);
+        when(delegate.upgradeEncoding("hash")).thenReturn(true);
+
+        assertTrue(encoder.encode("secret").startsWith("pwd-hash-"));
+        assertTrue(encoder.matches("secret", "hash"));
+        assertTrue(encoder.upgradeEncoding("hash"));
+    }
+
+    @Test
+    void encode_whenPoolAndQueueAreFull_rejectsWithServiceBusy() throws Exception {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 5000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode(any())).thenAnswer(inv -> {
+            started.countDown();
+            release.await();
+            return "hash";
+        });
+
+        // Uno ocupa el único hilo y otro la única plaza de la cola
+        Future<String> running = callers.submit(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> encoder.encode("b"));
+        verifyQueued(queued);
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> encoder.encode("c"));
+        assertEquals(5, ex.getRetryAfterSeconds());
+
+        release.countDown();
+        assertEquals("hash", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_whenHashTakesLongerThanMaxWait_rejectsWithServiceBusy() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 50);
+        when(delegate.matches(any(), any())).thenAnswer(inv -> {
+            Thread.sleep(2000);
+            return true;
+        });
+
+        assertThrows(ServiceBusyException.class, () -> encoder.matches("secret", "hash"));
+    }
+
+    @Test
+    void encode_propagatesDelegateExceptions() {
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000);
+        when(delegate.encode(any())).thenThrow(new IllegalArgumentException("rawPassword cannot be null"));
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode("secret"));
+    }
+
+    @Test
+    void delegatingEncoder_upgradesLegacyAndWeakerHashes() {
+        PasswordEncoder pbkdf2 = PasswordHashingConfig.delegatingEncoder(
+                PasswordHashingConfig.PBKDF2, 4, 1000, 19456, 2);
+        String legacyBcrypt = new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder(4).encode("secret");
+        String pbkdf2Hash = pbkdf2.encode("secret");
+
+        assertTrue(pbkdf2Hash.startsWith("{pbkdf2}"));
+        assertTrue(pbkdf2.matches("secret", pbkdf2Hash));
+        assertFalse(pbkdf2.upgradeEncoding(pbkdf2Hash));
+        // Los hashes sin prefijo siguen siendo válidos, pero se rehacen con el algoritmo actual
+        assertTrue(pbkdf2.matches("secret", legacyBcrypt));
+        assertTrue(pbkdf2.upgradeEncoding(legacyBcrypt));
+        // Subir el coste de BCrypt también provoca el rehash
+        PasswordEncoder strongerBcrypt = PasswordHashingConfig.delegatingEncoder(
+                PasswordHashingConfig.BCRYPT, 5, 1000, 19456, 2);
+        assertTrue(strongerBcrypt.upgradeEncoding("{bcrypt}" + legacyBcrypt));
+    }
+
+    @Test
+    void delegatingEncoder_withUnavailableAlgorithm_failsFast() {
+        assertThrows(IllegalStateException.class, () ->
+                PasswordHashingConfig.delegatingEncoder("md5", 4, 1000, 19456, 2));
+    }
+
+    private void verifyQueued(Future<String> queued) throws InterruptedException {
+        // La segunda llamada queda esperando en la cola, no termina ni falla
+        Thread.sleep(100);
+        assertFalse(queued.isDone());
+    }
+}
@@ -8,7 +8,9 @@ import com.example.fishingapp.dto.auth.RegisterRequest;
 import com.example.fishingapp.exception.EmailAlreadyExistsException;
 import com.example.fishingapp.exception.ResourceNotFoundException;
 import com.example.fishingapp.exception.UsernameAlreadyExistsException;
+import com.example.fishingapp.model.EmailOutbox;
 import com.example.fishingapp.model.User;
+import com.example.fishingapp.repository.EmailOutboxRepository;
 
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.security.RefreshToken;
@@ -18,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +44,9 @@ class AuthServiceImplTest extends BaseIntegrationTest {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
     @Test
     void register_withValidData_createsUserAndReturnsAuthResponse() {
         RegisterRequest request = RegisterRequest.builder()
@@ -64,6 +70,11 @@ class AuthServiceImplTest extends BaseIntegrationTest {
         // Verificar que se guardó en BD
         assertTrue(userRepository.existsByUsername("newuser"));
         assertTrue(authUserRepository.existsByEmail("newuser@example.com"));
+
+        // Email de bienvenida encolado en la misma transacción
+        assertTrue(emailOutboxRepository.findAll().stream()
+                .map(EmailOutbox::getRecipient)
+                .anyMatch("newuser@example.com"::equals));
     }
 
     @Test
@@ -310,6 +321,24 @@ class AuthServiceImplTest extends BaseIntegrationTest {
         assertTrue(refreshTokenRepository.findByToken(secondLogin.getRefreshToken()).isPresent());
     }
 
+    @Test
+    void login_withLegacyBcryptHash_upgradesStoredHash() {
+        // Hash anterior al DelegatingPasswordEncoder: BCrypt sin prefijo {id}
+        AuthUser authUser = createTestUser("user@example.com", "testuser", "password123");
+        authUser.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+        authUserRepository.saveAndFlush(authUser);
+
+        authService.login(LoginRequest.builder()
+                .identifier("user@example.com")
+                .password("password123")
+                .build());
+
+        String storedHash = authUserRepository.findByEmail("user@example.com").orElseThrow().getPassword();
+        assertTrue(storedHash.startsWith("{bcrypt}"));
+        assertFalse(passwordEncoder.upgradeEncoding(storedHash));
+        assertTrue(passwordEncoder.matches("password123", storedHash));
+    }
+
     // Método auxiliar para crear usuarios de prueba
     private void createTestUser(String email, String username) {
         createTestUser(email, username, "password123");
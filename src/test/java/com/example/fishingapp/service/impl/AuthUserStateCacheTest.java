@@ -0,0 +1,66 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.repository.AuthUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthUserStateCacheTest {
+
+    private AuthUserRepository authUserRepository;
+    private AuthUserStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        authUserRepository = mock(AuthUserRepository.class);
+        cache = new AuthUserStateCache(authUserRepository, 30, 100, 1800000);
+    }
+
+    @Test
+    void isActive_withinTtl_queriesDatabaseOnce() {
+        when(authUserRepository.existsByUsernameAndEnabledTrueAndAccountNonLockedTrue("testuser")).thenReturn(true);
+
+        assertTrue(cache.isActive("testuser", new Date()));
+        assertTrue(cache.isActive("testuser", new Date()));
+
+        verify(authUserRepository, times(1)).existsByUsernameAndEnabledTrueAndAccountNonLockedTrue("testuser");
+    }
+
+    @Test
+    void isActive_disabledAccount_returnsFalse() {
+        when(authUserRepository.existsByUsernameAndEnabledTrueAndAccountNonLockedTrue("testuser")).thenReturn(false);
+
+        assertFalse(cache.isActive("testuser", new Date()));
+    }
+
+    @Test
+    void revokeTokens_rejectsOlderTokensAndRechecksAccount() {
+        when(authUserRepository.existsByUsernameAndEnabledTrueAndAccountNonLockedTrue("testuser")).thenReturn(true);
+        assertTrue(cache.isActive("testuser", new Date()));
+
+        cache.revokeTokens("testuser");
+
+        Date issuedBefore = new Date(System.currentTimeMillis() - 60_000);
+        Date issuedAfter = new Date(System.currentTimeMillis() + 1_000);
+        assertFalse(cache.isActive("testuser", issuedBefore));
+        assertTrue(cache.isActive("testuser", issuedAfter));
+        verify(authUserRepository, times(2)).existsByUsernameAndEnabledTrueAndAccountNonLockedTrue("testuser");
+    }
+
+    @Test
+    void revokeTokens_rejectsTokenIssuedInTheSameSecond() {
+        when(authUserRepository.existsByUsernameAndEnabledTrueAndAccountNonLockedTrue("testuser")).thenReturn(true);
+        // "iat" tal como lo firma el JWT (segundos), emitido justo antes de revocar
+        Date issuedAt = Date.from(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+
+        cache.revokeTokens("testuser");
+
+        assertFalse(cache.isActive("testuser", issuedAt));
+    }
+}
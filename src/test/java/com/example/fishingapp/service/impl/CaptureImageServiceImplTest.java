@@ -1,7 +1,9 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.dto.image.DecodedImage;
 import com.example.fishingapp.dto.image.ImageDeleteResponseDto;
 import com.example.fishingapp.dto.image.ImageResponseDto;
+import com.example.fishingapp.dto.image.ImageStatusResponseDto;
 import com.example.fishingapp.dto.image.ImageUploadResponseDto;
 import com.example.fishingapp.exception.InvalidImageException;
 import com.example.fishingapp.exception.ResourceNotFoundException;
@@ -9,9 +11,13 @@ import com.example.fishingapp.exception.UnauthorizedException;
 import com.example.fishingapp.mapper.ImageMapper;
 import com.example.fishingapp.model.CaptureImage;
 import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.model.StorageDeletion;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.CaptureImageRepository;
 import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.StorageDeletionRepository;
+import com.example.fishingapp.service.ImageProcessingQueue;
 import com.example.fishingapp.service.ImageProcessingService;
 import com.example.fishingapp.service.StorageService;
 
@@ -19,18 +25,27 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -72,7 +87,21 @@ class CaptureImageServiceImplTest {
     private ImageMapper imageMapper;
 
     @Mock
-    private CloudinaryStorageServiceImpl s3StorageService;
+    private ImageProcessingQueue imageProcessingQueue;
+
+    @Mock
+    private StorageDeletionRepository storageDeletionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    // Modo secuencial: las tareas se ejecutan en el hilo del test
+    @Spy
+    private ImageTaskExecutor imageTaskExecutor = new ImageTaskExecutor(false, 1, 1);
+
+    // Caché real en memoria (sin Spring)
+    @Spy
+    private DtoCache dtoCache = new DtoCache(new ConcurrentMapCacheManager());
 
     @InjectMocks
     private CaptureImageServiceImpl captureImageService;
@@ -82,7 +111,12 @@ class CaptureImageServiceImplTest {
     private MockMultipartFile validImageFile;
 
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
+        // Ejecuta los callbacks en el mismo hilo, sin transacción real
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
         // Configurar límite de imágenes
         ReflectionTestUtils.setField(captureImageService, "maxImagesPerCapture", 5);
 
@@ -139,7 +173,7 @@ class CaptureImageServiceImplTest {
 
         // Verificar interacciones clave
         verify(fishCaptureRepository).findById(1L);
-        verify(captureImageRepository).countByFishCaptureId(1L);
+        verify(captureImageRepository).countTowardsLimit(eq(1L), any(LocalDateTime.class));
         verify(imageProcessingService).validateImage(validImageFile);
         verify(captureImageRepository).save(any(CaptureImage.class));
 
@@ -189,8 +223,8 @@ class CaptureImageServiceImplTest {
         // Given: La captura existe
         when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
 
-        // Simular límite de imágenes alcanzado: countByFishCaptureId devuelve 5
-        when(captureImageRepository.countByFishCaptureId(1L)).thenReturn(5L);
+        // Simular límite de imágenes alcanzado: countTowardsLimit devuelve 5
+        when(captureImageRepository.countTowardsLimit(eq(1L), any(LocalDateTime.class))).thenReturn(5L);
 
         // When & Then: la excepción se lanza antes de procesar la imagen
         InvalidImageException exception = assertThrows(
@@ -207,10 +241,77 @@ class CaptureImageServiceImplTest {
 
         // Evitar que Mockito se queje por stubbings no usados
         verify(fishCaptureRepository).findById(1L);
-        verify(captureImageRepository).countByFishCaptureId(1L);
+        verify(captureImageRepository).countTowardsLimit(eq(1L), any(LocalDateTime.class));
     }
 
 
+    @Test
+    @DisplayName("Debe reutilizar los archivos de una imagen idéntica sin procesar ni subir")
+    void testUploadImage_ReusesFilesOfIdenticalImage() {
+        // Given
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
+        when(captureImageRepository.countTowardsLimit(eq(1L), any(LocalDateTime.class))).thenReturn(0L);
+        when(imageProcessingService.computeContentHash(validImageFile)).thenReturn("hash-1");
+        CaptureImage existing = CaptureImage.builder()
+                .id(7L)
+                .originalUrl("https://cdn/original.jpg")
+                .thumbnailUrl("https://cdn/thumb.jpg")
+                .s3Key("captures/original.jpg")
+                .contentHash("hash-1")
+                .mimeType("image/jpeg")
+                .width(1920)
+                .height(1080)
+                .build();
+        when(captureImageRepository.findByContentHashesForUpdate(List.of("hash-1"), 1L, ImageStatus.READY))
+                .thenReturn(List.of(existing));
+        when(captureImageRepository.save(any(CaptureImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        captureImageService.uploadImage(1L, 1L, validImageFile);
+
+        // Then
+        ArgumentCaptor<CaptureImage> imageCaptor = ArgumentCaptor.forClass(CaptureImage.class);
+        verify(captureImageRepository).save(imageCaptor.capture());
+        CaptureImage saved = imageCaptor.getValue();
+        assertThat(saved.getS3Key(), is("captures/original.jpg"));
+        assertThat(saved.getThumbnailUrl(), is("https://cdn/thumb.jpg"));
+        assertThat(saved.getFishCapture(), is(testCapture));
+        assertThat(saved.getFileName(), is("test.jpg"));
+        verify(imageProcessingService, never()).decodeImage(any(MultipartFile.class));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    @DisplayName("Debe procesar la imagen si el origen duplicado se borra antes de reutilizarlo")
+    void testUploadMultipleImages_ProcessesFile_WhenDuplicateDeletedMeanwhile() throws IOException {
+        // Given: la consulta previa ve el duplicado, pero al bloquearlo ya no existe
+        setupSuccessfulImageUploadMocks();
+        when(captureImageRepository.countTowardsLimit(eq(1L), any(LocalDateTime.class))).thenReturn(0L);
+        when(imageProcessingService.computeContentHash(validImageFile)).thenReturn("hash-1");
+        CaptureImage existing = CaptureImage.builder()
+                .id(7L)
+                .s3Key("captures/original.jpg")
+                .thumbnailUrl("https://cdn/thumb.jpg")
+                .contentHash("hash-1")
+                .build();
+        when(captureImageRepository.findByContentHashes(List.of("hash-1"), 1L, ImageStatus.READY))
+                .thenReturn(List.of(existing));
+        when(captureImageRepository.findByContentHashesForUpdate(List.of("hash-1"), 1L, ImageStatus.READY))
+                .thenReturn(List.of());
+        when(captureImageRepository.save(any(CaptureImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        ImageUploadResponseDto result = captureImageService.uploadMultipleImages(
+                1L, 1L, new MultipartFile[]{validImageFile});
+
+        // Then
+        assertThat(result.message(), containsString("1 imagen(es) subida(s) correctamente"));
+        ArgumentCaptor<CaptureImage> imageCaptor = ArgumentCaptor.forClass(CaptureImage.class);
+        verify(captureImageRepository).save(imageCaptor.capture());
+        assertThat(imageCaptor.getValue().getS3Key(), is("captures/test.jpg"));
+        verify(storageService, times(2)).uploadFile(any(), any(), anyLong(), any());
+    }
+
     // ==================== TESTS DE SUBIDA MÚLTIPLE ====================
 
     @Test
@@ -243,6 +344,121 @@ class CaptureImageServiceImplTest {
         verify(captureImageRepository, times(2)).save(any(CaptureImage.class));
     }
 
+    @Test
+    @DisplayName("Debe procesar varias imágenes en paralelo manteniendo orden y errores por archivo")
+    void testUploadMultipleImages_Parallel_KeepsPerFileErrors() throws IOException {
+        // Given
+        ImageTaskExecutor parallelExecutor = new ImageTaskExecutor(true, 3, 4);
+        ReflectionTestUtils.setField(captureImageService, "imageTaskExecutor", parallelExecutor);
+
+        MockMultipartFile file1 = new MockMultipartFile("file1", "one.jpg", "image/jpeg", "content".getBytes());
+        MockMultipartFile file2 = new MockMultipartFile("file2", "invalid.jpg", "image/jpeg", "content".getBytes());
+        MockMultipartFile file3 = new MockMultipartFile("file3", "three.jpg", "image/jpeg", "content".getBytes());
+
+        setupSuccessfulImageUploadMocks();
+        doAnswer(invocation -> {
+            MultipartFile file = invocation.getArgument(0);
+            if (file.getOriginalFilename().equals("invalid.jpg")) {
+                throw new InvalidImageException("Imagen inválida");
+            }
+            return null;
+        }).when(imageProcessingService).validateImage(any());
+        when(captureImageRepository.save(any(CaptureImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(imageMapper.toDto(any(CaptureImage.class))).thenAnswer(invocation -> {
+            CaptureImage image = invocation.getArgument(0);
+            return new ImageResponseDto(1L, "url", "thumb", image.getFileName(), 1L, "image/jpeg", 1, 1, null);
+        });
+
+        try {
+            // When
+            ImageUploadResponseDto result = captureImageService.uploadMultipleImages(
+                    1L, 1L, new MultipartFile[]{file1, file2, file3});
+
+            // Then
+            assertThat(result.totalImages(), is(2));
+            assertThat(result.uploadedImages().get(0).fileName(), is("one.jpg"));
+            assertThat(result.uploadedImages().get(1).fileName(), is("three.jpg"));
+            assertThat(result.message(), containsString("1 error(es)"));
+            verify(storageService, times(4)).uploadFile(any(), any(), anyLong(), any());
+        } finally {
+            parallelExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe guardar en keys distintas dos archivos con el mismo nombre subidos en paralelo")
+    void testUploadMultipleImages_Parallel_SameFileName_DoesNotOverwrite(@TempDir Path storageRoot) throws IOException {
+        // Given: almacenamiento local real y procesamiento en paralelo
+        ImageTaskExecutor parallelExecutor = new ImageTaskExecutor(true, 3, 4);
+        LocalStorageServiceImpl localStorage = new LocalStorageServiceImpl(
+                storageRoot.toString(), "http://localhost:8080/files/", 2);
+        ReflectionTestUtils.setField(captureImageService, "imageTaskExecutor", parallelExecutor);
+        ReflectionTestUtils.setField(captureImageService, "storageService", localStorage);
+
+        setupSuccessfulImageUploadMocks();
+        when(imageProcessingService.optimizeImage(any(BufferedImage.class), anyInt()))
+                .thenAnswer(invocation -> new ByteArrayInputStream("optimized".getBytes()));
+        when(imageProcessingService.createThumbnail(any(BufferedImage.class)))
+                .thenAnswer(invocation -> new ByteArrayInputStream("thumbnail".getBytes()));
+        when(captureImageRepository.save(any(CaptureImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Mismo nombre en ambos archivos (p. ej. "image.jpg" desde iOS)
+        MockMultipartFile file1 = new MockMultipartFile("file1", "image.jpg", "image/jpeg", "content1".getBytes());
+        MockMultipartFile file2 = new MockMultipartFile("file2", "image.jpg", "image/jpeg", "content2".getBytes());
+
+        try {
+            // When
+            captureImageService.uploadMultipleImages(1L, 1L, new MultipartFile[]{file1, file2});
+
+            // Then
+            ArgumentCaptor<CaptureImage> imageCaptor = ArgumentCaptor.forClass(CaptureImage.class);
+            verify(captureImageRepository, times(2)).save(imageCaptor.capture());
+            List<String> keys = imageCaptor.getAllValues().stream().map(CaptureImage::getS3Key).toList();
+            assertThat(keys.get(0), not(keys.get(1)));
+            for (String key : keys) {
+                assertThat(Files.exists(storageRoot.resolve(key)), is(true));
+            }
+        } finally {
+            parallelExecutor.shutdown();
+            localStorage.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe eliminar la imagen original subida si falla el thumbnail")
+    void testUploadImage_DeletesOriginal_WhenThumbnailUploadFails() throws IOException {
+        // Given
+        setupSuccessfulImageUploadMocks();
+        when(storageService.uploadFile(eq("captures/test.jpg"), any(), anyLong(), any()))
+                .thenReturn("https://s3.tebi.io/bucket/test.jpg");
+        when(storageService.uploadFile(eq("thumbnails/thumb.jpg"), any(), anyLong(), any()))
+                .thenThrow(new RuntimeException("Cloudinary no disponible"));
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> captureImageService.uploadImage(1L, 1L, validImageFile));
+
+        verify(storageService).deleteFile("captures/test.jpg");
+        verify(storageService, never()).deleteFile("thumbnails/thumb.jpg");
+        verify(captureImageRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Debe eliminar los archivos subidos si falla el guardado en BD")
+    void testUploadImage_DeletesUploadedFiles_WhenSaveFails() throws IOException {
+        // Given
+        setupSuccessfulImageUploadMocks();
+        when(captureImageRepository.save(any(CaptureImage.class)))
+                .thenThrow(new RuntimeException("BD no disponible"));
+
+        // When & Then
+        assertThrows(RuntimeException.class,
+                () -> captureImageService.uploadImage(1L, 1L, validImageFile));
+
+        verify(storageService).deleteFile("captures/test.jpg");
+        verify(storageService).deleteFile("thumbnails/thumb.jpg");
+    }
+
     @Test
     @DisplayName("Debe manejar errores parciales en subida múltiple")
     void testUploadMultipleImages_PartialFailure() throws IOException {
@@ -265,19 +481,18 @@ class CaptureImageServiceImplTest {
         }).when(imageProcessingService).validateImage(any());
 
         // Configurar procesamiento de imagen
-        ByteArrayInputStream reusableStream = new ByteArrayInputStream("test content".getBytes());
-        when(imageProcessingService.convertToReusableStream(any())).thenReturn(reusableStream);
-        when(imageProcessingService.detectMimeType(any())).thenReturn("image/jpeg");
+        DecodedImage decoded = new DecodedImage(
+                new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB), "image/jpeg", 1920, 1080);
+        when(imageProcessingService.decodeImage(any(MultipartFile.class))).thenReturn(decoded);
         when(imageProcessingService.getOutputFormat(any())).thenReturn("jpg");
-        when(imageProcessingService.getImageDimensions(any())).thenReturn(new int[]{1920, 1080});
-        when(imageProcessingService.optimizeImage(any(), any(), anyInt()))
+        when(imageProcessingService.optimizeImage(any(BufferedImage.class), anyInt()))
                 .thenReturn(new ByteArrayInputStream("optimized".getBytes()));
-        when(imageProcessingService.createThumbnail(any(), any()))
+        when(imageProcessingService.createThumbnail(any(BufferedImage.class)))
                 .thenReturn(new ByteArrayInputStream("thumbnail".getBytes()));
 
         // Configurar storage
         when(storageService.buildFileKey(anyLong(), anyLong(), any())).thenReturn("captures/test.jpg");
-        when(s3StorageService.buildThumbnailKey(anyLong(), anyLong(), any())).thenReturn("thumbnails/thumb.jpg");
+        when(storageService.buildThumbnailKey(anyLong(), anyLong(), any())).thenReturn("thumbnails/thumb.jpg");
         when(storageService.uploadFile(any(), any(), anyLong(), any()))
                 .thenReturn("https://s3.tebi.io/bucket/test.jpg");
 
@@ -320,7 +535,7 @@ class CaptureImageServiceImplTest {
         when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
 
         // Simular 3 imágenes existentes, límite máximo 5
-        when(captureImageRepository.countByFishCaptureId(1L)).thenReturn(3L);
+        when(captureImageRepository.countTowardsLimit(eq(1L), any(LocalDateTime.class))).thenReturn(3L);
 
         // When & Then: se lanza InvalidImageException antes de procesar cualquier imagen
         InvalidImageException exception = assertThrows(
@@ -337,9 +552,90 @@ class CaptureImageServiceImplTest {
 
         // Verificar interacciones clave
         verify(fishCaptureRepository).findById(1L);
-        verify(captureImageRepository).countByFishCaptureId(1L);
+        verify(captureImageRepository).countTowardsLimit(eq(1L), any(LocalDateTime.class));
+    }
+
+
+    // ==================== TESTS DE SUBIDA ASÍNCRONA ====================
+
+    @Test
+    @DisplayName("Debe crear la imagen en PENDING y encolarla sin procesarla")
+    void testSubmitImageUpload_CreatesPendingImageAndEnqueues() {
+        // Given
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
+        when(captureImageRepository.countTowardsLimit(eq(1L), any(LocalDateTime.class))).thenReturn(0L);
+        when(captureImageRepository.save(any(CaptureImage.class))).thenAnswer(invocation -> {
+            CaptureImage image = invocation.getArgument(0);
+            image.setId(10L);
+            return image;
+        });
+        when(imageMapper.toStatusDto(any(CaptureImage.class))).thenAnswer(invocation -> {
+            CaptureImage image = invocation.getArgument(0);
+            return new ImageStatusResponseDto(image.getId(), 1L, image.getStatus(),
+                    "/api/captures/images/10/status", null, null);
+        });
+
+        // When
+        ImageStatusResponseDto result = captureImageService.submitImageUpload(1L, 1L, validImageFile);
+
+        // Then
+        assertThat(result.status(), is(ImageStatus.PENDING));
+        assertThat(result.statusUrl(), is("/api/captures/images/10/status"));
+
+        ArgumentCaptor<CaptureImage> captor = ArgumentCaptor.forClass(CaptureImage.class);
+        verify(captureImageRepository).save(captor.capture());
+        assertThat(captor.getValue().getStatus(), is(ImageStatus.PENDING));
+        assertThat(captor.getValue().getOriginalUrl(), nullValue());
+
+        verify(imageProcessingService).validateImage(validImageFile);
+        verify(imageProcessingQueue).submit(10L, validImageFile);
+        verify(imageProcessingService, never()).decodeImage(any(MultipartFile.class));
+        verify(storageService, never()).uploadFile(any(), any(), anyLong(), any());
     }
 
+    @Test
+    @DisplayName("Debe rechazar la subida asíncrona cuando se alcanza el límite")
+    void testSubmitImageUpload_ThrowsInvalidImageException_WhenLimitExceeded() {
+        // Given
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
+        when(captureImageRepository.countTowardsLimit(eq(1L), any(LocalDateTime.class))).thenReturn(5L);
+
+        // When & Then
+        assertThrows(InvalidImageException.class,
+                () -> captureImageService.submitImageUpload(1L, 1L, validImageFile));
+        verify(captureImageRepository, never()).save(any());
+        verify(imageProcessingQueue, never()).submit(any(), any());
+    }
+
+    @Test
+    @DisplayName("Debe lanzar UnauthorizedException al consultar el estado de una imagen ajena")
+    void testGetImageStatus_ThrowsUnauthorizedException_WhenUserNotOwner() {
+        // Given
+        CaptureImage image = CaptureImage.builder()
+                .id(10L)
+                .status(ImageStatus.PENDING)
+                .fishCapture(testCapture)
+                .build();
+        when(captureImageRepository.findById(10L)).thenReturn(Optional.of(image));
+
+        // When & Then
+        assertThrows(UnauthorizedException.class, () -> captureImageService.getImageStatus(10L, 99L));
+    }
+
+    @Test
+    @DisplayName("Debe ocultar imágenes pendientes al obtenerlas por ID")
+    void testGetImageById_ThrowsResourceNotFoundException_WhenPending() {
+        // Given
+        CaptureImage image = CaptureImage.builder()
+                .id(10L)
+                .status(ImageStatus.PENDING)
+                .fishCapture(testCapture)
+                .build();
+        when(captureImageRepository.findById(10L)).thenReturn(Optional.of(image));
+
+        // When & Then
+        assertThrows(ResourceNotFoundException.class, () -> captureImageService.getImageById(10L));
+    }
 
     // ==================== TESTS DE OBTENCIÓN DE IMÁGENES ====================
 
@@ -353,7 +649,7 @@ class CaptureImageServiceImplTest {
         );
 
         when(fishCaptureRepository.existsById(1L)).thenReturn(true);
-        when(captureImageRepository.findByFishCaptureId(1L)).thenReturn(images);
+        when(captureImageRepository.findByFishCaptureIdAndStatus(1L, ImageStatus.READY)).thenReturn(images);
 
         List<ImageResponseDto> responseDtos = List.of(
                 new ImageResponseDto(1L, "url1", "thumb1", "image1.jpg", 1024L, "image/jpeg", 1920, 1080, LocalDateTime.now()),
@@ -375,7 +671,7 @@ class CaptureImageServiceImplTest {
     void testGetImagesByCapture_ReturnsEmptyList_WhenNoImages() {
         // Given
         when(fishCaptureRepository.existsById(1L)).thenReturn(true);
-        when(captureImageRepository.findByFishCaptureId(1L)).thenReturn(List.of());
+        when(captureImageRepository.findByFishCaptureIdAndStatus(1L, ImageStatus.READY)).thenReturn(List.of());
         when(imageMapper.toDtoList(List.of())).thenReturn(List.of());
 
         // When
@@ -441,6 +737,34 @@ class CaptureImageServiceImplTest {
         assertThat(exception.getMessage(), containsString("Imagen no encontrada"));
     }
 
+    @Test
+    @DisplayName("Debe servir la imagen desde caché hasta que se elimina")
+    void testGetImageById_CachedUntilDeleted() {
+        // Given
+        CaptureImage image = CaptureImage.builder()
+                .id(1L)
+                .originalUrl("https://s3.tebi.io/bucket/captures/test.jpg")
+                .thumbnailUrl("https://s3.tebi.io/bucket/thumbnails/thumb.jpg")
+                .s3Key("captures/user_1/capture_1/test.jpg")
+                .fishCapture(testCapture)
+                .build();
+        when(captureImageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(captureImageRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(image));
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
+        when(imageMapper.toDto(image)).thenReturn(new ImageResponseDto(
+                1L, "url", "thumb", "test.jpg", 1024L, "image/jpeg", 1920, 1080, LocalDateTime.now()));
+
+        // When
+        captureImageService.getImageById(1L);
+        captureImageService.getImageById(1L);
+        captureImageService.deleteImage(1L, 1L);
+        when(captureImageRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Then
+        assertThrows(ResourceNotFoundException.class, () -> captureImageService.getImageById(1L));
+        verify(dtoCache).evict(DtoCache.CAPTURE_IMAGES, 1L);
+    }
+
     // ==================== TESTS DE ELIMINACIÓN ====================
 
     @Test
@@ -455,7 +779,7 @@ class CaptureImageServiceImplTest {
                 .fishCapture(testCapture)
                 .build();
 
-        when(captureImageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(captureImageRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(image));
         when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
         doNothing().when(storageService).deleteFile(anyString());
 
@@ -475,7 +799,7 @@ class CaptureImageServiceImplTest {
     @DisplayName("Debe lanzar ResourceNotFoundException al eliminar imagen inexistente")
     void testDeleteImage_ThrowsResourceNotFoundException_WhenImageNotExists() {
         // Given
-        when(captureImageRepository.findById(999L)).thenReturn(Optional.empty());
+        when(captureImageRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
 
         // When & Then
         ResourceNotFoundException exception = assertThrows(
@@ -496,7 +820,7 @@ class CaptureImageServiceImplTest {
                 .fishCapture(testCapture)
                 .build();
 
-        when(captureImageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(captureImageRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(image));
         when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
 
         // When & Then
@@ -510,8 +834,8 @@ class CaptureImageServiceImplTest {
     }
 
     @Test
-    @DisplayName("Debe continuar eliminando de BD aunque falle eliminación en S3")
-    void testDeleteImage_ContinuesWithDatabaseDeletion_WhenS3DeletionFails() {
+    @DisplayName("Debe eliminar de BD sin llamar al almacenamiento remoto")
+    void testDeleteImage_DoesNotCallStorageDuringRequest() {
         // Given
         CaptureImage image = CaptureImage.builder()
                 .id(1L)
@@ -521,12 +845,9 @@ class CaptureImageServiceImplTest {
                 .fishCapture(testCapture)
                 .build();
 
-        when(captureImageRepository.findById(1L)).thenReturn(Optional.of(image));
+        when(captureImageRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(image));
         when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
 
-        // S3 falla pero el servicio debe continuar (la excepción se captura internamente)
-        doThrow(new RuntimeException("S3 Error")).when(storageService).deleteFile(anyString());
-
         // When
         ImageDeleteResponseDto result = captureImageService.deleteImage(1L, 1L);
 
@@ -534,8 +855,56 @@ class CaptureImageServiceImplTest {
         assertThat(result, notNullValue());
         assertThat(result.deleted(), is(true));
 
-        // Verificar que se eliminó de BD aunque S3 fallara
+        // Los archivos los borra StorageCleanupJob, nunca la petición
         verify(captureImageRepository).delete(image);
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    @DisplayName("Debe registrar en el outbox el borrado del original y el thumbnail")
+    void testDeleteImage_EnqueuesStoredFilesDeletion() {
+        // Given
+        CaptureImage image = CaptureImage.builder()
+                .id(1L)
+                .thumbnailUrl("https://s3.tebi.io/bucket/thumb.jpg")
+                .s3Key("test-key")
+                .fishCapture(testCapture)
+                .build();
+
+        when(captureImageRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(image));
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
+
+        // When
+        captureImageService.deleteImage(1L, 1L);
+
+        // Then
+        InOrder inOrder = inOrder(captureImageRepository, storageDeletionRepository);
+        inOrder.verify(captureImageRepository).delete(image);
+        assertThat(enqueuedKeys(inOrder), contains("test-key", "thumb.jpg"));
+    }
+
+    @Test
+    @DisplayName("No debe borrar archivos que otra imagen sigue usando")
+    void testDeleteImage_KeepsFilesSharedWithOtherImages() {
+        // Given
+        CaptureImage image = CaptureImage.builder()
+                .id(1L)
+                .thumbnailUrl("https://s3.tebi.io/bucket/thumb.jpg")
+                .s3Key("test-key")
+                .fishCapture(testCapture)
+                .build();
+
+        when(captureImageRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(image));
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
+        when(captureImageRepository.findS3KeysInUse(List.of("test-key"), List.of(1L)))
+                .thenReturn(List.of("test-key"));
+
+        // When
+        captureImageService.deleteImage(1L, 1L);
+
+        // Then
+        verify(captureImageRepository).delete(image);
+        verify(storageDeletionRepository, never()).saveAll(any());
     }
 
     @Test
@@ -556,7 +925,7 @@ class CaptureImageServiceImplTest {
         );
 
         when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(testCapture));
-        when(captureImageRepository.findByFishCaptureId(1L)).thenReturn(images);
+        when(captureImageRepository.findByFishCaptureIdForUpdate(1L)).thenReturn(images);
         doNothing().when(storageService).deleteFile(anyString());
         doNothing().when(captureImageRepository).deleteByFishCaptureId(1L);
 
@@ -566,6 +935,17 @@ class CaptureImageServiceImplTest {
         // Then
         verify(captureImageRepository).deleteByFishCaptureId(1L);
         verify(fishCaptureRepository).findById(1L); // Verifica permisos
+        // Originales y thumbnails quedan pendientes en el outbox
+        assertThat(enqueuedKeys(inOrder(storageDeletionRepository)),
+                contains("key1", "thumb1.jpg", "key2", "thumb2.jpg"));
+        verifyNoInteractions(storageService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> enqueuedKeys(InOrder inOrder) {
+        ArgumentCaptor<List<StorageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(storageDeletionRepository).saveAll(captor.capture());
+        return captor.getValue().stream().map(StorageDeletion::getFileKey).toList();
     }
 
     @Test
@@ -668,18 +1048,17 @@ class CaptureImageServiceImplTest {
 
         doNothing().when(imageProcessingService).validateImage(any());
 
-        ByteArrayInputStream reusableStream = new ByteArrayInputStream("test content".getBytes());
-        when(imageProcessingService.convertToReusableStream(any())).thenReturn(reusableStream);
-        when(imageProcessingService.detectMimeType(any())).thenReturn("image/jpeg");
+        DecodedImage decoded = new DecodedImage(
+                new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB), "image/jpeg", 1920, 1080);
+        when(imageProcessingService.decodeImage(any(MultipartFile.class))).thenReturn(decoded);
         when(imageProcessingService.getOutputFormat(any())).thenReturn("jpg");
-        when(imageProcessingService.getImageDimensions(any())).thenReturn(new int[]{1920, 1080});
-        when(imageProcessingService.optimizeImage(any(), any(), anyInt()))
+        when(imageProcessingService.optimizeImage(any(BufferedImage.class), anyInt()))
                 .thenReturn(new ByteArrayInputStream("optimized".getBytes()));
-        when(imageProcessingService.createThumbnail(any(), any()))
+        when(imageProcessingService.createThumbnail(any(BufferedImage.class)))
                 .thenReturn(new ByteArrayInputStream("thumbnail".getBytes()));
 
         when(storageService.buildFileKey(anyLong(), anyLong(), any())).thenReturn("captures/test.jpg");
-        when(s3StorageService.buildThumbnailKey(anyLong(), anyLong(), any())).thenReturn("thumbnails/thumb.jpg");
+        when(storageService.buildThumbnailKey(anyLong(), anyLong(), any())).thenReturn("thumbnails/thumb.jpg");
         when(storageService.uploadFile(any(), any(), anyLong(), any()))
                 .thenReturn("https://s3.tebi.io/bucket/test.jpg");
     }
@@ -8,11 +8,17 @@ import com.example.fishingapp.dto.FileMetaData;
 import com.example.fishingapp.exception.StorageException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -49,13 +55,20 @@ class CloudinaryStorageServiceImplTest {
         byte[] fileContent = "fake image".getBytes();
         InputStream inputStream = new ByteArrayInputStream(fileContent);
 
-        when(uploader.upload(any(byte[].class), anyMap()))
-                .thenReturn(Map.of("secure_url", "https://cloudinary.com/myimage.jpg"));
+        // Se sube desde un temporal en disco (sin readAllBytes), que se borra al terminar
+        List<File> sentFiles = new ArrayList<>();
+        when(uploader.upload(any(File.class), anyMap())).thenAnswer(invocation -> {
+            File file = invocation.getArgument(0);
+            assertArrayEquals(fileContent, Files.readAllBytes(file.toPath()));
+            sentFiles.add(file);
+            return Map.of("secure_url", "https://cloudinary.com/myimage.jpg");
+        });
 
         String url = storageService.uploadFile(key, inputStream, fileContent.length, "image/jpeg");
 
         assertEquals("https://cloudinary.com/myimage.jpg", url);
-        verify(uploader, times(1)).upload(any(byte[].class), anyMap());
+        verify(uploader, times(1)).upload(any(File.class), anyMap());
+        assertFalse(sentFiles.get(0).exists());
     }
 
     @Test
@@ -95,6 +108,37 @@ class CloudinaryStorageServiceImplTest {
         );
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void deleteFiles_usesBulkApiInChunks() throws Exception {
+        when(cloudinaryApi.deleteResources(anyIterable(), anyMap()))
+                .thenReturn(apiResponse);
+        List<String> keys = IntStream.range(0, 150)
+                .mapToObj(i -> "fish-captures/captures/user_1/capture_1/img" + i + ".jpg")
+                .toList();
+
+        storageService.deleteFiles(keys);
+
+        ArgumentCaptor<Iterable<String>> chunks = ArgumentCaptor.forClass(Iterable.class);
+        verify(cloudinaryApi, times(2)).deleteResources(chunks.capture(), anyMap());
+        assertEquals(100, ((List<String>) chunks.getAllValues().get(0)).size());
+        assertEquals("fish-captures/captures/user_1/capture_1/img0",
+                ((List<String>) chunks.getAllValues().get(0)).get(0));
+        assertEquals(50, ((List<String>) chunks.getAllValues().get(1)).size());
+        verify(uploader, never()).destroy(anyString(), anyMap());
+    }
+
+    @Test
+    void deleteFiles_failedChunk_throwsAfterTryingTheRest() throws Exception {
+        when(cloudinaryApi.deleteResources(anyIterable(), anyMap()))
+                .thenThrow(new RuntimeException("API caída"))
+                .thenReturn(apiResponse);
+        List<String> keys = IntStream.range(0, 101).mapToObj(i -> "captures/img" + i + ".jpg").toList();
+
+        assertThrows(StorageException.class, () -> storageService.deleteFiles(keys));
+        verify(cloudinaryApi, times(2)).deleteResources(anyIterable(), anyMap());
+    }
+
     // -------------------------------------------------------------
     // fileExists tests (mockear ApiResponse correctamente)
     // -------------------------------------------------------------
@@ -168,4 +212,11 @@ class CloudinaryStorageServiceImplTest {
         assertTrue(key.contains("fish-captures/captures/user_1/capture_2/"));
         assertTrue(key.endsWith("_foto_prueba.jpg"));
     }
+
+    @Test
+    void buildFileKey_sameNameInTheSameSecond_generatesDistinctKeys() {
+        assertNotEquals(storageService.buildFileKey(1L, 2L, "image.jpg"), storageService.buildFileKey(1L, 2L, "image.jpg"));
+        assertNotEquals(storageService.buildThumbnailKey(1L, 2L, "image.jpg"),
+                storageService.buildThumbnailKey(1L, 2L, "image.jpg"));
+    }
 }
@@ -0,0 +1,112 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.repository.AuthUserRepository;
+import com.example.fishingapp.security.AuthUser;
+import com.example.fishingapp.security.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceImplTest {
+
+    private AuthUserRepository authUserRepository;
+    private AuthUserStateCache authUserStateCache;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsServiceImpl userDetailsService;
+    private AuthUser authUser;
+
+    @BeforeEach
+    void setUp() {
+        authUserRepository = mock(AuthUserRepository.class);
+        authUserStateCache = mock(AuthUserStateCache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+
+        userDetailsService = new CustomUserDetailsServiceImpl(authUserRepository, authUserStateCache,
+                beanFactory.getBeanProvider(MeterRegistry.class), 100, 300);
+
+        authUser = AuthUser.builder()
+                .id(1L)
+                .username("testuser")
+                .email("test@example.com")
+                .password("hash")
+                .role(Role.USER)
+                .enabled(true)
+                .accountNonLocked(true)
+                .user(User.builder().id(1L).username("testuser").build())
+                .build();
+        when(authUserRepository.findByUsernameOrEmail("testuser")).thenReturn(Optional.of(authUser));
+    }
+
+    @Test
+    void loadUserByUsernameOrEmail_secondCall_servedFromCache() {
+        AuthUser first = (AuthUser) userDetailsService.loadUserByUsernameOrEmail("testuser");
+        AuthUser second = (AuthUser) userDetailsService.loadUserByUsernameOrEmail("testuser");
+
+        assertEquals("testuser", second.getUsername());
+        assertEquals("hash", second.getPassword());
+        assertEquals(1L, second.getUser().getId());
+        assertTrue(second.isEnabled());
+        assertEquals(authUser.getAuthorities(), second.getAuthorities());
+        // Ni la entidad ni una instancia compartida entre peticiones
+        assertNotSame(authUser, first);
+        assertNotSame(first, second);
+
+        verify(authUserRepository, times(1)).findByUsernameOrEmail("testuser");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "authUsers").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "authUsers").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void loadUserByUsernameOrEmail_changesToReturnedUser_doNotLeakIntoCache() {
+        AuthUser first = (AuthUser) userDetailsService.loadUserByUsernameOrEmail("testuser");
+        first.setRole(Role.ADMIN);
+        authUser.setEnabled(false);
+
+        AuthUser second = (AuthUser) userDetailsService.loadUserByUsernameOrEmail("testuser");
+
+        assertEquals(Role.USER, second.getRole());
+        assertTrue(second.isEnabled());
+    }
+
+    @Test
+    void evictUser_nextLookupHitsDatabase() {
+        userDetailsService.loadUserByUsernameOrEmail("testuser");
+
+        userDetailsService.evictUser(authUser);
+        userDetailsService.loadUserByUsernameOrEmail("testuser");
+
+        verify(authUserRepository, times(2)).findByUsernameOrEmail("testuser");
+        verify(authUserStateCache).evict("testuser");
+    }
+
+    @Test
+    void loadUserByUsername_login_alwaysQueriesDatabase() {
+        userDetailsService.loadUserByUsername("testuser");
+        userDetailsService.loadUserByUsername("testuser");
+
+        verify(authUserRepository, times(2)).findByUsernameOrEmail("testuser");
+    }
+
+    @Test
+    void loadUserByUsernameOrEmail_unknownUser_throwsAndIsNotCached() {
+        when(authUserRepository.findByUsernameOrEmail("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsernameOrEmail("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsernameOrEmail("ghost"));
+
+        verify(authUserRepository, times(2)).findByUsernameOrEmail("ghost");
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.EmailOutbox;
+import com.example.fishingapp.repository.EmailOutboxRepository;
+import com.example.fishingapp.service.EmailSender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxJobTest {
+
+    private EmailOutboxRepository emailOutboxRepository;
+    private EmailSender emailSender;
+    private ClusterLock clusterLock;
+    private EmailOutboxJob job;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxRepository = mock(EmailOutboxRepository.class);
+        emailSender = mock(EmailSender.class);
+        clusterLock = mock(ClusterLock.class);
+        // 2 workers con lotes de 2: hasta 4 emails por tanda
+        job = new EmailOutboxJob(emailOutboxRepository, emailSender, clusterLock, 2, 2, 3, 30, 3600, 300, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void drainOnce_nothingDue_doesNotSend() {
+        when(emailOutboxRepository.findDue(any(), anyInt(), any())).thenReturn(List.of());
+
+        assertEquals(0, job.drainOnce());
+
+        verifyNoInteractions(emailSender);
+    }
+
+    @Test
+    void drainOnce_sendsInBatchesAndRemovesSentRows() {
+        List<EmailOutbox> due = emails(3);
+        when(emailOutboxRepository.findDue(any(), eq(3), any())).thenReturn(due);
+        when(emailSender.sendBatch(anyList())).thenReturn(Map.of());
+
+        assertEquals(3, job.drainOnce());
+
+        // Un lote de 2 y otro de 1
+        verify(emailSender, times(2)).sendBatch(anyList());
+        verify(emailOutboxRepository).deleteAllInBatch(argThat(sent -> size(sent) == 3));
+        verify(emailOutboxRepository).saveAll(argThat(failed -> size(failed) == 0));
+    }
+
+    @Test
+    void drainOnce_reschedulesFailedEmailsWithBackoff() {
+        List<EmailOutbox> due = emails(2);
+        when(emailOutboxRepository.findDue(any(), anyInt(), any())).thenReturn(due);
+        when(emailSender.sendBatch(anyList())).thenReturn(Map.of(2L, "Buzón lleno"));
+
+        job.drainOnce();
+
+        EmailOutbox failed = due.get(1);
+        assertEquals(1, failed.getAttempts());
+        assertEquals("Buzón lleno", failed.getLastError());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+        verify(emailOutboxRepository).deleteAllInBatch(argThat(sent -> size(sent) == 1));
+        verify(emailOutboxRepository).saveAll(argThat(rescheduled -> size(rescheduled) == 1));
+    }
+
+    @Test
+    void drainOnce_whenTheWholeBatchFails_reschedulesEveryEmail() {
+        List<EmailOutbox> due = emails(2);
+        when(emailOutboxRepository.findDue(any(), anyInt(), any())).thenReturn(due);
+        when(emailSender.sendBatch(anyList())).thenThrow(new IllegalStateException("SMTP no disponible"));
+
+        job.drainOnce();
+
+        assertTrue(due.stream().allMatch(email -> email.getAttempts() == 1
+                && "SMTP no disponible".equals(email.getLastError())));
+        verify(emailOutboxRepository).deleteAllInBatch(argThat(sent -> size(sent) == 0));
+    }
+
+    @Test
+    void drain_whenAnotherNodeHoldsTheLock_doesNothing() {
+        when(clusterLock.tryLock(eq(EmailOutboxJob.LOCK_NAME), any())).thenReturn(false);
+
+        job.drain();
+
+        verifyNoInteractions(emailOutboxRepository, emailSender);
+    }
+
+    @Test
+    void drain_repeatsWhileTandasAreFullAndReleasesTheLock() {
+        when(clusterLock.tryLock(eq(EmailOutboxJob.LOCK_NAME), any())).thenReturn(true);
+        when(emailOutboxRepository.findDue(any(), anyInt(), any())).thenReturn(emails(4)).thenReturn(emails(1));
+        when(emailSender.sendBatch(anyList())).thenReturn(Map.of());
+
+        job.drain();
+
+        verify(emailOutboxRepository, times(2)).findDue(any(), anyInt(), any());
+        verify(emailOutboxRepository).deleteAbandonedBefore(eq(3), any());
+        verify(clusterLock).unlock(EmailOutboxJob.LOCK_NAME);
+    }
+
+    @Test
+    void purgeAbandoned_deletesExhaustedEmailsOlderThanRetention() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 10, 12, 0);
+        when(emailOutboxRepository.deleteAbandonedBefore(3, now.minusDays(7))).thenReturn(5);
+
+        assertEquals(5, job.purgeAbandoned(now));
+    }
+
+    private List<EmailOutbox> emails(int count) {
+        List<EmailOutbox> emails = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            EmailOutbox email = EmailOutbox.of("user" + id + "@example.com", "Asunto", "Cuerpo");
+            email.setId(id);
+            email.setNextAttemptAt(LocalDateTime.now());
+            emails.add(email);
+        }
+        return emails;
+    }
+
+    private static int size(Iterable<?> items) {
+        return ((Collection<?>) items).size();
+    }
+}
@@ -1,11 +1,16 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.model.EmailOutbox;
+import com.example.fishingapp.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @TestPropertySource(properties = {
@@ -17,6 +22,36 @@ class EmailServiceImplTest {
     @Autowired
     private EmailServiceImpl emailService;
 
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @AfterEach
+    void tearDown() {
+        emailOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void sendVerificationEmail_enqueuesRenderedEmailWithoutSending() {
+        emailService.sendVerificationEmail("test@example.com", "<b>pepe</b>", "token-123");
+
+        List<EmailOutbox> queued = emailOutboxRepository.findAll();
+        assertEquals(1, queued.size());
+        EmailOutbox email = queued.get(0);
+        assertEquals("test@example.com", email.getRecipient());
+        assertEquals("Verifica tu cuenta en CharcaFishing", email.getSubject());
+        assertTrue(email.getBody().contains("http://localhost:3000/verify-email?token=token-123"));
+        // Los valores se escapan como HTML
+        assertTrue(email.getBody().contains("¡Hola &lt;b&gt;pepe&lt;/b&gt;!"));
+        assertEquals(0, email.getAttempts());
+    }
+
+    @Test
+    void sendEmail_withoutRecipient_isDiscarded() {
+        emailService.sendEmail(null, "Asunto", "Cuerpo");
+
+        assertEquals(0, emailOutboxRepository.count());
+    }
+
     @Test
     void sendVerificationEmail_sendsEmailSuccessfully() {
         String email = "test@example.com";
@@ -0,0 +1,47 @@
+package com.example.fishingapp.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTemplateTest {
+
+    @Test
+    void render_replacesVariablesAndEscapesHtml() {
+        EmailTemplate template = EmailTemplate.compile("<h2>Hola {{ username }}</h2><a href=\"{{link}}\">{{username}}</a>");
+
+        String html = template.render(Map.of("username", "Ana & <Luis>", "link", "http://x/?a=1&b=2"));
+
+        assertEquals("<h2>Hola Ana &amp; &lt;Luis&gt;</h2><a href=\"http://x/?a=1&amp;b=2\">Ana &amp; &lt;Luis&gt;</a>", html);
+    }
+
+    @Test
+    void render_leavesMissingVariablesEmpty() {
+        EmailTemplate template = EmailTemplate.compile("{{a}}-{{b}}");
+        Map<String, String> values = new HashMap<>();
+        values.put("a", "1");
+        values.put("b", null);
+
+        assertEquals("1-", template.render(values));
+    }
+
+    @Test
+    void compile_withoutVariables_returnsTextAsIs() {
+        assertEquals("sin variables", EmailTemplate.compile("sin variables").render(Map.of()));
+    }
+
+    @Test
+    void compile_withUnclosedVariable_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("Hola {{username"));
+    }
+
+    @Test
+    void load_classpathTemplates_compile() {
+        assertTrue(EmailTemplate.load("templates/email/welcome.html")
+                .render(Map.of("appName", "CharcaFishing", "username", "pepe"))
+                .contains("¡Bienvenido a CharcaFishing, pepe!"));
+    }
+}
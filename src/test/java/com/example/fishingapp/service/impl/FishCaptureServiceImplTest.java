@@ -1,23 +1,45 @@
 package com.example.fishingapp.service.impl;
 
+import com.example.fishingapp.dto.CursorPage;
+import com.example.fishingapp.dto.FeedCursor;
 import com.example.fishingapp.dto.FishCaptureDto;
+import com.example.fishingapp.dto.FishCaptureFeedDto;
+import com.example.fishingapp.dto.FishCaptureImportResult;
+import com.example.fishingapp.dto.PageResponse;
+import com.example.fishingapp.dto.image.ImageThumbnailDto;
 import com.example.fishingapp.exception.ResourceNotFoundException;
 import com.example.fishingapp.exception.UnauthorizedException;
 import com.example.fishingapp.model.FishCapture;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.FishCaptureRepository;
+import com.example.fishingapp.repository.FishCaptureSearchRepository;
 import com.example.fishingapp.repository.UserRepository;
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.service.CaptureImageService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -37,6 +59,16 @@ class FishCaptureServiceImplTest{
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private FishCaptureSearchRepository fishCaptureSearchRepository;
+
+    // Caché real en memoria (sin Spring)
+    @Spy
+    private DtoCache dtoCache = new DtoCache(new ConcurrentMapCacheManager());
+
     @InjectMocks
     private FishCaptureServiceImpl fishCaptureService;
 
@@ -73,6 +105,7 @@ class FishCaptureServiceImplTest{
                 1L,
                 LocalDate.of(2025, 9, 25),
                 LocalDateTime.now(),
+                null,
                 "Trucha",
                 "Rio Tajo",
                 2.5F,
@@ -137,6 +170,7 @@ class FishCaptureServiceImplTest{
                 1L,
                 LocalDate.of(2025, 9, 25),
                 LocalDateTime.now(),
+                null,
                 "Trucha",
                 "Rio Tajo",
                 2.5F,
@@ -157,6 +191,29 @@ class FishCaptureServiceImplTest{
         assertThat(result.location(), is("Rio Tajo"));
     }
 
+    @Test
+    void findById_servesSecondCallFromCache_untilUpdateEvicts() {
+        User owner = User.builder().id(1L).username("ImaHer").build();
+        AuthUser authUser = AuthUser.builder().id(1L).username("ImaHer").user(owner).build();
+        FishCapture capture = FishCapture.builder()
+                .id(1L).fishType("Trucha").location("Rio Tajo").weight(2.5F)
+                .captureDate(LocalDate.of(2025, 9, 25)).user(owner).build();
+        when(fishCaptureRepository.findById(1L)).thenReturn(Optional.of(capture));
+        when(fishCaptureRepository.save(capture)).thenReturn(capture);
+
+        fishCaptureService.findById(1L);
+        fishCaptureService.findById(1L);
+        verify(fishCaptureRepository, times(1)).findById(1L);
+
+        FishCaptureDto changes = new FishCaptureDto(1L, 1L, "Lucio", 3.0F,
+                LocalDate.of(2025, 9, 25), "Rio Tajo", null);
+        fishCaptureService.updateFishCaptureDto(changes, 1L, authUser);
+
+        // La actualización invalida la entrada: la siguiente lectura vuelve a la BD
+        assertThat(fishCaptureService.findById(1L).fishType(), is("Lucio"));
+        verify(fishCaptureRepository, times(3)).findById(1L);
+    }
+
     @Test
     void findById_throwsException_whenNotExists() {
         Long captureId = 1L;
@@ -564,4 +621,218 @@ class FishCaptureServiceImplTest{
     }
 
 
+
+    @Test
+    void getCaptureFeed_returnsFirstPageWithCursor_whenMoreResults() {
+        ReflectionTestUtils.setField(fishCaptureService, "defaultFeedPageSize", 2);
+        ReflectionTestUtils.setField(fishCaptureService, "maxFeedPageSize", 100);
+
+        User user = User.builder().id(1L).username("ImaHer").build();
+        LocalDateTime now = LocalDateTime.of(2025, 9, 25, 10, 0);
+        List<FishCapture> rows = List.of(
+                FishCapture.builder().id(3L).createdAt(now).fishType("Trucha").user(user).build(),
+                FishCapture.builder().id(2L).createdAt(now.minusHours(1)).fishType("Lucio").user(user).build(),
+                FishCapture.builder().id(1L).createdAt(now.minusHours(2)).fishType("Carpa").user(user).build()
+        );
+        when(fishCaptureRepository.findFeedFirstPage(Limit.of(3))).thenReturn(rows);
+
+        CursorPage<FishCaptureDto> page = fishCaptureService.getCaptureFeed(null, null);
+
+        assertThat(page.items(), hasSize(2));
+        assertThat(page.hasNext(), is(true));
+        FeedCursor cursor = FeedCursor.decode(page.nextCursor());
+        assertThat(cursor.id(), is(2L));
+        assertThat(cursor.createdAt(), is(now.minusHours(1)));
+    }
+
+    @Test
+    void getCaptureFeed_usesKeysetQuery_whenCursorProvided() {
+        ReflectionTestUtils.setField(fishCaptureService, "defaultFeedPageSize", 20);
+        ReflectionTestUtils.setField(fishCaptureService, "maxFeedPageSize", 5);
+
+        User user = User.builder().id(1L).username("ImaHer").build();
+        LocalDateTime createdAt = LocalDateTime.of(2025, 9, 25, 10, 0);
+        String cursor = new FeedCursor(createdAt, 10L).encode();
+        List<FishCapture> rows = List.of(
+                FishCapture.builder().id(9L).createdAt(createdAt.minusMinutes(1)).fishType("Trucha").user(user).build()
+        );
+        when(fishCaptureRepository.findFeedAfter(createdAt, 10L, Limit.of(6))).thenReturn(rows);
+
+        CursorPage<FishCaptureDto> page = fishCaptureService.getCaptureFeed(cursor, 50);
+
+        assertThat(page.items(), hasSize(1));
+        assertThat(page.hasNext(), is(false));
+        assertThat(page.nextCursor(), nullValue());
+        verify(fishCaptureRepository, never()).findFeedFirstPage(any());
+    }
+
+    @Test
+    void getCaptureFeed_throwsIllegalArgument_whenCursorInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> fishCaptureService.getCaptureFeed("no-es-un-cursor", 10));
+    }
+
+    @Test
+    void getCaptureFeedWithImages_fetchesThumbnailsForWholePageInOneCall() {
+        ReflectionTestUtils.setField(fishCaptureService, "defaultFeedPageSize", 20);
+        ReflectionTestUtils.setField(fishCaptureService, "maxFeedPageSize", 100);
+
+        User user = User.builder().id(1L).username("ImaHer").build();
+        LocalDateTime now = LocalDateTime.of(2025, 9, 25, 10, 0);
+        List<FishCapture> rows = List.of(
+                FishCapture.builder().id(2L).createdAt(now).fishType("Trucha").user(user).build(),
+                FishCapture.builder().id(1L).createdAt(now.minusHours(1)).fishType("Lucio").user(user).build()
+        );
+        when(fishCaptureRepository.findFeedFirstPage(Limit.of(21))).thenReturn(rows);
+        ImageThumbnailDto thumbnail = new ImageThumbnailDto(7L, 2L, "https://cdn/thumb.jpg", "https://cdn/orig.jpg");
+        when(captureImageService.getThumbnailsByCaptures(List.of(2L, 1L))).thenReturn(Map.of(2L, List.of(thumbnail)));
+
+        CursorPage<FishCaptureFeedDto> page = fishCaptureService.getCaptureFeedWithImages(null, null);
+
+        assertThat(page.items(), hasSize(2));
+        assertThat(page.items().get(0).images(), contains(thumbnail));
+        assertThat(page.items().get(1).images(), is(empty()));
+        assertThat(page.hasNext(), is(false));
+        verify(captureImageService, times(1)).getThumbnailsByCaptures(any());
+    }
+
+    @Test
+    void getFishCapturesByUsername_buildsPageRequestWithSortAndTieBreaker() {
+        ReflectionTestUtils.setField(fishCaptureService, "defaultFeedPageSize", 20);
+        ReflectionTestUtils.setField(fishCaptureService, "maxFeedPageSize", 50);
+
+        FishCaptureDto dto = new FishCaptureDto(1L, 1L, "Trucha", 2.5f, LocalDate.of(2025, 9, 25), "Rio Tajo", null);
+        Pageable expected = PageRequest.of(1, 50, Sort.by(Sort.Order.asc("weight"), Sort.Order.asc("id")));
+        Page<FishCaptureDto> result = new PageImpl<>(List.of(dto), expected, 51);
+        when(fishCaptureRepository.findDtoPageByUsername("ImaHer", expected)).thenReturn(result);
+
+        PageResponse<FishCaptureDto> page = fishCaptureService.getFishCapturesByUsername("ImaHer", 1, 500, "weight,asc");
+
+        assertThat(page.items(), contains(dto));
+        assertThat(page.totalElements(), is(51L));
+        assertThat(page.totalPages(), is(2));
+        assertThat(page.hasNext(), is(false));
+        verify(userRepository, never()).existsByUsername(any());
+    }
+
+    @Test
+    void getFishCapturesByUsername_throwsNotFound_whenUserDoesNotExist() {
+        ReflectionTestUtils.setField(fishCaptureService, "defaultFeedPageSize", 20);
+        ReflectionTestUtils.setField(fishCaptureService, "maxFeedPageSize", 100);
+        when(fishCaptureRepository.findDtoPageByUsername(eq("nadie"), any(Pageable.class))).thenReturn(Page.empty());
+        when(userRepository.existsByUsername("nadie")).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> fishCaptureService.getFishCapturesByUsername("nadie", 0, null, null));
+    }
+
+    @Test
+    void getFishCapturesByUsername_throwsIllegalArgument_whenSortFieldNotAllowed() {
+        assertThrows(IllegalArgumentException.class,
+                () -> fishCaptureService.getFishCapturesByUsername("ImaHer", 0, 10, "location"));
+        verifyNoInteractions(fishCaptureRepository);
+    }
+
+    @Test
+    void searchFishCaptures_stripsQueryAndCapsPageSize() {
+        ReflectionTestUtils.setField(fishCaptureService, "defaultFeedPageSize", 20);
+        ReflectionTestUtils.setField(fishCaptureService, "maxFeedPageSize", 50);
+
+        FishCaptureDto dto = new FishCaptureDto(1L, 1L, "Trucha", 2.5f, LocalDate.of(2025, 9, 25), "Rio Tajo", null);
+        Pageable expected = PageRequest.of(2, 50);
+        when(fishCaptureSearchRepository.search("trucha", expected))
+                .thenReturn(new PageImpl<>(List.of(dto), expected, 101));
+
+        PageResponse<FishCaptureDto> page = fishCaptureService.searchFishCaptures("  trucha ", 2, 500);
+
+        assertThat(page.items(), contains(dto));
+        assertThat(page.totalElements(), is(101L));
+        assertThat(page.size(), is(50));
+    }
+
+    @Test
+    void searchFishCaptures_throwsIllegalArgument_whenQueryInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> fishCaptureService.searchFishCaptures(null, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> fishCaptureService.searchFishCaptures(" ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> fishCaptureService.searchFishCaptures("a".repeat(101), 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> fishCaptureService.searchFishCaptures("trucha", -1, 10));
+        verifyNoInteractions(fishCaptureSearchRepository);
+    }
+
+    @Test
+    void exportAllFishCaptures_streamsAndDetachesEachCapture() {
+        EntityManager entityManager = mock(EntityManager.class);
+        ReflectionTestUtils.setField(fishCaptureService, "entityManager", entityManager);
+
+        User user = User.builder().id(1L).username("ImaHer").build();
+        FishCapture first = FishCapture.builder().id(1L).fishType("Trucha").user(user).build();
+        FishCapture second = FishCapture.builder().id(2L).fishType("Lucio").user(user).build();
+        when(fishCaptureRepository.streamAllByOrderById()).thenReturn(Stream.of(first, second));
+
+        List<FishCaptureDto> exported = new ArrayList<>();
+        long count = fishCaptureService.exportAllFishCaptures(exported::add);
+
+        assertThat(count, is(2L));
+        assertThat(exported.stream().map(FishCaptureDto::fishType).toList(), contains("Trucha", "Lucio"));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importFishCaptures_insertsValidRowsInBatches_andReportsRejectedRows() {
+        EntityManager entityManager = mock(EntityManager.class);
+        Session session = mock(Session.class);
+        ReflectionTestUtils.setField(fishCaptureService, "entityManager", entityManager);
+        ReflectionTestUtils.setField(fishCaptureService, "importBatchSize", 2);
+        ReflectionTestUtils.setField(fishCaptureService, "importMaxRows", 100);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(entityManager.getReference(User.class, 1L)).thenReturn(User.builder().id(1L).build());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        FishCaptureDto valid = new FishCaptureDto(null, 1L, "Trucha", 2.5F, LocalDate.of(2025, 9, 25), "Rio Tajo", null);
+        FishCaptureDto missingType = new FishCaptureDto(null, 1L, " ", 2.5F, LocalDate.of(2025, 9, 25), "Rio Tajo", null);
+        List<FishCaptureDto> rows = java.util.Arrays.asList(valid, missingType, valid, null, valid);
+
+        FishCaptureImportResult result = fishCaptureService.importFishCaptures(rows, 1L);
+
+        assertThat(result.total(), is(5));
+        assertThat(result.created(), is(3));
+        assertThat(result.failed(), is(2));
+        assertThat(result.rows().stream().map(FishCaptureImportResult.Row::index).toList(), contains(0, 1, 2, 3, 4));
+        assertThat(result.rows().get(1).error(), containsString("fishType"));
+        // 3 filas válidas con lotes de 2: dos transacciones, el usuario no se vuelve a consultar
+        verify(entityManager, times(3)).persist(any(FishCapture.class));
+        verify(entityManager, times(2)).flush();
+        verify(session, times(2)).setJdbcBatchSize(2);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void importFishCaptures_batchFailure_reportsGenericErrorWithoutPersistenceDetails() {
+        ReflectionTestUtils.setField(fishCaptureService, "importBatchSize", 2);
+        ReflectionTestUtils.setField(fishCaptureService, "importMaxRows", 100);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException(
+                "could not execute batch [insert into fish_captures ...]; constraint [fk_fish_captures_user]"));
+
+        FishCaptureDto valid = new FishCaptureDto(null, 1L, "Trucha", 2.5F, LocalDate.of(2025, 9, 25), "Rio Tajo", null);
+
+        FishCaptureImportResult result = fishCaptureService.importFishCaptures(List.of(valid, valid), 1L);
+
+        assertThat(result.failed(), is(2));
+        assertThat(result.rows().stream().map(FishCaptureImportResult.Row::error).toList(),
+                everyItem(is(FishCaptureServiceImpl.IMPORT_BATCH_ERROR)));
+    }
+
+    @Test
+    void importFishCaptures_throwsNotFound_whenUserDoesNotExist() {
+        when(userRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> fishCaptureService.importFishCaptures(List.of(), 9L));
+        verifyNoInteractions(transactionTemplate);
+    }
 }
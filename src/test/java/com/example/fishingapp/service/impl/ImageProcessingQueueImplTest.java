@@ -0,0 +1,166 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.dto.image.DecodedImage;
+import com.example.fishingapp.exception.InvalidImageException;
+import com.example.fishingapp.exception.StorageException;
+import com.example.fishingapp.model.CaptureImage;
+import com.example.fishingapp.model.FishCapture;
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.model.User;
+import com.example.fishingapp.repository.CaptureImageRepository;
+import com.example.fishingapp.service.ImageProcessingService;
+import com.example.fishingapp.service.StorageService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageProcessingQueueImplTest {
+
+    @TempDir
+    Path spoolDir;
+
+    private ImageProcessingService imageProcessingService;
+    private StorageService storageService;
+    private CaptureImageRepository captureImageRepository;
+
+    private ImageProcessingQueueImpl queue;
+    private CaptureImage pendingImage;
+    private Path spooledFile;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
+        imageProcessingService = mock(ImageProcessingService.class);
+        storageService = mock(StorageService.class);
+        captureImageRepository = mock(CaptureImageRepository.class);
+
+        // Ejecuta los callbacks en el mismo hilo, sin transacción real
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                ((TransactionCallback<Object>) invocation.getArgument(0)).doInTransaction(null));
+
+        // markFailed usa su propia transacción REQUIRES_NEW sobre el mismo gestor
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+
+        queue = new ImageProcessingQueueImpl(imageProcessingService, storageService,
+                captureImageRepository, transactionTemplate,
+                new ImageTaskExecutor(false, 1, 1));
+        ReflectionTestUtils.setField(queue, "spoolDir", spoolDir.toString());
+        ReflectionTestUtils.setField(queue, "poolSize", 1);
+        ReflectionTestUtils.setField(queue, "maxPoolSize", 1);
+        ReflectionTestUtils.setField(queue, "queueCapacity", 1);
+        queue.init();
+
+        User user = User.builder().id(1L).username("testuser").build();
+        FishCapture capture = FishCapture.builder().id(5L).user(user).build();
+        pendingImage = CaptureImage.builder()
+                .id(10L)
+                .fileName("test.jpg")
+                .mimeType("image/jpeg")
+                .status(ImageStatus.PENDING)
+                .fishCapture(capture)
+                .build();
+        when(captureImageRepository.findById(10L)).thenReturn(Optional.of(pendingImage));
+
+        spooledFile = Files.write(spoolDir.resolve("10.upload"), "fake image".getBytes());
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    void process_success_marksReadyAndDeletesSpool() {
+        BufferedImage raster = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        when(imageProcessingService.decodeImage(spooledFile))
+                .thenReturn(new DecodedImage(raster, "image/jpeg", 1920, 1080));
+        when(imageProcessingService.optimizeImage(any(BufferedImage.class), anyInt()))
+                .thenReturn(new ByteArrayInputStream("optimized".getBytes()));
+        when(imageProcessingService.createThumbnail(any(BufferedImage.class)))
+                .thenReturn(new ByteArrayInputStream("thumbnail".getBytes()));
+        when(storageService.buildFileKey(1L, 5L, "test.jpg")).thenReturn("captures/test.jpg");
+        when(storageService.buildThumbnailKey(1L, 5L, "test.jpg")).thenReturn("thumbnails/test.jpg");
+        when(storageService.uploadFile(eq("captures/test.jpg"), any(), anyLong(), any())).thenReturn("https://cdn/original.jpg");
+        when(storageService.uploadFile(eq("thumbnails/test.jpg"), any(), anyLong(), any())).thenReturn("https://cdn/thumb.jpg");
+
+        queue.process(10L, spooledFile);
+
+        assertEquals(ImageStatus.READY, pendingImage.getStatus());
+        assertEquals("https://cdn/original.jpg", pendingImage.getOriginalUrl());
+        assertEquals("https://cdn/thumb.jpg", pendingImage.getThumbnailUrl());
+        assertEquals("captures/test.jpg", pendingImage.getS3Key());
+        assertEquals(1920, pendingImage.getWidth());
+        assertFalse(Files.exists(spooledFile));
+    }
+
+    @Test
+    void process_decodeFails_marksFailedAndDeletesSpool() {
+        when(imageProcessingService.decodeImage(spooledFile))
+                .thenThrow(new InvalidImageException("El archivo no es una imagen válida"));
+
+        queue.process(10L, spooledFile);
+
+        assertEquals(ImageStatus.FAILED, pendingImage.getStatus());
+        assertEquals("El archivo no es una imagen válida", pendingImage.getErrorMessage());
+        assertFalse(Files.exists(spooledFile));
+        verify(storageService, never()).uploadFile(any(), any(), anyLong(), any());
+    }
+
+    @Test
+    void process_thumbnailUploadFails_removesUploadedOriginal() {
+        BufferedImage raster = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        when(imageProcessingService.decodeImage(spooledFile))
+                .thenReturn(new DecodedImage(raster, "image/jpeg", 100, 100));
+        when(imageProcessingService.optimizeImage(any(BufferedImage.class), anyInt()))
+                .thenReturn(new ByteArrayInputStream("optimized".getBytes()));
+        when(imageProcessingService.createThumbnail(any(BufferedImage.class)))
+                .thenReturn(new ByteArrayInputStream("thumbnail".getBytes()));
+        when(storageService.buildFileKey(anyLong(), anyLong(), any())).thenReturn("captures/test.jpg");
+        when(storageService.buildThumbnailKey(anyLong(), anyLong(), any())).thenReturn("thumbnails/test.jpg");
+        when(storageService.uploadFile(eq("captures/test.jpg"), any(), anyLong(), any())).thenReturn("https://cdn/original.jpg");
+        when(storageService.uploadFile(eq("thumbnails/test.jpg"), any(), anyLong(), any()))
+                .thenThrow(new StorageException("Error al subir archivo"));
+
+        queue.process(10L, spooledFile);
+
+        assertEquals(ImageStatus.FAILED, pendingImage.getStatus());
+        verify(storageService).deleteFile("captures/test.jpg");
+    }
+
+    @Test
+    void process_imageDeletedBeforeProcessing_skipsWork() {
+        when(captureImageRepository.findById(10L)).thenReturn(Optional.empty());
+
+        queue.process(10L, spooledFile);
+
+        verifyNoInteractions(imageProcessingService, storageService);
+        assertFalse(Files.exists(spooledFile));
+    }
+
+    @Test
+    void submit_withoutTransaction_spoolsAndProcesses() throws Exception {
+        when(imageProcessingService.decodeImage(any(Path.class)))
+                .thenThrow(new InvalidImageException("El archivo no es una imagen válida"));
+
+        queue.submit(10L, new MockMultipartFile("file", "test.jpg", "image/jpeg", "fake".getBytes()));
+
+        verify(imageProcessingService, timeout(5000)).decodeImage(spoolDir.resolve("10.upload"));
+    }
+}
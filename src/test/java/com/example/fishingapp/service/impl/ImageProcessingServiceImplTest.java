@@ -0,0 +1,242 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.dto.image.DecodedImage;
+import com.example.fishingapp.exception.InvalidImageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageProcessingServiceImplTest {
+
+    private ImageProcessingServiceImpl imageProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        imageProcessingService = new ImageProcessingServiceImpl();
+        ReflectionTestUtils.setField(imageProcessingService, "maxFileSize", 10485760L);
+        ReflectionTestUtils.setField(imageProcessingService, "maxOutputSize", 10485760L);
+        ReflectionTestUtils.setField(imageProcessingService, "allowedTypesString", "image/jpeg,image/png,image/webp");
+        ReflectionTestUtils.setField(imageProcessingService, "thumbnailWidth", 300);
+        ReflectionTestUtils.setField(imageProcessingService, "thumbnailHeight", 300);
+    }
+
+    // -------------------------------------------------------------
+    // Validación (solo cabecera)
+    // -------------------------------------------------------------
+
+    @Test
+    void validateImage_validJpeg_passes() throws IOException {
+        MockMultipartFile file = jpegFile(640, 480);
+
+        assertDoesNotThrow(() -> imageProcessingService.validateImage(file));
+    }
+
+    @Test
+    void validateImage_tooSmall_throwsException() throws IOException {
+        MockMultipartFile file = jpegFile(50, 50);
+
+        InvalidImageException ex = assertThrows(InvalidImageException.class,
+                () -> imageProcessingService.validateImage(file));
+        assertTrue(ex.getMessage().contains("demasiado pequeña"));
+    }
+
+    @Test
+    void getImageDimensions_readsHeader() throws IOException {
+        byte[] bytes = jpegBytes(800, 600);
+
+        int[] dimensions = imageProcessingService.getImageDimensions(new ByteArrayInputStream(bytes));
+
+        assertArrayEquals(new int[]{800, 600}, dimensions);
+    }
+
+    @Test
+    void getImageDimensions_notAnImage_returnsZeros() {
+        int[] dimensions = imageProcessingService.getImageDimensions(
+                new ByteArrayInputStream("no es una imagen".getBytes()));
+
+        assertArrayEquals(new int[]{0, 0}, dimensions);
+    }
+
+    @Test
+    void computeContentHash_returnsSha256OfRawBytes() {
+        MockMultipartFile file = new MockMultipartFile("file", "a.jpg", "image/jpeg", "abc".getBytes());
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                imageProcessingService.computeContentHash(file));
+    }
+
+    // -------------------------------------------------------------
+    // Decodificación única
+    // -------------------------------------------------------------
+
+    @Test
+    void decodeImage_returnsRasterAndMetadata() throws IOException {
+        MockMultipartFile file = jpegFile(640, 480);
+
+        DecodedImage decoded = imageProcessingService.decodeImage(file);
+
+        assertEquals("image/jpeg", decoded.mimeType());
+        assertEquals(640, decoded.width());
+        assertEquals(480, decoded.height());
+        assertNotNull(decoded.image());
+    }
+
+    @Test
+    void decodeImage_appliesExifOrientation() throws IOException {
+        // Foto vertical de móvil: raster apaisado 640x480 con Orientation=6 (girar 90° a la derecha)
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "portrait.jpg", "image/jpeg", withExifOrientation(jpegBytes(640, 480), 6));
+
+        DecodedImage decoded = imageProcessingService.decodeImage(file);
+
+        assertEquals(480, decoded.width());
+        assertEquals(640, decoded.height());
+        assertEquals(480, decoded.image().getWidth());
+        assertEquals(640, decoded.image().getHeight());
+    }
+
+    @Test
+    void thumbnailFromStream_appliesExifOrientation() throws IOException {
+        byte[] portrait = withExifOrientation(jpegBytes(600, 400), 6);
+
+        BufferedImage thumbnail = ImageIO.read(
+                imageProcessingService.createThumbnail(new ByteArrayInputStream(portrait), "jpg"));
+
+        assertEquals(200, thumbnail.getWidth());
+        assertEquals(300, thumbnail.getHeight());
+    }
+
+    @Test
+    void decodeImage_notAnImage_throwsException() {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "fake.jpg", "image/jpeg", "no es una imagen".getBytes());
+
+        assertThrows(InvalidImageException.class, () -> imageProcessingService.decodeImage(file));
+    }
+
+    @Test
+    void optimizeAndThumbnail_fromDecodedRaster() throws IOException {
+        BufferedImage image = new BufferedImage(2400, 1200, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage optimized = ImageIO.read(imageProcessingService.optimizeImage(image, 1920));
+        BufferedImage thumbnail = ImageIO.read(imageProcessingService.createThumbnail(image));
+
+        assertEquals(1920, optimized.getWidth());
+        assertEquals(960, optimized.getHeight());
+        assertEquals(300, thumbnail.getWidth());
+        assertEquals(150, thumbnail.getHeight());
+    }
+
+    // -------------------------------------------------------------
+    // Selección de calidad en una sola pasada
+    // -------------------------------------------------------------
+
+    @Test
+    void optimizeImage_overLimit_lowersQualityWithoutResizing() throws IOException {
+        BufferedImage image = noiseImage(1000, 1000);
+        int atMaxQuality = imageProcessingService.optimizeImage(image, 1000).available();
+        long limit = atMaxQuality * 3L / 4;
+        ReflectionTestUtils.setField(imageProcessingService, "maxOutputSize", limit);
+
+        ByteArrayInputStream optimized = imageProcessingService.optimizeImage(image, 1000);
+
+        assertTrue(optimized.available() <= limit);
+        assertEquals(1000, ImageIO.read(optimized).getWidth());
+    }
+
+    @Test
+    void optimizeImage_tooLargeEvenAtMinQuality_shrinksOnce() throws IOException {
+        BufferedImage image = noiseImage(1600, 1200);
+        ReflectionTestUtils.setField(imageProcessingService, "maxOutputSize", 300_000L);
+
+        ByteArrayInputStream optimized = imageProcessingService.optimizeImage(image, 1600);
+
+        assertTrue(optimized.available() <= 300_000);
+        int width = ImageIO.read(optimized).getWidth();
+        assertTrue(width < 1600 && width >= 800);
+    }
+
+    @Test
+    void optimizeImage_cannotFit_throwsException() {
+        BufferedImage image = noiseImage(600, 600);
+        ReflectionTestUtils.setField(imageProcessingService, "maxOutputSize", 2_048L);
+
+        InvalidImageException ex = assertThrows(InvalidImageException.class,
+                () -> imageProcessingService.optimizeImage(image, 600));
+        assertTrue(ex.getMessage().contains("límite de 2 KB"));
+    }
+
+    @Test
+    void optimizeImage_reusesPooledBuffersWithoutMixingResults() throws IOException {
+        ReflectionTestUtils.setField(imageProcessingService, "encodeBufferPoolSize", 2);
+        ReflectionTestUtils.setField(imageProcessingService, "encodeBufferMaxRetainedBytes", 4 * 1024 * 1024);
+        BufferedImage large = noiseImage(800, 600);
+        BufferedImage small = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+
+        byte[] first = imageProcessingService.optimizeImage(large, 800).readAllBytes();
+        byte[] thumbnail = imageProcessingService.createThumbnail(small).readAllBytes();
+        byte[] second = imageProcessingService.optimizeImage(large, 800).readAllBytes();
+
+        assertArrayEquals(first, second);
+        assertEquals(300, ImageIO.read(new ByteArrayInputStream(thumbnail)).getWidth());
+    }
+
+    private BufferedImage noiseImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0xFFFFFF));
+            }
+        }
+        return image;
+    }
+
+    private MockMultipartFile jpegFile(int width, int height) throws IOException {
+        return new MockMultipartFile("file", "test.jpg", "image/jpeg", jpegBytes(width, height));
+    }
+
+    /**
+     * Inserta un segmento APP1 Exif mínimo con solo la etiqueta Orientation, tras el APP0 JFIF
+     * que escribe ImageIO (el lector JPEG exige que JFIF sea el primer marcador)
+     */
+    private byte[] withExifOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {
+                'E', 'x', 'i', 'f', 0, 0,
+                // Cabecera TIFF big-endian, primer IFD en el offset 8
+                'M', 'M', 0, 0x2A, 0, 0, 0, 8,
+                // IFD con una entrada: 0x0112 (Orientation), SHORT, 1 valor
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                // Sin IFD siguiente
+                0, 0, 0, 0
+        };
+        int length = exif.length + 2;
+        int insertAt = 4 + ((jpeg[4] & 0xFF) << 8 | (jpeg[5] & 0xFF));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, insertAt);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.write(exif, 0, exif.length);
+        out.write(jpeg, insertAt, jpeg.length - insertAt);
+        return out.toByteArray();
+    }
+
+    private byte[] jpegBytes(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.exception.StorageException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageTaskExecutorTest {
+
+    @Test
+    void upload_parallelMode_runsTasksConcurrently() {
+        ImageTaskExecutor executor = new ImageTaskExecutor(true, 2, 2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try {
+            // Cada subida espera a que la otra haya empezado: solo termina si corren a la vez
+            CompletableFuture<Boolean> original = executor.upload(() -> awaitOther(bothStarted));
+            CompletableFuture<Boolean> thumbnail = executor.upload(() -> awaitOther(bothStarted));
+
+            assertTrue(ImageTaskExecutor.await(original));
+            assertTrue(ImageTaskExecutor.await(thumbnail));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void process_sequentialMode_runsInCallerThread() {
+        ImageTaskExecutor executor = new ImageTaskExecutor(false, 1, 1);
+        Thread caller = Thread.currentThread();
+
+        CompletableFuture<Thread> result = executor.process(Thread::currentThread);
+
+        assertSame(caller, ImageTaskExecutor.await(result));
+    }
+
+    @Test
+    void await_rethrowsOriginalException() {
+        ImageTaskExecutor executor = new ImageTaskExecutor(true, 1, 1);
+
+        try {
+            CompletableFuture<String> failed = executor.upload(() -> {
+                throw new StorageException("Error al subir archivo");
+            });
+
+            StorageException ex = assertThrows(StorageException.class, () -> ImageTaskExecutor.await(failed));
+            assertEquals("Error al subir archivo", ex.getMessage());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean awaitOther(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -3,12 +3,15 @@ package com.example.fishingapp.service.impl;
 import com.example.fishingapp.security.AuthUser;
 import com.example.fishingapp.security.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -134,4 +137,43 @@ public class JwtServiceImplTest {
             jwtService.extractClaim(token, Claims::getExpiration);
         });
     }
+
+    @Test
+    void extractClaim_sameToken_reusesVerifiedClaims() {
+        String token = jwtService.generateToken(userDetails);
+
+        Claims first = jwtService.extractClaim(token, claims -> claims);
+        Claims second = jwtService.extractClaim(token, claims -> claims);
+
+        assertSame(first, second);
+        assertTrue(jwtService.isTokenValid(token, userDetails));
+    }
+
+    @Test
+    void extractUsername_tamperedToken_throwsException() {
+        String token = jwtService.generateToken(userDetails);
+        jwtService.extractUsername(token);
+
+        String tampered = token.substring(0, token.length() - 2)
+                + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.extractUsername(tampered));
+    }
+
+    @Test
+    void isTokenValid_cachedTokenAfterExpiration_throwsExpired() throws InterruptedException {
+        JwtService shortLived = new JwtService();
+        ReflectionTestUtils.setField(shortLived, "secretKey",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(shortLived, "jwtExpiration", 2500L);
+        ReflectionTestUtils.setField(shortLived, "claimsCacheMaxSize", 10);
+        shortLived.init();
+
+        String token = shortLived.generateToken(userDetails);
+        assertTrue(shortLived.isTokenValid(token, userDetails));
+
+        Thread.sleep(2600);
+
+        assertThrows(ExpiredJwtException.class, () -> shortLived.isTokenValid(token, userDetails));
+    }
 }
@@ -0,0 +1,93 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.dto.FileMetaData;
+import com.example.fishingapp.exception.ResourceNotFoundException;
+import com.example.fishingapp.exception.StorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageServiceImplTest {
+
+    @TempDir
+    Path root;
+
+    private LocalStorageServiceImpl storageService;
+
+    @BeforeEach
+    void setUp() {
+        storageService = new LocalStorageServiceImpl(root.toString(), "http://localhost:8080/files/", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storageService.shutdown();
+    }
+
+    @Test
+    void uploadFile_writesFileAndReturnsPublicUrl() throws Exception {
+        byte[] content = "contenido de la imagen".getBytes();
+
+        String url = storageService.uploadFile("captures/user_1/capture_2/a.jpg",
+                new ByteArrayInputStream(content), content.length, "image/jpeg");
+
+        assertEquals("http://localhost:8080/files/captures/user_1/capture_2/a.jpg", url);
+        assertArrayEquals(content, Files.readAllBytes(root.resolve("captures/user_1/capture_2/a.jpg")));
+        // Sin temporales sueltos tras el movimiento atómico
+        try (var files = Files.list(root.resolve("captures/user_1/capture_2"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void getFileMetadata_readsSizeAndTypeFromDisk() {
+        storageService.uploadFile("thumbnails/b.png", new ByteArrayInputStream(new byte[42]), 42, "image/png");
+
+        FileMetaData metadata = storageService.getFileMetadata("thumbnails/b.png");
+
+        assertEquals(42, metadata.contentLength());
+        assertEquals("image/png", metadata.contentType());
+        assertTrue(storageService.fileExists("thumbnails/b.png"));
+    }
+
+    @Test
+    void deleteFiles_removesFilesAndIgnoresMissingOnes() {
+        storageService.uploadFile("captures/a.jpg", new ByteArrayInputStream(new byte[1]), 1, "image/jpeg");
+
+        storageService.deleteFiles(List.of("captures/a.jpg", "captures/no-existe.jpg"));
+
+        assertFalse(storageService.fileExists("captures/a.jpg"));
+    }
+
+    @Test
+    void deleteFiles_manyKeys_deletesAllInParallelAndReportsFailures() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String key = "captures/user_1/img_" + i + ".jpg";
+            storageService.uploadFile(key, new ByteArrayInputStream(new byte[1]), 1, "image/jpeg");
+            keys.add(key);
+        }
+        keys.add("../fuera.jpg");
+
+        StorageException error = assertThrows(StorageException.class, () -> storageService.deleteFiles(keys));
+
+        assertTrue(error.getMessage().contains("../fuera.jpg"));
+        assertTrue(keys.subList(0, 50).stream().noneMatch(storageService::fileExists));
+    }
+
+    @Test
+    void keysOutsideRoot_areRejected() {
+        assertThrows(StorageException.class, () -> storageService.uploadFile("../fuera.jpg",
+                new ByteArrayInputStream(new byte[1]), 1, "image/jpeg"));
+        assertThrows(ResourceNotFoundException.class, () -> storageService.loadAsResource("../../etc/passwd"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.model.ImageStatus;
+import com.example.fishingapp.repository.CaptureImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StaleImageSweepJobTest {
+
+    private CaptureImageRepository captureImageRepository;
+    private ClusterLock clusterLock;
+    private StaleImageSweepJob job;
+
+    @BeforeEach
+    void setUp() {
+        captureImageRepository = mock(CaptureImageRepository.class);
+        clusterLock = mock(ClusterLock.class);
+        job = new StaleImageSweepJob(captureImageRepository, clusterLock, 30, 300);
+    }
+
+    @Test
+    void sweep_whenAnotherNodeHoldsTheLock_doesNothing() {
+        when(clusterLock.tryLock(eq(StaleImageSweepJob.LOCK_NAME), any())).thenReturn(false);
+
+        job.sweep();
+
+        verifyNoInteractions(captureImageRepository);
+        verify(clusterLock, never()).unlock(any());
+    }
+
+    @Test
+    void sweep_marksPendingAndProcessingOlderThanThresholdAndReleasesTheLock() {
+        when(clusterLock.tryLock(eq(StaleImageSweepJob.LOCK_NAME), any())).thenReturn(true);
+        when(captureImageRepository.markStaleAsFailed(any(), any(), any())).thenReturn(2);
+
+        job.sweep();
+
+        verify(captureImageRepository).markStaleAsFailed(
+                eq(List.of(ImageStatus.PENDING, ImageStatus.PROCESSING)), any(), eq(StaleImageSweepJob.STALE_REASON));
+        verify(clusterLock).unlock(StaleImageSweepJob.LOCK_NAME);
+    }
+
+    @Test
+    void sweepStale_usesStaleAfterAsCutoff() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(captureImageRepository.markStaleAsFailed(any(), any(), any())).thenReturn(3);
+
+        assertEquals(3, job.sweepStale(now));
+
+        verify(captureImageRepository).markStaleAsFailed(any(), eq(now.minusMinutes(30)), any());
+    }
+}
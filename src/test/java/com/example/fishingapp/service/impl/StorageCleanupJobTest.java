@@ -0,0 +1,126 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.exception.StorageException;
+import com.example.fishingapp.model.StorageDeletion;
+import com.example.fishingapp.repository.StorageDeletionRepository;
+import com.example.fishingapp.service.StorageService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StorageCleanupJobTest {
+
+    private StorageDeletionRepository storageDeletionRepository;
+    private StorageService storageService;
+    private ClusterLock clusterLock;
+    private SimpleMeterRegistry meterRegistry;
+    private StorageCleanupJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        storageDeletionRepository = mock(StorageDeletionRepository.class);
+        storageService = mock(StorageService.class);
+        clusterLock = mock(ClusterLock.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(meterRegistry);
+
+        job = new StorageCleanupJob(storageDeletionRepository, storageService, clusterLock, provider,
+                100, 10, 30, 3600, 300, 30);
+    }
+
+    @Test
+    void drain_whenAnotherNodeHoldsTheLock_doesNothing() {
+        when(clusterLock.tryLock(eq(StorageCleanupJob.LOCK_NAME), any())).thenReturn(false);
+
+        job.drain();
+
+        verifyNoInteractions(storageDeletionRepository, storageService);
+    }
+
+    @Test
+    void drain_withTheLock_drainsPurgesAndReleasesTheLock() {
+        when(clusterLock.tryLock(eq(StorageCleanupJob.LOCK_NAME), any())).thenReturn(true);
+        when(storageDeletionRepository.findDue(any(), anyInt(), any())).thenReturn(List.of());
+        when(storageDeletionRepository.findAbandonedBefore(anyInt(), any(), any())).thenReturn(List.of());
+
+        job.drain();
+
+        verify(storageDeletionRepository).findDue(any(), eq(10), any());
+        verify(storageDeletionRepository).findAbandonedBefore(eq(10), any(), any());
+        verify(clusterLock).unlock(StorageCleanupJob.LOCK_NAME);
+    }
+
+    @Test
+    void purgeAbandoned_discardsExhaustedRowsOlderThanRetention() {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 10, 12, 0);
+        List<StorageDeletion> expired = List.of(StorageDeletion.of("a.jpg"));
+        when(storageDeletionRepository.findAbandonedBefore(eq(10), eq(now.minusDays(30)), any())).thenReturn(expired);
+
+        assertEquals(1, job.purgeAbandoned(now));
+
+        verify(storageDeletionRepository).deleteAllInBatch(expired);
+    }
+
+    @Test
+    void drainBatch_lastAttemptFails_countsAbandonedDeletion() {
+        StorageDeletion broken = StorageDeletion.of("b.jpg");
+        broken.setAttempts(9);
+        when(storageDeletionRepository.findDue(any(), anyInt(), any())).thenReturn(List.of(broken));
+        doThrow(new StorageException("Error al eliminar archivos")).when(storageService).deleteFiles(anyCollection());
+        doThrow(new StorageException("Timeout")).when(storageService).deleteFile("b.jpg");
+
+        job.drainBatch();
+
+        assertEquals(10, broken.getAttempts());
+        assertEquals(1.0, meterRegistry.get("storage.deletions.abandoned").counter().count());
+    }
+
+    @Test
+    void drainBatch_nothingDue_doesNotCallStorage() {
+        when(storageDeletionRepository.findDue(any(), anyInt(), any())).thenReturn(List.of());
+
+        assertEquals(0, job.drainBatch());
+
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void drainBatch_bulkSucceeds_removesRows() {
+        List<StorageDeletion> due = List.of(StorageDeletion.of("a.jpg"), StorageDeletion.of("b.jpg"));
+        when(storageDeletionRepository.findDue(any(), anyInt(), any())).thenReturn(due);
+
+        assertEquals(2, job.drainBatch());
+
+        verify(storageService).deleteFiles(List.of("a.jpg", "b.jpg"));
+        verify(storageDeletionRepository).deleteAllInBatch(due);
+        verify(storageService, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void drainBatch_bulkFails_retriesEachKeyAndReschedulesFailures() {
+        StorageDeletion ok = StorageDeletion.of("a.jpg");
+        StorageDeletion broken = StorageDeletion.of("b.jpg");
+        when(storageDeletionRepository.findDue(any(), anyInt(), any())).thenReturn(List.of(ok, broken));
+        doThrow(new StorageException("Error al eliminar archivos")).when(storageService).deleteFiles(anyCollection());
+        doThrow(new StorageException("Timeout")).when(storageService).deleteFile("b.jpg");
+
+        job.drainBatch();
+
+        verify(storageDeletionRepository).deleteAllInBatch(List.of(ok));
+        verify(storageDeletionRepository).saveAll(List.of(broken));
+        assertEquals(1, broken.getAttempts());
+        assertEquals("Timeout", broken.getLastError());
+        assertTrue(broken.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.fishingapp.service.impl;
+
+import com.example.fishingapp.repository.RefreshTokenRepository;
+import com.example.fishingapp.repository.VerificationTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenCleanupJobTest {
+
+    private RefreshTokenRepository refreshTokenRepository;
+    private VerificationTokenRepository verificationTokenRepository;
+    private ClusterLock clusterLock;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenCleanupJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        refreshTokenRepository = mock(RefreshTokenRepository.class);
+        verificationTokenRepository = mock(VerificationTokenRepository.class);
+        clusterLock = mock(ClusterLock.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ObjectProvider<MeterRegistry> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(meterRegistry);
+
+        job = new TokenCleanupJob(refreshTokenRepository, verificationTokenRepository, clusterLock,
+                provider, 100, 3, 600);
+    }
+
+    @Test
+    void purge_whenAnotherNodeHoldsTheLock_doesNothing() {
+        when(clusterLock.tryLock(eq(TokenCleanupJob.LOCK_NAME), any())).thenReturn(false);
+
+        job.purge();
+
+        verifyNoInteractions(refreshTokenRepository, verificationTokenRepository);
+        verify(clusterLock, never()).unlock(any());
+    }
+
+    @Test
+    void purge_deletesInBatchesUntilAPartialBatchAndReleasesTheLock() {
+        when(clusterLock.tryLock(eq(TokenCleanupJob.LOCK_NAME), any())).thenReturn(true);
+        when(refreshTokenRepository.deleteExpiredBatch(any(), eq(100))).thenReturn(100, 40);
+        when(verificationTokenRepository.deleteExpiredBatch(any(), eq(100))).thenReturn(7);
+
+        job.purge();
+
+        verify(refreshTokenRepository, times(2)).deleteExpiredBatch(any(), eq(100));
+        verify(verificationTokenRepository, times(1)).deleteExpiredBatch(any(), eq(100));
+        verify(clusterLock).unlock(TokenCleanupJob.LOCK_NAME);
+        assertEquals(140, meterRegistry.get("tokens.purged").tag("type", "refresh").counter().count());
+        assertEquals(7, meterRegistry.get("tokens.purged").tag("type", "verification").counter().count());
+    }
+
+    @Test
+    void purgeExpired_stopsAfterMaxBatches() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(100);
+        when(verificationTokenRepository.deleteExpiredBatch(any(), anyInt())).thenReturn(0);
+
+        assertEquals(300, job.purgeExpired(LocalDateTime.now()));
+
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(), anyInt());
+    }
+
+    @Test
+    void purge_releasesTheLockWhenDeleteFails() {
+        when(clusterLock.tryLock(eq(TokenCleanupJob.LOCK_NAME), any())).thenReturn(true);
+        when(refreshTokenRepository.deleteExpiredBatch(any(), anyInt())).thenThrow(new IllegalStateException("BD caída"));
+
+        assertThrows(IllegalStateException.class, () -> job.purge());
+
+        verify(clusterLock).unlock(TokenCleanupJob.LOCK_NAME);
+    }
+}
@@ -6,11 +6,15 @@ import com.example.fishingapp.exception.UsernameAlreadyExistsException;
 import com.example.fishingapp.mapper.UserMapper;
 import com.example.fishingapp.model.User;
 import com.example.fishingapp.repository.UserRepository;
+import com.example.fishingapp.security.AuthUser;
+import com.example.fishingapp.service.CustomUserDetailsService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -29,6 +33,13 @@ class UsersServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    // Caché real en memoria (sin Spring)
+    @Spy
+    private DtoCache dtoCache = new DtoCache(new ConcurrentMapCacheManager());
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -321,4 +332,42 @@ class UsersServiceImplTest {
         verify(userRepository, times(1)).save(existingUser);
     }
 
+
+    @Test
+    void deleteUser_evictsCachedAuthUser() {
+        AuthUser authUser = AuthUser.builder().id(3L).username("ImaHer").email("imanol@prueba.com").build();
+        User existingUser = User.builder()
+                .id(1L)
+                .username("ImaHer")
+                .fullName("Imanol Hernandez")
+                .email("imanol@prueba.com")
+                .authUser(authUser)
+                .build();
+        when(userRepository.findByUsername("ImaHer")).thenReturn(Optional.of(existingUser));
+
+        userService.deleteUser("ImaHer");
+
+        verify(userDetailsService).evictUser(authUser);
+        verify(userRepository).delete(existingUser);
+    }
+
+    @Test
+    void findByUsername_isCached_andEvictedOnDelete() {
+        User existingUser = User.builder()
+                .id(1L)
+                .username("ImaHer")
+                .fullName("Imanol Hernandez")
+                .email("imanol@prueba.com")
+                .build();
+        when(userRepository.findByUsername("ImaHer")).thenReturn(Optional.of(existingUser));
+
+        userService.findByUsername("ImaHer");
+        userService.findByUsername("ImaHer");
+        verify(userRepository, times(1)).findByUsername("ImaHer");
+
+        userService.deleteUser("ImaHer");
+        when(userRepository.findByUsername("ImaHer")).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.findByUsername("ImaHer"));
+    }
 }
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -247,12 +248,38 @@ class VerificationTokenServiceImplTest extends BaseIntegrationTest {
                 .build();
         expiredToken = verificationTokenRepository.save(expiredToken);
 
-        verificationTokenService.deleteExpiredTokens();
+        int deleted = verificationTokenService.deleteExpiredTokens();
 
+        assertEquals(1, deleted);
         assertTrue(verificationTokenRepository.existsById(validToken.getId()));
         assertFalse(verificationTokenRepository.existsById(expiredToken.getId()));
     }
 
+    @Test
+    void deleteExpiredTokens_stopsAfterMaxBatches() {
+        ReflectionTestUtils.setField(verificationTokenService, "deleteBatchSize", 1);
+        ReflectionTestUtils.setField(verificationTokenService, "maxDeleteBatches", 2);
+        try {
+            for (int i = 0; i < 3; i++) {
+                verificationTokenRepository.save(VerificationToken.builder()
+                        .authUser(testAuthUser)
+                        .tokenType(VerificationToken.TokenType.PASSWORD_RESET)
+                        .expiryDate(LocalDateTime.now().minusDays(1))
+                        .used(false)
+                        .build());
+            }
+
+            int deleted = verificationTokenService.deleteExpiredTokens();
+
+            // El token restante queda para la siguiente ejecución
+            assertEquals(2, deleted);
+            assertEquals(1, verificationTokenRepository.count());
+        } finally {
+            ReflectionTestUtils.setField(verificationTokenService, "deleteBatchSize", 1000);
+            ReflectionTestUtils.setField(verificationTokenService, "maxDeleteBatches", 500);
+        }
+    }
+
     @Test
     void deleteUserTokens_deletesAllUserTokens() {
         // Crear token de verificación de email